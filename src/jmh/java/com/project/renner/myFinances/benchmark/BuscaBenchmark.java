@@ -0,0 +1,65 @@
+package com.project.renner.myFinances.benchmark;
+
+import com.project.renner.myFinances.dto.LancamentoDTO;
+import com.project.renner.myFinances.model.Lancamento;
+import com.project.renner.myFinances.model.Usuario;
+import com.project.renner.myFinances.service.LancamentoService;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.data.domain.Slice;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Primeira pagina de {@code buscar} para cada combinacao de filtros, sobre 100 mil lancamentos do usuario.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx2g")
+public class BuscaBenchmark {
+
+    static final int LANCAMENTOS = 100_000;
+    static final int TAMANHO_PAGINA = 50;
+
+    @Param({"usuario", "usuario+ano", "usuario+ano+mes", "usuario+descricao", "usuario+ano+mes+descricao"})
+    String filtros;
+
+    ConfigurableApplicationContext contexto;
+
+    LancamentoService lancamentoService;
+
+    Lancamento filtro;
+
+    @Setup(Level.Trial)
+    public void iniciar() {
+        contexto = ContextoBenchmark.iniciar();
+        lancamentoService = contexto.getBean(LancamentoService.class);
+        Usuario usuario = new Usuario();
+        usuario.setId(ContextoBenchmark.popular(contexto, LANCAMENTOS));
+
+        filtro = new Lancamento();
+        filtro.setUsuario(usuario);
+        if (filtros.contains("ano")) {
+            filtro.setAno(2019);
+        }
+        if (filtros.contains("mes")) {
+            filtro.setMes(6);
+        }
+        if (filtros.contains("descricao")) {
+            filtro.setDescricao("merc");
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void encerrar() {
+        contexto.close();
+    }
+
+    @Benchmark
+    public Slice<LancamentoDTO> buscar() {
+        return lancamentoService.buscar(filtro, null, TAMANHO_PAGINA);
+    }
+}
@@ -0,0 +1,66 @@
+package com.project.renner.myFinances.benchmark;
+
+import com.project.renner.myFinances.MyFinancesApplication;
+import com.project.renner.myFinances.enums.TipoLancamento;
+import com.project.renner.myFinances.model.Usuario;
+import com.project.renner.myFinances.repository.UsuarioRepository;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.math.BigDecimal;
+import java.sql.Date;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Sobe a aplicacao com o perfil de testes (H2 em memoria) e popula lancamentos direto por JDBC.
+ */
+final class ContextoBenchmark {
+
+    static final String[] DESCRICOES = {"aluguel", "mercado", "farmacia", "salario", "combustivel", "academia"};
+
+    private static final int TAMANHO_LOTE_INSERT = 10_000;
+
+    private ContextoBenchmark() {
+    }
+
+    static ConfigurableApplicationContext iniciar() {
+        return new SpringApplicationBuilder(MyFinancesApplication.class)
+                .profiles("test")
+                .logStartupInfo(false)
+                .properties("server.port=0",
+                        "spring.main.banner-mode=off",
+                        "logging.level.root=WARN",
+                        "spring.jpa.open-in-view=false",
+                        "spring.datasource.url=jdbc:h2:mem:benchmark;DB_CLOSE_DELAY=-1;DB_CLOSE_ON_EXIT=FALSE;"
+                                + "INIT=CREATE SCHEMA IF NOT EXISTS financas",
+                        "myfinances.leitura-reativa.url=r2dbc:h2:mem:///benchmark;DB_CLOSE_DELAY=-1",
+                        "spring.jpa.properties.hibernate.generate_statistics=false")
+                .run();
+    }
+
+    /**
+     * Grava um usuario com {@code quantidade} lancamentos distribuidos por tres anos e doze meses.
+     */
+    static Long popular(ConfigurableApplicationContext contexto, int quantidade) {
+        Usuario usuario = contexto.getBean(UsuarioRepository.class).save(Usuario.builder()
+                .nome("benchmark").email("benchmark" + System.nanoTime() + "@email.com").senha("senha").build());
+        JdbcTemplate jdbcTemplate = contexto.getBean(JdbcTemplate.class);
+        Date hoje = Date.valueOf(LocalDate.now());
+        List<Object[]> linhas = new ArrayList<>(TAMANHO_LOTE_INSERT);
+        for (int i = 0; i < quantidade; i++) {
+            TipoLancamento tipo = i % 3 == 0 ? TipoLancamento.DESPESA : TipoLancamento.RECEITA;
+            linhas.add(new Object[]{DESCRICOES[i % DESCRICOES.length] + " " + i, i % 12 + 1, 2018 + i % 3,
+                    usuario.getId(), BigDecimal.valueOf(i % 500 + 1), hoje, tipo.name(), "PENDENTE"});
+            if (linhas.size() == TAMANHO_LOTE_INSERT || i == quantidade - 1) {
+                jdbcTemplate.batchUpdate("INSERT INTO financas.lancamento (id, descricao, mes, ano, id_usuario, valor,"
+                        + " data_cadastro, tipo, status, versao) VALUES (NEXT VALUE FOR financas.lancamento_id_seq,"
+                        + " ?, ?, ?, ?, ?, ?, ?, ?, 0)", linhas);
+                linhas.clear();
+            }
+        }
+        return usuario.getId();
+    }
+}
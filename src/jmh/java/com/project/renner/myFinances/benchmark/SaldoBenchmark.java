@@ -0,0 +1,59 @@
+package com.project.renner.myFinances.benchmark;
+
+import com.project.renner.myFinances.repository.LancamentoRepository;
+import com.project.renner.myFinances.service.LancamentoService;
+import com.project.renner.myFinances.service.SaldoUsuarioService;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.math.BigDecimal;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Saldo de um usuario com 1 mil a 1 milhao de lancamentos no H2: leitura do saldo materializado
+ * ({@code obterSaldoPorUsuario}) contra a agregacao sobre os lancamentos.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx2g")
+public class SaldoBenchmark {
+
+    @Param({"1000", "100000", "1000000"})
+    int lancamentos;
+
+    ConfigurableApplicationContext contexto;
+
+    LancamentoService lancamentoService;
+
+    LancamentoRepository lancamentoRepository;
+
+    Long idUsuario;
+
+    @Setup(Level.Trial)
+    public void iniciar() {
+        contexto = ContextoBenchmark.iniciar();
+        lancamentoService = contexto.getBean(LancamentoService.class);
+        lancamentoRepository = contexto.getBean(LancamentoRepository.class);
+        idUsuario = ContextoBenchmark.popular(contexto, lancamentos);
+        // os lancamentos foram gravados por JDBC; a reconciliacao cria o saldo materializado
+        contexto.getBean(SaldoUsuarioService.class).reconciliar();
+    }
+
+    @TearDown(Level.Trial)
+    public void encerrar() {
+        contexto.close();
+    }
+
+    @Benchmark
+    public BigDecimal saldoMaterializado() {
+        return lancamentoService.obterSaldoPorUsuario(idUsuario);
+    }
+
+    @Benchmark
+    public BigDecimal saldoAgregado() {
+        return lancamentoRepository.obterSaldoConsolidado(idUsuario).getSaldo();
+    }
+}
@@ -0,0 +1,65 @@
+package com.project.renner.myFinances.benchmark;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.project.renner.myFinances.dto.LancamentoDTO;
+import com.project.renner.myFinances.enums.StatusLancamento;
+import com.project.renner.myFinances.enums.TipoLancamento;
+import com.project.renner.myFinances.model.Lancamento;
+import com.project.renner.myFinances.model.Usuario;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Serializacao JSON de uma lista de entidades (com o usuario aninhado) contra a mesma lista em DTOs,
+ * com o ObjectMapper configurado como o do Spring Boot.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SerializacaoBenchmark {
+
+    @Param({"50", "1000"})
+    int tamanho;
+
+    ObjectMapper objectMapper;
+
+    List<Lancamento> entidades;
+
+    List<LancamentoDTO> dtos;
+
+    @Setup
+    public void iniciar() {
+        objectMapper = Jackson2ObjectMapperBuilder.json().build();
+        Usuario usuario = Usuario.builder().id(1L).nome("usuario").email("usuario@email.com").senha("senha").build();
+        entidades = new ArrayList<>(tamanho);
+        dtos = new ArrayList<>(tamanho);
+        for (int i = 0; i < tamanho; i++) {
+            Lancamento lancamento = Lancamento.builder().id((long) i).descricao("lancamento " + i).mes(i % 12 + 1)
+                    .ano(2019).valor(BigDecimal.valueOf(i, 2)).usuario(usuario).dataCadastro(LocalDate.now())
+                    .tipo(TipoLancamento.RECEITA).status(StatusLancamento.PENDENTE).build();
+            entidades.add(lancamento);
+            dtos.add(new LancamentoDTO(lancamento.getId(), lancamento.getDescricao(), lancamento.getMes(),
+                    lancamento.getAno(), lancamento.getValor(), usuario.getId(), lancamento.getTipo(),
+                    lancamento.getStatus()));
+        }
+    }
+
+    @Benchmark
+    public byte[] entidades() throws Exception {
+        return objectMapper.writeValueAsBytes(entidades);
+    }
+
+    @Benchmark
+    public byte[] dtos() throws Exception {
+        return objectMapper.writeValueAsBytes(dtos);
+    }
+}
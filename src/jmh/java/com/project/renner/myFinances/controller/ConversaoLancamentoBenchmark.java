@@ -0,0 +1,76 @@
+package com.project.renner.myFinances.controller;
+
+import com.project.renner.myFinances.dto.LancamentoDTO;
+import com.project.renner.myFinances.exception.RegraNegocioException;
+import com.project.renner.myFinances.model.Lancamento;
+import com.project.renner.myFinances.seguranca.UsuarioAutenticado;
+import com.project.renner.myFinances.service.impl.LancamentoServiceImpl;
+import org.openjdk.jmh.annotations.*;
+
+import java.math.BigDecimal;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Caminho de entrada de um lancamento sem banco: conversao do DTO (usuario vindo do token), validacao
+ * de um lancamento valido e de um invalido, e a projecao de volta para DTO.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ConversaoLancamentoBenchmark {
+
+    LancamentoController controller;
+
+    LancamentoServiceImpl lancamentoService;
+
+    UsuarioAutenticado autenticado;
+
+    LancamentoDTO lancamentoDTO;
+
+    Lancamento lancamento;
+
+    Lancamento lancamentoInvalido;
+
+    @Setup
+    public void iniciar() {
+        controller = new LancamentoController(null, null, null, null, null, null);
+        lancamentoService = new LancamentoServiceImpl(null, null, null, null);
+        autenticado = UsuarioAutenticado.builder().id(1L).nome("usuario").email("usuario@email.com").build();
+        lancamentoDTO = LancamentoDTO.builder().id(1L).descricao("aluguel").mes(1).ano(2019)
+                .valor(BigDecimal.valueOf(1500)).tipo("DESPESA").status("PENDENTE").build();
+        lancamento = controller.converter(lancamentoDTO, autenticado);
+        lancamentoInvalido = controller.converter(lancamentoDTO, autenticado);
+        lancamentoInvalido.setValor(BigDecimal.ZERO);
+    }
+
+    @Benchmark
+    public Lancamento converter() {
+        return controller.converter(lancamentoDTO, autenticado);
+    }
+
+    @Benchmark
+    public Lancamento validar() {
+        lancamentoService.validar(lancamento);
+        return lancamento;
+    }
+
+    @Benchmark
+    public RegraNegocioException validarInvalido() {
+        try {
+            lancamentoService.validar(lancamentoInvalido);
+            return null;
+        } catch (RegraNegocioException e) {
+            return e;
+        }
+    }
+
+    @Benchmark
+    public LancamentoDTO converterParaDTO() {
+        return new LancamentoDTO(lancamento.getId(), lancamento.getDescricao(), lancamento.getMes(),
+                lancamento.getAno(), lancamento.getValor(), lancamento.getUsuario().getId(), lancamento.getTipo(),
+                lancamento.getStatus());
+    }
+}
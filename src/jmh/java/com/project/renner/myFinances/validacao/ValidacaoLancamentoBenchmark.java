@@ -0,0 +1,95 @@
+package com.project.renner.myFinances.validacao;
+
+import com.project.renner.myFinances.enums.TipoLancamento;
+import com.project.renner.myFinances.exception.RegraNegocioException;
+import com.project.renner.myFinances.model.Lancamento;
+import com.project.renner.myFinances.model.Usuario;
+import org.openjdk.jmh.annotations.*;
+
+import java.math.BigDecimal;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Validacao por regras contra a validacao anterior, interrompida no primeiro erro com uma excecao, para um
+ * lancamento valido, um com um erro e um com varios. Com {@code -prof gc} mostra tambem a alocacao.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ValidacaoLancamentoBenchmark {
+
+    Lancamento valido;
+
+    Lancamento umErro;
+
+    Lancamento variosErros;
+
+    @Setup
+    public void iniciar() {
+        valido = Lancamento.builder().descricao("aluguel").mes(1).ano(2019).valor(BigDecimal.valueOf(1500))
+                .usuario(Usuario.builder().id(1L).build()).tipo(TipoLancamento.DESPESA).build();
+        umErro = Lancamento.builder().descricao("aluguel").mes(1).ano(2019).valor(BigDecimal.ZERO)
+                .usuario(Usuario.builder().id(1L).build()).tipo(TipoLancamento.DESPESA).build();
+        variosErros = Lancamento.builder().descricao("  ").mes(13).ano(19).valor(BigDecimal.ZERO).build();
+    }
+
+    @Benchmark
+    public Object anteriorValido() {
+        return validarAnterior(valido);
+    }
+
+    @Benchmark
+    public Object anteriorUmErro() {
+        return validarAnterior(umErro);
+    }
+
+    @Benchmark
+    public Object anteriorVariosErros() {
+        return validarAnterior(variosErros);
+    }
+
+    @Benchmark
+    public ResultadoValidacao regrasValido() {
+        return ValidadorLancamento.validar(valido);
+    }
+
+    @Benchmark
+    public ResultadoValidacao regrasUmErro() {
+        return ValidadorLancamento.validar(umErro);
+    }
+
+    @Benchmark
+    public ResultadoValidacao regrasVariosErros() {
+        return ValidadorLancamento.validar(variosErros);
+    }
+
+    // LancamentoServiceImpl.validar antes das regras, com o erro capturado como faz o lote
+    private static Object validarAnterior(Lancamento lancamento) {
+        try {
+            if (lancamento.getDescricao() == null || lancamento.getDescricao().trim().equals("")) {
+                throw new RegraNegocioException("informe uma Descricao valida.");
+            }
+            if (lancamento.getMes() == null || lancamento.getMes() < 1 || lancamento.getMes() > 12) {
+                throw new RegraNegocioException("Informe um Mes valido");
+            }
+            if (lancamento.getAno() == null || lancamento.getAno().toString().length() != 4) {
+                throw new RegraNegocioException("Informe um Ano valido.");
+            }
+            if (lancamento.getUsuario() == null || lancamento.getUsuario().getId() == null) {
+                throw new RegraNegocioException("Informe um usuario");
+            }
+            if (lancamento.getValor() == null || lancamento.getValor().compareTo(BigDecimal.ZERO) < 1) {
+                throw new RegraNegocioException("Informe um Valor valido.");
+            }
+            if (lancamento.getTipo() == null) {
+                throw new RegraNegocioException("Informe um Tipo de Lancamento");
+            }
+            return lancamento;
+        } catch (RegraNegocioException e) {
+            return e;
+        }
+    }
+}
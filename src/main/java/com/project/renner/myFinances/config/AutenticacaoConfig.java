@@ -0,0 +1,76 @@
+package com.project.renner.myFinances.config;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.Ticker;
+import com.project.renner.myFinances.seguranca.LimiteAutenticacao;
+import com.project.renner.myFinances.seguranca.LimiteTentativas;
+import com.project.renner.myFinances.seguranca.LimiteTentativasLocal;
+import com.project.renner.myFinances.seguranca.TokenAutenticacaoFilter;
+import com.project.renner.myFinances.seguranca.TokenService;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.nio.charset.StandardCharsets;
+import java.security.SecureRandom;
+import java.time.Clock;
+import java.time.Duration;
+
+@Slf4j
+@Configuration
+public class AutenticacaoConfig {
+
+    @Bean
+    public PasswordEncoder passwordEncoder(@Value("${myfinances.autenticacao.bcrypt-custo:10}") int custo) {
+        return new BCryptPasswordEncoder(custo);
+    }
+
+    /**
+     * Todas as instancias da aplicacao precisam do mesmo segredo para aceitar os tokens umas das outras. Sem
+     * segredo configurado, um aleatorio e gerado na subida e os tokens so valem nesta instancia.
+     */
+    @Bean
+    public TokenService tokenService(@Value("${myfinances.token.segredo:}") String segredo,
+                                     @Value("${myfinances.token.validade-minutos:60}") long validadeMinutos,
+                                     ObjectMapper objectMapper) {
+        byte[] chave;
+        if (segredo.isEmpty()) {
+            log.warn("myfinances.token.segredo nao configurado; usando segredo aleatorio, valido somente nesta instancia");
+            chave = new byte[32];
+            new SecureRandom().nextBytes(chave);
+        } else {
+            chave = segredo.getBytes(StandardCharsets.UTF_8);
+        }
+        return new TokenService(chave, Duration.ofMinutes(validadeMinutos), Clock.systemUTC(), objectMapper);
+    }
+
+    /**
+     * Os baldes locais valem por instancia; com varias instancias atras de um balanceador, o limite efetivo e
+     * multiplicado, ate que um {@link LimiteTentativas} sobre armazenamento compartilhado seja usado aqui.
+     */
+    @Bean
+    public LimiteAutenticacao limiteAutenticacao(
+            @Value("${myfinances.autenticacao.limite-email.capacidade:5}") int capacidadeEmail,
+            @Value("${myfinances.autenticacao.limite-email.periodo-segundos:300}") long periodoEmail,
+            @Value("${myfinances.autenticacao.limite-ip.capacidade:50}") int capacidadeIp,
+            @Value("${myfinances.autenticacao.limite-ip.periodo-segundos:60}") long periodoIp,
+            @Value("${myfinances.autenticacao.limite.maximo-chaves:100000}") long maximoChaves) {
+        LimiteTentativas porEmail = new LimiteTentativasLocal(capacidadeEmail, Duration.ofSeconds(periodoEmail),
+                maximoChaves, Ticker.systemTicker());
+        LimiteTentativas porIp = new LimiteTentativasLocal(capacidadeIp, Duration.ofSeconds(periodoIp),
+                maximoChaves, Ticker.systemTicker());
+        return new LimiteAutenticacao(porEmail, porIp);
+    }
+
+    @Bean
+    public FilterRegistrationBean<TokenAutenticacaoFilter> tokenAutenticacaoFilter(TokenService tokenService) {
+        FilterRegistrationBean<TokenAutenticacaoFilter> registro =
+                new FilterRegistrationBean<>(new TokenAutenticacaoFilter(tokenService));
+        registro.addUrlPatterns("/api/*");
+        return registro;
+    }
+}
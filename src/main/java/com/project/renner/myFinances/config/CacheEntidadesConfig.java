@@ -0,0 +1,54 @@
+package com.project.renner.myFinances.config;
+
+import com.github.benmanes.caffeine.jcache.configuration.CaffeineConfiguration;
+import com.github.benmanes.caffeine.jcache.spi.CaffeineCachingProvider;
+import org.hibernate.cache.jcache.ConfigSettings;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import javax.cache.CacheManager;
+import javax.cache.Caching;
+import java.net.URI;
+import java.util.OptionalLong;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cache de segundo nivel do Hibernate (JCache sobre Caffeine, no processo) para {@code Lancamento} e
+ * {@code Usuario}. As escritas pela sessao atualizam o cache ao confirmar a transacao; UPDATEs em massa (JPQL
+ * ou Criteria) esvaziam a regiao da entidade alterada. Acertos e faltas por regiao aparecem em
+ * {@code hibernate.second.level.cache.requests}.
+ */
+@Configuration
+public class CacheEntidadesConfig {
+
+    /**
+     * Um gerenciador por contexto, para que contextos diferentes na mesma JVM (como nos testes) nao
+     * compartilhem regioes.
+     */
+    @Bean(destroyMethod = "close")
+    public CacheManager cacheEntidades(@Value("${myfinances.cache-entidades.tamanho-maximo:10000}") long tamanhoMaximo,
+                                       @Value("${myfinances.cache-entidades.expiracao-minutos:10}") long expiracaoMinutos) {
+        CacheManager cacheManager = Caching.getCachingProvider(CaffeineCachingProvider.class.getName())
+                .getCacheManager(URI.create("myfinances:entidades:" + UUID.randomUUID()), getClass().getClassLoader());
+        for (String regiao : new String[]{Caches.REGIAO_LANCAMENTO, Caches.REGIAO_USUARIO}) {
+            CaffeineConfiguration<Object, Object> configuracao = new CaffeineConfiguration<>();
+            configuracao.setMaximumSize(OptionalLong.of(tamanhoMaximo));
+            configuracao.setExpireAfterWrite(OptionalLong.of(TimeUnit.MINUTES.toNanos(expiracaoMinutos)));
+            configuracao.setStatisticsEnabled(true);
+            cacheManager.createCache(regiao, configuracao);
+        }
+        return cacheManager;
+    }
+
+    @Bean
+    public HibernatePropertiesCustomizer cacheSegundoNivel(CacheManager cacheEntidades) {
+        return propriedades -> {
+            propriedades.put(ConfigSettings.CACHE_MANAGER, cacheEntidades);
+            // somente as regioes criadas acima
+            propriedades.put(ConfigSettings.MISSING_CACHE_STRATEGY, "fail");
+        };
+    }
+}
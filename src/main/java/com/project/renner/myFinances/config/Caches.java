@@ -0,0 +1,28 @@
+package com.project.renner.myFinances.config;
+
+/**
+ * Nomes dos caches da aplicacao. Tamanho e expiracao ficam em spring.cache.caffeine.spec; os nomes tambem
+ * sao listados em spring.cache.cache-names para que os caches sejam criados na subida e tenham metricas.
+ */
+public final class Caches {
+    public static final String USUARIOS = "usuarios";
+    public static final String USUARIOS_POR_EMAIL = "usuariosPorEmail";
+    /**
+     * Respostas ja dadas por chave de idempotencia; repeticoes dentro da expiracao do cache recebem a mesma resposta.
+     */
+    public static final String IDEMPOTENCIA = "idempotencia";
+    /**
+     * Saldo por usuario e saldos mensais por usuario (um mapa por ano), removidos a cada movimento do usuario.
+     */
+    public static final String SALDOS = "saldos";
+    public static final String SALDOS_MENSAIS = "saldosMensais";
+
+    /**
+     * Regioes do cache de segundo nivel do Hibernate, configuradas em {@link CacheEntidadesConfig}.
+     */
+    public static final String REGIAO_LANCAMENTO = "lancamento";
+    public static final String REGIAO_USUARIO = "usuario";
+
+    private Caches() {
+    }
+}
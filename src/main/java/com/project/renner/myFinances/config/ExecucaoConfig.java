@@ -0,0 +1,49 @@
+package com.project.renner.myFinances.config;
+
+import com.project.renner.myFinances.execucao.LimiteConcorrenciaFilter;
+import com.project.renner.myFinances.execucao.ThreadsVirtuais;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnExpression;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.web.embedded.tomcat.TomcatProtocolHandlerCustomizer;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Modo de execucao das requisicoes ({@code myfinances.execucao.modo}): {@code plataforma}, o pool padrao do
+ * Tomcat, ou {@code virtual}, uma thread virtual por requisicao (Java 21+). No modo virtual as threads deixam
+ * de ser o limite, e a concorrencia passa a ser limitada pelo pool de conexoes.
+ */
+@Slf4j
+@Configuration
+public class ExecucaoConfig {
+
+    @Bean
+    @ConditionalOnProperty(name = "myfinances.execucao.modo", havingValue = "virtual")
+    public TomcatProtocolHandlerCustomizer<?> threadsVirtuaisTomcat() {
+        // falha na subida se a JVM nao tiver threads virtuais: o modo foi pedido explicitamente
+        ThreadsVirtuais.novoExecutor().shutdown();
+        log.info("Requisicoes atendidas em threads virtuais");
+        return protocolo -> protocolo.setExecutor(ThreadsVirtuais.novoExecutor());
+    }
+
+    /**
+     * Sem limite configurado, o modo virtual usa o tamanho do pool de conexoes; o modo plataforma ja e
+     * limitado pelas threads do Tomcat.
+     */
+    @Bean
+    @ConditionalOnExpression("'${myfinances.execucao.modo:plataforma}' == 'virtual'"
+            + " or ${myfinances.execucao.concorrencia-maxima:0} > 0")
+    public FilterRegistrationBean<LimiteConcorrenciaFilter> limiteConcorrenciaFilter(
+            @Value("${myfinances.execucao.concorrencia-maxima:0}") int concorrenciaMaxima,
+            @Value("${spring.datasource.hikari.maximum-pool-size:10}") int tamanhoPool,
+            @Value("${myfinances.execucao.espera-maxima-ms:2000}") long esperaMaxima) {
+        int limite = concorrenciaMaxima > 0 ? concorrenciaMaxima : tamanhoPool;
+        FilterRegistrationBean<LimiteConcorrenciaFilter> registro =
+                new FilterRegistrationBean<>(new LimiteConcorrenciaFilter(limite, esperaMaxima));
+        registro.addUrlPatterns("/api/*");
+        return registro;
+    }
+}
@@ -0,0 +1,43 @@
+package com.project.renner.myFinances.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.task.TaskExecutionAutoConfiguration;
+import org.springframework.boot.task.TaskExecutorBuilder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.scheduling.annotation.AsyncAnnotationBeanPostProcessor;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+@Configuration
+public class ExecutoresConfig {
+    public static final String EXECUTOR_AUTENTICACAO = "executorAutenticacao";
+
+    /**
+     * Executor padrao do Spring Boot (spring.task.execution.*). Precisa ser declarado aqui porque a
+     * autoconfiguracao deixa de cria-lo quando existe qualquer outro executor no contexto.
+     */
+    @Lazy
+    @Bean(name = {TaskExecutionAutoConfiguration.APPLICATION_TASK_EXECUTOR_BEAN_NAME,
+            AsyncAnnotationBeanPostProcessor.DEFAULT_TASK_EXECUTOR_BEAN_NAME})
+    public ThreadPoolTaskExecutor applicationTaskExecutor(TaskExecutorBuilder builder) {
+        return builder.build();
+    }
+
+    /**
+     * Verificacao de senha (BCrypt) fora das threads do Tomcat. Pool e fila limitados: quando cheios, a
+     * tarefa e rejeitada e o login responde 503 em vez de acumular requisicoes esperando.
+     */
+    @Bean(name = EXECUTOR_AUTENTICACAO)
+    public ThreadPoolTaskExecutor executorAutenticacao(
+            @Value("${myfinances.autenticacao.threads:0}") int threads,
+            @Value("${myfinances.autenticacao.fila:64}") int fila) {
+        int tamanho = threads > 0 ? threads : Runtime.getRuntime().availableProcessors();
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(tamanho);
+        executor.setMaxPoolSize(tamanho);
+        executor.setQueueCapacity(fila);
+        executor.setThreadNamePrefix("autenticacao-");
+        return executor;
+    }
+}
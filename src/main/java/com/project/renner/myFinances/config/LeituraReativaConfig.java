@@ -0,0 +1,45 @@
+package com.project.renner.myFinances.config;
+
+import io.r2dbc.pool.ConnectionPool;
+import io.r2dbc.pool.ConnectionPoolConfiguration;
+import io.r2dbc.spi.ConnectionFactories;
+import io.r2dbc.spi.ConnectionFactoryOptions;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.r2dbc.core.DatabaseClient;
+
+/**
+ * Pool R2DBC das leituras reativas. O pool nao e publicado como bean: com um ConnectionFactory no contexto,
+ * a configuracao automatica do DataSource, usado pelo JPA, deixaria de ser aplicada.
+ */
+@Configuration
+public class LeituraReativaConfig implements DisposableBean {
+
+    private ConnectionPool pool;
+
+    @Bean
+    public DatabaseClient databaseClient(@Value("${myfinances.leitura-reativa.url}") String url,
+                                         @Value("${myfinances.leitura-reativa.usuario}") String usuario,
+                                         @Value("${myfinances.leitura-reativa.senha}") String senha,
+                                         @Value("${myfinances.leitura-reativa.pool-maximo:10}") int poolMaximo) {
+        ConnectionFactoryOptions opcoes = ConnectionFactoryOptions.parse(url).mutate()
+                .option(ConnectionFactoryOptions.USER, usuario)
+                .option(ConnectionFactoryOptions.PASSWORD, senha)
+                .build();
+        pool = new ConnectionPool(ConnectionPoolConfiguration.builder(ConnectionFactories.get(opcoes))
+                .name("leitura-reativa")
+                .initialSize(0)
+                .maxSize(poolMaximo)
+                .build());
+        return DatabaseClient.create(pool);
+    }
+
+    @Override
+    public void destroy() {
+        if (pool != null) {
+            pool.dispose();
+        }
+    }
+}
@@ -0,0 +1,37 @@
+package com.project.renner.myFinances.config;
+
+import com.project.renner.myFinances.metricas.ComandosPorRequisicaoFilter;
+import com.project.renner.myFinances.metricas.ContadorComandosSql;
+import com.project.renner.myFinances.metricas.MetricasServicoAspect;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.hibernate.cfg.AvailableSettings;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Metricas proprias da aplicacao. As de HTTP, repositorios do Spring Data, Hibernate, Hikari e caches
+ * vem da autoconfiguracao do Actuator; todas sao publicadas em /actuator/prometheus.
+ */
+@Configuration
+public class MetricasConfig {
+
+    @Bean
+    public MetricasServicoAspect metricasServicoAspect(MeterRegistry registry) {
+        return new MetricasServicoAspect(registry);
+    }
+
+    @Bean
+    public HibernatePropertiesCustomizer contadorComandosSql() {
+        return propriedades -> propriedades.put(AvailableSettings.STATEMENT_INSPECTOR, new ContadorComandosSql());
+    }
+
+    @Bean
+    public FilterRegistrationBean<ComandosPorRequisicaoFilter> comandosPorRequisicaoFilter(MeterRegistry registry) {
+        FilterRegistrationBean<ComandosPorRequisicaoFilter> registro =
+                new FilterRegistrationBean<>(new ComandosPorRequisicaoFilter(registry));
+        registro.addUrlPatterns("/api/*");
+        return registro;
+    }
+}
@@ -0,0 +1,80 @@
+package com.project.renner.myFinances.controller;
+
+import com.project.renner.myFinances.dto.ImportacaoDTO;
+import com.project.renner.myFinances.enums.FormatoExtrato;
+import com.project.renner.myFinances.exception.RegraNegocioException;
+import com.project.renner.myFinances.seguranca.TokenAutenticacaoFilter;
+import com.project.renner.myFinances.seguranca.UsuarioAutenticado;
+import com.project.renner.myFinances.service.ImportacaoService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.multipart.MultipartFile;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.Charset;
+import java.nio.charset.IllegalCharsetNameException;
+import java.nio.charset.UnsupportedCharsetException;
+
+@RestController
+@RequestMapping("/api/importacoes")
+@RequiredArgsConstructor
+public class ImportacaoController {
+
+    private final ImportacaoService importacaoService;
+
+    /**
+     * Recebe um extrato CSV ou OFX e inicia a importacao; o formato, quando nao informado, vem da extensao do arquivo.
+     * Com token, os lancamentos vao para o usuario do token e o parametro {@code usuario} e ignorado.
+     */
+    @PostMapping(consumes = MediaType.MULTIPART_FORM_DATA_VALUE)
+    public ResponseEntity importar(@RequestParam("arquivo") MultipartFile arquivo,
+                                   @RequestParam(value = "usuario", required = false) Long usuario,
+                                   @RequestParam(value = "formato", required = false) String formato,
+                                   @RequestParam(value = "charset", required = false) String charset,
+                                   @RequestAttribute(value = TokenAutenticacaoFilter.ATRIBUTO_USUARIO, required = false) UsuarioAutenticado autenticado) throws IOException {
+        Long idUsuario = autenticado == null ? usuario : autenticado.getId();
+        if (idUsuario == null) {
+            throw new RegraNegocioException("Usuario nao encontrado com o Id informado.");
+        }
+        FormatoExtrato formatoExtrato = formato(formato, arquivo.getOriginalFilename());
+        try (InputStream conteudo = arquivo.getInputStream()) {
+            ImportacaoDTO importacao = importacaoService.importar(idUsuario, formatoExtrato, charset(charset),
+                    arquivo.getOriginalFilename(), conteudo);
+            return new ResponseEntity(importacao, HttpStatus.ACCEPTED);
+        }
+    }
+
+    @GetMapping("{id}")
+    public ResponseEntity obterImportacao(@PathVariable("id") String id) {
+        return importacaoService.obterPorId(id)
+                .map(importacao -> new ResponseEntity(importacao, HttpStatus.OK))
+                .orElseGet(() -> new ResponseEntity(HttpStatus.NOT_FOUND));
+    }
+
+    private FormatoExtrato formato(String formato, String nomeArquivo) {
+        String nome = formato;
+        if (nome == null && nomeArquivo != null && nomeArquivo.lastIndexOf('.') >= 0) {
+            nome = nomeArquivo.substring(nomeArquivo.lastIndexOf('.') + 1);
+        }
+        try {
+            return FormatoExtrato.valueOf(String.valueOf(nome).toUpperCase());
+        } catch (IllegalArgumentException e) {
+            throw new RegraNegocioException("Informe um formato de extrato valido (CSV ou OFX).");
+        }
+    }
+
+    private Charset charset(String charset) {
+        if (charset == null) {
+            return null;
+        }
+        try {
+            return Charset.forName(charset);
+        } catch (IllegalCharsetNameException | UnsupportedCharsetException e) {
+            throw new RegraNegocioException("Codificacao nao suportada: " + charset);
+        }
+    }
+}
@@ -1,117 +1,270 @@
 package com.project.renner.myFinances.controller;
 
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.project.renner.myFinances.config.Caches;
 import com.project.renner.myFinances.dto.AtualizaStatusDTO;
+import com.project.renner.myFinances.dto.AtualizaStatusLoteDTO;
+import com.project.renner.myFinances.dto.CursorLancamento;
 import com.project.renner.myFinances.dto.LancamentoDTO;
+import com.project.renner.myFinances.dto.PaginaDTO;
+import com.project.renner.myFinances.dto.ResultadoLoteDTO;
+import com.project.renner.myFinances.dto.ResultadoStatusLoteDTO;
+import com.project.renner.myFinances.enums.FormatoExportacao;
 import com.project.renner.myFinances.enums.StatusLancamento;
 import com.project.renner.myFinances.enums.TipoLancamento;
 import com.project.renner.myFinances.exception.RegraNegocioException;
 import com.project.renner.myFinances.model.Lancamento;
 import com.project.renner.myFinances.model.Usuario;
+import com.project.renner.myFinances.seguranca.TokenAutenticacaoFilter;
+import com.project.renner.myFinances.seguranca.UsuarioAutenticado;
+import com.project.renner.myFinances.service.ExportacaoService;
 import com.project.renner.myFinances.service.LancamentoService;
+import com.project.renner.myFinances.service.LoteLancamentoService;
 import com.project.renner.myFinances.service.UsuarioService;
 import lombok.RequiredArgsConstructor;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.Sort;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
 import org.springframework.web.bind.annotation.*;
 
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Optional;
+import java.util.zip.GZIPOutputStream;
 
 @RestController
 @RequestMapping("/api/lancamentos")
 @RequiredArgsConstructor
 public class LancamentoController {
+    private static final int TAMANHO_MAXIMO_PAGINA = 500;
+    private static final String MEDIA_TYPE_NDJSON = "application/x-ndjson";
+    private static final int TAMANHO_BUFFER_GZIP = 8192;
+    private static final String CABECALHO_IDEMPOTENCIA = "Idempotency-Key";
+
     private final LancamentoService lancamentoService;
 
     private final UsuarioService usuarioService;
 
+    private final LoteLancamentoService loteLancamentoService;
+
+    private final ExportacaoService exportacaoService;
+
+    private final ObjectMapper objectMapper;
+
+    private final CacheManager cacheManager;
+
 
     @PostMapping
-    public ResponseEntity salvar(@RequestBody LancamentoDTO lancamentoDTO){
-        try {
-            Lancamento lancamento = converter(lancamentoDTO);
-            lancamento = lancamentoService.salvar(lancamento);
-            return new ResponseEntity(lancamento, HttpStatus.CREATED);
-        } catch (RegraNegocioException e){
-            return ResponseEntity.badRequest().body(e.getMessage());
+    public ResponseEntity salvar(@RequestBody LancamentoDTO lancamentoDTO,
+                                 @RequestAttribute(value = TokenAutenticacaoFilter.ATRIBUTO_USUARIO, required = false) UsuarioAutenticado autenticado){
+        Lancamento lancamento = converter(lancamentoDTO, autenticado);
+        lancamento = lancamentoService.salvar(lancamento);
+        return new ResponseEntity(lancamento, HttpStatus.CREATED);
+    }
+
+    /**
+     * Recebe um array JSON ou NDJSON (um lancamento por linha) e le a entrada de forma incremental. Com token,
+     * todos os lancamentos sao do usuario do token e o usuario de cada linha e ignorado.
+     */
+    @PostMapping(value = "lote", consumes = {MediaType.APPLICATION_JSON_VALUE, MEDIA_TYPE_NDJSON})
+    public ResponseEntity salvarLote(HttpServletRequest request,
+                                     @RequestAttribute(value = TokenAutenticacaoFilter.ATRIBUTO_USUARIO, required = false) UsuarioAutenticado autenticado) throws IOException {
+        try (MappingIterator<LancamentoDTO> lancamentos = objectMapper.readerFor(LancamentoDTO.class)
+                .readValues(request.getInputStream())) {
+            ResultadoLoteDTO resultado = autenticado == null ? loteLancamentoService.salvar(lancamentos)
+                    : loteLancamentoService.salvar(lancamentos, autenticado.toUsuario());
+            return ResponseEntity.ok(resultado);
         }
+    }
 
+    /**
+     * Exporta todos os lancamentos do usuario escrevendo direto na resposta, comprimida com gzip quando o
+     * cliente aceita.
+     */
+    @GetMapping("export")
+    public ResponseEntity exportar(@RequestParam(value = "usuario", required = false) Long idUsuario,
+                                   @RequestParam(value = "formato", defaultValue = "csv") String formato,
+                                   @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding,
+                                   @RequestAttribute(value = TokenAutenticacaoFilter.ATRIBUTO_USUARIO, required = false) UsuarioAutenticado autenticado,
+                                   HttpServletResponse response) throws IOException {
+        FormatoExportacao formatoExportacao;
+        try {
+            formatoExportacao = FormatoExportacao.valueOf(formato.toUpperCase());
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body("Informe um formato de exportacao valido (csv ou ndjson).");
+        }
+        Optional<Usuario> usuario = usuario(autenticado, idUsuario);
+        if (!usuario.isPresent()) {
+            return ResponseEntity.badRequest().body("Usuario nao encontrado com o Id informado.");
+        }
+        boolean gzip = acceptEncoding != null && acceptEncoding.toLowerCase().contains("gzip");
+        response.setContentType(formatoExportacao.getContentType() + ";charset=UTF-8");
+        response.setHeader(HttpHeaders.CONTENT_DISPOSITION,
+                "attachment; filename=\"lancamentos." + formatoExportacao.getExtensao() + "\"");
+        response.setHeader(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+        if (gzip) {
+            response.setHeader(HttpHeaders.CONTENT_ENCODING, "gzip");
+        }
+        try (OutputStream saida = gzip ? new GZIPOutputStream(response.getOutputStream(), TAMANHO_BUFFER_GZIP)
+                : response.getOutputStream()) {
+            exportacaoService.exportar(usuario.get().getId(), formatoExportacao, saida);
+        }
+        // resposta ja escrita
+        return null;
     }
 
     @GetMapping("{id}")
     public ResponseEntity obterLancamento(@PathVariable("id") Long id){
-        return lancamentoService.obterPorId(id)
-                .map(lancamento -> new ResponseEntity(converterToDTO(lancamento), HttpStatus.OK))
+        return lancamentoService.obterDTOPorId(id)
+                .map(lancamento -> new ResponseEntity(lancamento, HttpStatus.OK))
                 .orElseGet(() -> new ResponseEntity(HttpStatus.NOT_FOUND));
     }
 
     @PutMapping("{id}")
-    public ResponseEntity atualizar(@PathVariable("id") Long id, @RequestBody LancamentoDTO lancamentoDTO){
-       return lancamentoService.obterPorId(id).map(entity -> {
-           try {
-               Lancamento lancamento = converter(lancamentoDTO);
-               lancamento.setId(entity.getId());
-               lancamentoService.atualizar(lancamento);
-               return ResponseEntity.ok(lancamento);
-           }catch(RegraNegocioException e){
-               return ResponseEntity.badRequest().body(e.getMessage());
-           }
-        }).orElseGet(() -> new ResponseEntity("Lancamento nao encontrado na base de dados.",
-               HttpStatus.BAD_REQUEST));
+    public ResponseEntity atualizar(@PathVariable("id") Long id, @RequestBody LancamentoDTO lancamentoDTO,
+                                    @RequestAttribute(value = TokenAutenticacaoFilter.ATRIBUTO_USUARIO, required = false) UsuarioAutenticado autenticado){
+        try {
+            Lancamento lancamento = converter(lancamentoDTO, autenticado);
+            lancamento.setId(id);
+            return ResponseEntity.ok(lancamentoService.atualizar(lancamento,
+                    autenticado == null ? null : autenticado.getId()));
+        }catch(ObjectOptimisticLockingFailureException e){
+            return new ResponseEntity("O lancamento foi alterado por outra requisicao. Consulte-o e tente novamente.",
+                    HttpStatus.CONFLICT);
+        }
     }
 
+    /**
+     * Com token, so exclui lancamentos do proprio usuario; os de outros respondem como inexistentes.
+     */
     @DeleteMapping("{id}")
-    public ResponseEntity deletar(@PathVariable("id") Long id){
-        return lancamentoService.obterPorId(id).map(entity ->{
-            lancamentoService.deletar(entity);
+    public ResponseEntity deletar(@PathVariable("id") Long id,
+                                  @RequestAttribute(value = TokenAutenticacaoFilter.ATRIBUTO_USUARIO, required = false) UsuarioAutenticado autenticado){
+        if(lancamentoService.deletar(id, autenticado == null ? null : autenticado.getId())){
             return new ResponseEntity(HttpStatus.NO_CONTENT);
-        }).orElseGet(() -> new ResponseEntity( "Lancamento nao encontrado na base de dados.",
-                HttpStatus.BAD_REQUEST ));
+        }
+        return new ResponseEntity( "Lancamento nao encontrado na base de dados.", HttpStatus.BAD_REQUEST );
     }
 
+    /**
+     * Sem {@code pagina} nem {@code ordem}, pagina por cursor na ordem (ano, mes, id). Com eles, pagina por
+     * numero, ordenando por {@code campo[,asc|desc]} (ano, mes, valor ou dataCadastro). Em nenhum dos modos ha
+     * consulta de contagem, a menos que {@code total=true} peca o total aproximado.
+     */
     @GetMapping
     public ResponseEntity buscar(
             @RequestParam(value = "descricao", required = false) String descricao,
             @RequestParam(value = "mes", required = false) Integer mes,
             @RequestParam(value = "ano", required = false) Integer ano,
-            @RequestParam(value =  "usuario") Long idUsuario){
+            @RequestParam(value =  "usuario", required = false) Long idUsuario,
+            @RequestParam(value = "cursor", required = false) String cursor,
+            @RequestParam(value = "tamanho", defaultValue = "50") int tamanho,
+            @RequestParam(value = "pagina", required = false) Integer pagina,
+            @RequestParam(value = "ordem", required = false) List<String> ordem,
+            @RequestParam(value = "total", defaultValue = "false") boolean total,
+            @RequestAttribute(value = TokenAutenticacaoFilter.ATRIBUTO_USUARIO, required = false) UsuarioAutenticado autenticado){
+        if(tamanho < 1 || tamanho > TAMANHO_MAXIMO_PAGINA){
+            return ResponseEntity.badRequest().body("O tamanho da pagina deve estar entre 1 e " + TAMANHO_MAXIMO_PAGINA + ".");
+        }
+        if(cursor != null && (pagina != null || ordem != null || total)){
+            return ResponseEntity.badRequest().body("A paginacao por cursor nao aceita pagina, ordem nem total.");
+        }
+        if(pagina != null && pagina < 0){
+            return ResponseEntity.badRequest().body("A pagina deve ser maior ou igual a zero.");
+        }
+        // o deslocamento da pagina (pagina * tamanho) precisa caber num int
+        if(pagina != null && (long) pagina * tamanho > Integer.MAX_VALUE){
+            return ResponseEntity.badRequest().body("Com tamanho " + tamanho + ", a pagina deve ser no maximo "
+                    + Integer.MAX_VALUE / tamanho + ".");
+        }
         Lancamento lancamentoFiltro = new Lancamento();
         lancamentoFiltro.setDescricao(descricao);
         lancamentoFiltro.setMes(mes);
         lancamentoFiltro.setAno(ano);
-        Optional<Usuario> usuario = usuarioService.obterPorId(idUsuario);
+        Optional<Usuario> usuario = usuario(autenticado, idUsuario);
         if(!usuario.isPresent()){
             return ResponseEntity.badRequest().body(" Nao foi possivel realizar a consulta");
         }else{
             lancamentoFiltro.setUsuario(usuario.get());
         }
-       List<Lancamento> lancamentos = lancamentoService.buscar(lancamentoFiltro);
+        if(pagina != null || ordem != null || total){
+            Pageable paginacao = PageRequest.of(pagina == null ? 0 : pagina, tamanho, ordenacao(ordem));
+            if(total){
+                Page<LancamentoDTO> lancamentos = lancamentoService.buscarComTotal(lancamentoFiltro, paginacao);
+                return ResponseEntity.ok(new PaginaDTO<>(lancamentos.getContent(), lancamentos.hasNext(), null,
+                        lancamentos.getNumber(), lancamentos.getTotalElements()));
+            }
+            Slice<LancamentoDTO> lancamentos = lancamentoService.buscar(lancamentoFiltro, paginacao);
+            return ResponseEntity.ok(new PaginaDTO<>(lancamentos.getContent(), lancamentos.hasNext(), null,
+                    lancamentos.getNumber(), null));
+        }
+        Slice<LancamentoDTO> lancamentos = lancamentoService.buscar(lancamentoFiltro, CursorLancamento.parse(cursor), tamanho);
+        List<LancamentoDTO> conteudo = lancamentos.getContent();
+        String proximoCursor = lancamentos.hasNext()
+                ? CursorLancamento.de(conteudo.get(conteudo.size() - 1)).toString() : null;
+        return ResponseEntity.ok(new PaginaDTO<>(conteudo, lancamentos.hasNext(), proximoCursor));
+    }
 
-        return ResponseEntity.ok(lancamentos);
+    /**
+     * Cada valor e {@code campo} ou {@code campo,direcao}; o campo e validado pelo servico. Como um valor unico
+     * chega ja separado nas virgulas, a direcao e aplicada ao campo que a antecede.
+     */
+    private Sort ordenacao(List<String> ordem){
+        if(ordem == null){
+            return Sort.unsorted();
+        }
+        List<Sort.Order> campos = new ArrayList<>();
+        for(String valor : ordem){
+            for(String parte : valor.split(",")){
+                String termo = parte.trim();
+                Optional<Sort.Direction> direcao = Sort.Direction.fromOptionalString(termo);
+                if(direcao.isPresent()){
+                    if(campos.isEmpty()){
+                        throw new RegraNegocioException("Ordenacao invalida: informe o campo antes da direcao.");
+                    }
+                    Sort.Order anterior = campos.remove(campos.size() - 1);
+                    campos.add(anterior.with(direcao.get()));
+                }else if(!termo.isEmpty()){
+                    campos.add(Sort.Order.asc(termo));
+                }
+            }
+        }
+        return Sort.by(campos);
     }
 
-    private LancamentoDTO converterToDTO(Lancamento lancamento){
-        return LancamentoDTO
-                .builder()
-                .id(lancamento.getId())
-                .descricao(lancamento.getDescricao())
-                .valor(lancamento.getValor())
-                .mes(lancamento.getMes())
-                .ano(lancamento.getAno())
-                .status(lancamento.getStatus().name())
-                .tipo(lancamento.getTipo().name())
-                .usuario(lancamento.getUsuario().getId())
-                .build();
+    /**
+     * Com token, o usuario vem dele, sem consulta ao banco, e o id informado na requisicao e ignorado.
+     */
+    private Optional<Usuario> usuario(UsuarioAutenticado autenticado, Long idUsuario){
+        if(autenticado != null){
+            return Optional.of(autenticado.toUsuario());
+        }
+        return idUsuario == null ? Optional.empty() : usuarioService.obterPorId(idUsuario);
     }
-    private Lancamento converter(LancamentoDTO lancamentoDTO){
+
+    // visivel no pacote para o ConversaoLancamentoBenchmark
+    Lancamento converter(LancamentoDTO lancamentoDTO, UsuarioAutenticado autenticado){
         Lancamento lancamento = new Lancamento();
         lancamento.setId(lancamentoDTO.getId());
         lancamento.setDescricao(lancamentoDTO.getDescricao());
         lancamento.setAno(lancamentoDTO.getAno());
         lancamento.setMes(lancamentoDTO.getMes());
         lancamento.setValor(lancamentoDTO.getValor());
-        lancamento.setUsuario(usuarioService.
-                obterPorId(lancamentoDTO.getUsuario()).orElseThrow
+        lancamento.setUsuario(usuario(autenticado, lancamentoDTO.getUsuario()).orElseThrow
                         (() -> new RegraNegocioException("Usuario nao encontrado com o Id informado.")));
         if(lancamentoDTO.getTipo() != null){
             lancamento.setTipo(TipoLancamento.valueOf(lancamentoDTO.getTipo()));
@@ -121,23 +274,88 @@ public class LancamentoController {
         }
         return lancamento;
     }
+    /**
+     * Efetiva ou cancela varios lancamentos de uma vez, pelos ids ou pelo filtro, num unico UPDATE.
+     */
+    @PutMapping("status")
+    public ResponseEntity atualizarStatusLote(@RequestBody AtualizaStatusLoteDTO statusLoteDTO,
+                                              @RequestAttribute(value = TokenAutenticacaoFilter.ATRIBUTO_USUARIO, required = false) UsuarioAutenticado autenticado){
+        StatusLancamento novoStatus;
+        Lancamento filtro = new Lancamento();
+        try {
+            novoStatus = StatusLancamento.valueOf(String.valueOf(statusLoteDTO.getStatus()));
+            if(statusLoteDTO.getStatusAtual() != null){
+                filtro.setStatus(StatusLancamento.valueOf(statusLoteDTO.getStatusAtual()));
+            }
+        }catch (IllegalArgumentException e){
+            return ResponseEntity.badRequest().body("Nao foi possivel atualizar o status dos lancamentos, envie um " +
+                    "status valido.");
+        }
+        filtro.setMes(statusLoteDTO.getMes());
+        filtro.setAno(statusLoteDTO.getAno());
+        if(autenticado != null){
+            filtro.setUsuario(autenticado.toUsuario());
+        }else if(statusLoteDTO.getUsuario() != null){
+            Usuario usuario = new Usuario();
+            usuario.setId(statusLoteDTO.getUsuario());
+            filtro.setUsuario(usuario);
+        }
+        try {
+            int atualizados = lancamentoService.transicionarStatus(filtro, statusLoteDTO.getIds(), novoStatus);
+            return ResponseEntity.ok(new ResultadoStatusLoteDTO(novoStatus.name(), atualizados));
+        }catch (ObjectOptimisticLockingFailureException e){
+            return new ResponseEntity("Os lancamentos foram alterados por outra requisicao. Tente novamente.",
+                    HttpStatus.CONFLICT);
+        }
+    }
+
+    /**
+     * Altera so o status: o lancamento e carregado (normalmente do cache de segundo nivel) e a alteracao
+     * e gravada no flush, pela checagem de alteracoes da entidade. Com o cabecalho Idempotency-Key, a resposta de sucesso da
+     * primeira requisicao e guardada e devolvida nas repeticoes do mesmo chamador com a mesma chave; erros
+     * nao sao guardados, para que uma nova tentativa seja de fato executada.
+     */
     @PutMapping("{id}/atualizar-status")
-    public ResponseEntity atualizarStatus(@PathVariable("id") Long id, @RequestBody AtualizaStatusDTO statusDTO){
-        return lancamentoService.obterPorId(id).map(entity -> {
-         StatusLancamento statusSelecionado = StatusLancamento.valueOf(statusDTO.getStatus());
-
-         if(statusSelecionado == null){
-             return ResponseEntity.badRequest().body("Nao foi possivel atualizar o status do lancamento, envie um " +
-                     "status  valido.");
-         }
-         try {
-             entity.setStatus(statusSelecionado);
-             lancamentoService.atualizar(entity);
-             return ResponseEntity.ok(entity);
-         }catch (RegraNegocioException e){
-             return ResponseEntity.badRequest().body(e.getMessage());
-         }
-
-        }).orElseGet(() -> new ResponseEntity("Lancamento nao encontrado na base de Dados.", HttpStatus.BAD_REQUEST));
+    public ResponseEntity atualizarStatus(@PathVariable("id") Long id, @RequestBody AtualizaStatusDTO statusDTO,
+                                          @RequestHeader(value = CABECALHO_IDEMPOTENCIA, required = false) String chave,
+                                          @RequestAttribute(value = TokenAutenticacaoFilter.ATRIBUTO_USUARIO, required = false) UsuarioAutenticado autenticado){
+        Long idUsuario = autenticado == null ? null : autenticado.getId();
+        Cache respostas = cacheManager.getCache(Caches.IDEMPOTENCIA);
+        if(chave == null || respostas == null){
+            return transicionarStatus(id, statusDTO, idUsuario);
+        }
+        String chaveResposta = (autenticado == null ? "anonimo" : autenticado.getId()) + ":" + chave + ":" + id
+                + ":" + statusDTO.getStatus();
+        ResponseEntity guardada = respostas.get(chaveResposta, ResponseEntity.class);
+        if(guardada != null){
+            return guardada;
+        }
+        ResponseEntity resposta = transicionarStatus(id, statusDTO, idUsuario);
+        if(resposta.getStatusCode().is2xxSuccessful()){
+            respostas.put(chaveResposta, resposta);
+        }
+        return resposta;
+    }
+
+    /**
+     * Com token, so altera lancamentos do proprio usuario; os de outros respondem como inexistentes.
+     */
+    private ResponseEntity transicionarStatus(Long id, AtualizaStatusDTO statusDTO, Long idUsuario){
+        StatusLancamento statusSelecionado;
+        try {
+            statusSelecionado = StatusLancamento.valueOf(String.valueOf(statusDTO.getStatus()));
+        }catch (IllegalArgumentException e){
+            return ResponseEntity.badRequest().body("Nao foi possivel atualizar o status do lancamento, envie um " +
+                    "status  valido.");
+        }
+        try {
+            if(!lancamentoService.transicionarStatus(id, statusSelecionado, idUsuario)){
+                return new ResponseEntity("Lancamento nao encontrado na base de Dados.", HttpStatus.BAD_REQUEST);
+            }
+            return ResponseEntity.ok(new AtualizaStatusDTO(statusSelecionado.name()));
+        }catch (ObjectOptimisticLockingFailureException e){
+            return new ResponseEntity("O lancamento foi alterado por outra requisicao. Consulte-o e tente novamente.",
+                    HttpStatus.CONFLICT);
+        }
     }
 }
@@ -0,0 +1,81 @@
+package com.project.renner.myFinances.controller;
+
+import com.project.renner.myFinances.dto.LancamentoDTO;
+import com.project.renner.myFinances.model.Lancamento;
+import com.project.renner.myFinances.model.Usuario;
+import com.project.renner.myFinances.seguranca.TokenAutenticacaoFilter;
+import com.project.renner.myFinances.seguranca.UsuarioAutenticado;
+import com.project.renner.myFinances.service.LeituraReativaService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.http.codec.ServerSentEvent;
+import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.math.BigDecimal;
+
+/**
+ * Leituras para o painel sobre R2DBC. Em NDJSON e em eventos (SSE) cada lancamento e escrito assim que
+ * chega do banco, e a leitura avanca no ritmo em que o cliente consome a resposta; a thread da requisicao
+ * e liberada enquanto isso.
+ */
+@RestController
+@RequestMapping("/api/reativo")
+@RequiredArgsConstructor
+public class LeituraReativaController {
+    private static final String MEDIA_TYPE_NDJSON = "application/x-ndjson";
+
+    private final LeituraReativaService leituraReativaService;
+
+    @GetMapping(value = "lancamentos", produces = {MediaType.APPLICATION_JSON_VALUE, MEDIA_TYPE_NDJSON})
+    public Flux<LancamentoDTO> buscar(
+            @RequestParam(value = "descricao", required = false) String descricao,
+            @RequestParam(value = "mes", required = false) Integer mes,
+            @RequestParam(value = "ano", required = false) Integer ano,
+            @RequestParam(value = "usuario", required = false) Long idUsuario,
+            @RequestAttribute(value = TokenAutenticacaoFilter.ATRIBUTO_USUARIO, required = false) UsuarioAutenticado autenticado){
+        return leituraReativaService.buscar(filtro(descricao, mes, ano, idUsuario, autenticado));
+    }
+
+    @GetMapping(value = "lancamentos/eventos", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public Flux<ServerSentEvent<LancamentoDTO>> acompanhar(
+            @RequestParam(value = "descricao", required = false) String descricao,
+            @RequestParam(value = "mes", required = false) Integer mes,
+            @RequestParam(value = "ano", required = false) Integer ano,
+            @RequestParam(value = "usuario", required = false) Long idUsuario,
+            @RequestAttribute(value = TokenAutenticacaoFilter.ATRIBUTO_USUARIO, required = false) UsuarioAutenticado autenticado){
+        return leituraReativaService.buscar(filtro(descricao, mes, ano, idUsuario, autenticado))
+                .map(lancamento -> ServerSentEvent.builder(lancamento)
+                        .id(String.valueOf(lancamento.getId()))
+                        .event("lancamento")
+                        .build());
+    }
+
+    @GetMapping("usuarios/{id}/saldo")
+    public Mono<ResponseEntity<BigDecimal>> obterSaldo(@PathVariable("id") Long id){
+        return leituraReativaService.obterSaldo(id)
+                .map(ResponseEntity::ok)
+                .defaultIfEmpty(new ResponseEntity<>(HttpStatus.NOT_FOUND));
+    }
+
+    /**
+     * Com token, o usuario vem dele e o id informado na requisicao e ignorado.
+     */
+    private Lancamento filtro(String descricao, Integer mes, Integer ano, Long idUsuario, UsuarioAutenticado autenticado){
+        Lancamento lancamentoFiltro = new Lancamento();
+        lancamentoFiltro.setDescricao(descricao);
+        lancamentoFiltro.setMes(mes);
+        lancamentoFiltro.setAno(ano);
+        if(autenticado != null){
+            lancamentoFiltro.setUsuario(autenticado.toUsuario());
+        }else if(idUsuario != null){
+            Usuario usuario = new Usuario();
+            usuario.setId(idUsuario);
+            lancamentoFiltro.setUsuario(usuario);
+        }
+        return lancamentoFiltro;
+    }
+}
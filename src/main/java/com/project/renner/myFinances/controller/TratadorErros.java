@@ -0,0 +1,64 @@
+package com.project.renner.myFinances.controller;
+
+import com.project.renner.myFinances.dto.ErroDTO;
+import com.project.renner.myFinances.exception.CodigoErro;
+import com.project.renner.myFinances.exception.ErroAutenticacao;
+import com.project.renner.myFinances.exception.LimiteTentativasException;
+import com.project.renner.myFinances.exception.RegraNegocioException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.ExceptionHandler;
+import org.springframework.web.bind.annotation.RestControllerAdvice;
+
+import java.util.EnumMap;
+import java.util.Map;
+
+/**
+ * Resposta unica para os erros de negocio e de autenticacao de todos os controllers: o status vem do
+ * {@link CodigoErro} e o corpo e sempre um {@link ErroDTO}. Cada codigo tem um contador, registrado uma vez,
+ * para que uma onda de falhas apareca nas metricas sem custo por requisicao alem do incremento.
+ */
+@RestControllerAdvice
+public class TratadorErros {
+    public static final String METRICA = "myfinances.erros";
+
+    private final Map<CodigoErro, Counter> contadores = new EnumMap<>(CodigoErro.class);
+
+    public TratadorErros(ObjectProvider<MeterRegistry> registry) {
+        MeterRegistry meterRegistry = registry.getIfAvailable(SimpleMeterRegistry::new);
+        for (CodigoErro codigo : CodigoErro.values()) {
+            contadores.put(codigo, Counter.builder(METRICA)
+                    .description("Respostas de erro de negocio e de autenticacao, por codigo")
+                    .tag("codigo", codigo.name())
+                    .register(meterRegistry));
+        }
+    }
+
+    @ExceptionHandler(RegraNegocioException.class)
+    public ResponseEntity<ErroDTO> tratar(RegraNegocioException e) {
+        return resposta(e.getCodigo()).body(new ErroDTO(e.getCodigo().name(), e.getMessage(), e.getDetalhes()));
+    }
+
+    @ExceptionHandler(ErroAutenticacao.class)
+    public ResponseEntity<ErroDTO> tratar(ErroAutenticacao e) {
+        return resposta(e.getCodigo()).body(new ErroDTO(e.getCodigo().name(), e.getMessage(), null));
+    }
+
+    @ExceptionHandler(LimiteTentativasException.class)
+    public ResponseEntity<ErroDTO> tratar(LimiteTentativasException e) {
+        return resposta(e.getCodigo())
+                .header(HttpHeaders.RETRY_AFTER, Long.toString(e.getSegundosParaNovaTentativa()))
+                .body(new ErroDTO(e.getCodigo().name(), e.getMessage(), null));
+    }
+
+    // o tipo e fixo para que a resposta saia em JSON tambem nos endpoints de NDJSON e SSE
+    private ResponseEntity.BodyBuilder resposta(CodigoErro codigo) {
+        contadores.get(codigo).increment();
+        return ResponseEntity.status(codigo.getStatus()).contentType(MediaType.APPLICATION_JSON);
+    }
+}
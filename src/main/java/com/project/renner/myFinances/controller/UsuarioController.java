@@ -1,18 +1,27 @@
 package com.project.renner.myFinances.controller;
 
+import com.project.renner.myFinances.dto.AutenticacaoDTO;
+import com.project.renner.myFinances.dto.ResumoMensalDTO;
+import com.project.renner.myFinances.dto.SaldoMensalDTO;
 import com.project.renner.myFinances.dto.UsuarioDTO;
-import com.project.renner.myFinances.exception.ErroAutenticacao;
-import com.project.renner.myFinances.exception.RegraNegocioException;
+import com.project.renner.myFinances.exception.LimiteTentativasException;
 import com.project.renner.myFinances.model.Usuario;
+import com.project.renner.myFinances.seguranca.LimiteAutenticacao;
+import com.project.renner.myFinances.seguranca.TokenService;
 import com.project.renner.myFinances.service.LancamentoService;
 import com.project.renner.myFinances.service.UsuarioService;
 import lombok.RequiredArgsConstructor;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import javax.servlet.http.HttpServletRequest;
 import java.math.BigDecimal;
+import java.util.List;
 import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
 
 @RestController
 @RequestMapping("/api/usuarios")
@@ -21,6 +30,8 @@ public class UsuarioController {
 
   private final UsuarioService usuarioService;
   private final LancamentoService lancamentoService;
+  private final TokenService tokenService;
+  private final LimiteAutenticacao limiteAutenticacao;
 
 
     @PostMapping
@@ -30,22 +41,35 @@ public class UsuarioController {
                 .email(usuarioDTO.getEmail())
                 .senha(usuarioDTO.getSenha()).build();
 
-        try {
-            Usuario usuarioSalvo = usuarioService.salvarUsuario(usuario);
-            return new ResponseEntity(usuarioSalvo, HttpStatus.CREATED);
-
-        }catch (RegraNegocioException e){
-            return ResponseEntity.badRequest().body(e.getMessage());
-        }
+        Usuario usuarioSalvo = usuarioService.salvarUsuario(usuario);
+        return new ResponseEntity(usuarioSalvo, HttpStatus.CREATED);
     }
+    /**
+     * A verificacao da senha roda no executor de autenticacao; a thread da requisicao e liberada ate o resultado.
+     * Uma falha de autenticacao chega ao {@link TratadorErros} pelo futuro, ja sem o CompletionException.
+     * Acima do limite de tentativas por IP ou por email, responde 429 sem consultar o usuario.
+     * A resposta traz o token a ser enviado como {@code Authorization: Bearer} nas demais requisicoes.
+     */
     @PostMapping("/autenticar")
-    public ResponseEntity autenticar(@RequestBody UsuarioDTO usuarioDTO){
+    public CompletableFuture<ResponseEntity> autenticar(@RequestBody UsuarioDTO usuarioDTO, HttpServletRequest request){
+        long espera = limiteAutenticacao.verificar(usuarioDTO.getEmail(), request.getRemoteAddr());
+        if(espera > 0){
+            throw new LimiteTentativasException(espera);
+        }
+        CompletableFuture<Usuario> autenticacao;
         try {
-            Usuario usuarioAutenticado = usuarioService.autenticar(usuarioDTO.getEmail(), usuarioDTO.getSenha());
-            return ResponseEntity.ok(usuarioAutenticado);
-        }catch (ErroAutenticacao e){
-            return ResponseEntity.badRequest().body(e.getMessage());
+            autenticacao = usuarioService.autenticarAssincrono(usuarioDTO.getEmail(), usuarioDTO.getSenha());
+        }catch (TaskRejectedException e){
+            return CompletableFuture.completedFuture(ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                    .header(HttpHeaders.RETRY_AFTER, "1")
+                    .body("Muitas autenticacoes em andamento. Tente novamente em instantes."));
         }
+        return autenticacao.<ResponseEntity>thenApply(usuario -> ResponseEntity.ok(AutenticacaoDTO.builder()
+                        .id(usuario.getId())
+                        .nome(usuario.getNome())
+                        .email(usuario.getEmail())
+                        .token(tokenService.gerar(usuario))
+                        .build()));
     }
 
     @GetMapping("{id}/saldo")
@@ -57,4 +81,24 @@ public class UsuarioController {
         BigDecimal saldo = lancamentoService.obterSaldoPorUsuario(id);
         return ResponseEntity.ok(saldo);
     }
+
+    @GetMapping("{id}/saldo/mensal")
+    public ResponseEntity obterSaldoMensal(@PathVariable("id") Long id, @RequestParam("ano") Integer ano){
+        Optional<Usuario> usuario = usuarioService.obterPorId(id);
+        if(!usuario.isPresent()){
+            return new ResponseEntity(HttpStatus.NOT_FOUND);
+        }
+        List<SaldoMensalDTO> saldos = lancamentoService.obterSaldosMensaisPorUsuario(id, ano);
+        return ResponseEntity.ok(saldos);
+    }
+
+    @GetMapping("{id}/resumo")
+    public ResponseEntity obterResumoMensal(@PathVariable("id") Long id, @RequestParam("ano") Integer ano){
+        Optional<Usuario> usuario = usuarioService.obterPorId(id);
+        if(!usuario.isPresent()){
+            return new ResponseEntity(HttpStatus.NOT_FOUND);
+        }
+        List<ResumoMensalDTO> resumo = lancamentoService.obterResumoMensalPorUsuario(id, ano);
+        return ResponseEntity.ok(resumo);
+    }
 }
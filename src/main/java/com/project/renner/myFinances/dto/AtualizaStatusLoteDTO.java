@@ -0,0 +1,22 @@
+package com.project.renner.myFinances.dto;
+
+import lombok.*;
+
+import java.util.List;
+
+/**
+ * Alteracao de status em massa: pelos ids informados ou pelo filtro (usuario, mes, ano e status atual).
+ */
+@Getter
+@Setter
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class AtualizaStatusLoteDTO {
+    private List<Long> ids;
+    private Long usuario;
+    private Integer mes;
+    private Integer ano;
+    private String statusAtual;
+    private String status;
+}
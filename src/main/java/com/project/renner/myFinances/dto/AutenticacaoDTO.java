@@ -0,0 +1,15 @@
+package com.project.renner.myFinances.dto;
+
+import lombok.*;
+
+@Getter
+@Setter
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class AutenticacaoDTO {
+    private Long id;
+    private String nome;
+    private String email;
+    private String token;
+}
@@ -0,0 +1,47 @@
+package com.project.renner.myFinances.dto;
+
+import com.project.renner.myFinances.exception.RegraNegocioException;
+import com.project.renner.myFinances.model.Lancamento;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Posicao da busca paginada de lancamentos, na ordem (ano, mes, id). Trafega na API como {@code ano:mes:id}.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class CursorLancamento {
+    private Integer ano;
+    private Integer mes;
+    private Long id;
+
+    public static CursorLancamento de(Lancamento lancamento) {
+        return new CursorLancamento(lancamento.getAno(), lancamento.getMes(), lancamento.getId());
+    }
+
+    public static CursorLancamento de(LancamentoDTO lancamento) {
+        return new CursorLancamento(lancamento.getAno(), lancamento.getMes(), lancamento.getId());
+    }
+
+    public static CursorLancamento parse(String cursor) {
+        if (cursor == null || cursor.isEmpty()) {
+            return null;
+        }
+        String[] partes = cursor.split(":");
+        try {
+            if (partes.length == 3) {
+                return new CursorLancamento(Integer.valueOf(partes[0]), Integer.valueOf(partes[1]), Long.valueOf(partes[2]));
+            }
+        } catch (NumberFormatException e) {
+            // tratado abaixo
+        }
+        throw new RegraNegocioException("Cursor de paginacao invalido.");
+    }
+
+    @Override
+    public String toString() {
+        return ano + ":" + mes + ":" + id;
+    }
+}
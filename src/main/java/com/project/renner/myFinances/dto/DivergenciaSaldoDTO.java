@@ -0,0 +1,16 @@
+package com.project.renner.myFinances.dto;
+
+import lombok.*;
+
+import java.math.BigDecimal;
+
+@Getter
+@Setter
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class DivergenciaSaldoDTO {
+    private Long usuario;
+    private BigDecimal saldoArmazenado;
+    private BigDecimal saldoCalculado;
+}
@@ -0,0 +1,22 @@
+package com.project.renner.myFinances.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.*;
+
+import java.util.List;
+
+@Getter
+@Setter
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ErroDTO {
+    private String codigo;
+    private String mensagem;
+
+    /**
+     * Todas as mensagens, quando a requisicao tiver mais de um erro.
+     */
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private List<String> detalhes;
+}
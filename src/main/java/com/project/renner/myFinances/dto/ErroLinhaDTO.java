@@ -0,0 +1,13 @@
+package com.project.renner.myFinances.dto;
+
+import lombok.*;
+
+@Getter
+@Setter
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ErroLinhaDTO {
+    private long linha;
+    private String mensagem;
+}
@@ -0,0 +1,28 @@
+package com.project.renner.myFinances.dto;
+
+import com.project.renner.myFinances.enums.FormatoExtrato;
+import com.project.renner.myFinances.enums.StatusImportacao;
+import lombok.*;
+
+import java.time.LocalDateTime;
+
+/**
+ * Estado de uma importacao de extrato. O resultado e atualizado a cada bloco gravado, entao pode ser
+ * consultado enquanto a importacao esta em andamento.
+ */
+@Getter
+@Setter
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ImportacaoDTO {
+    private String id;
+    private Long usuario;
+    private String arquivo;
+    private FormatoExtrato formato;
+    private volatile StatusImportacao status;
+    private String mensagem;
+    private LocalDateTime inicio;
+    private volatile LocalDateTime fim;
+    private ResultadoLoteDTO resultado;
+}
@@ -1,5 +1,7 @@
 package com.project.renner.myFinances.dto;
 
+import com.project.renner.myFinances.enums.StatusLancamento;
+import com.project.renner.myFinances.enums.TipoLancamento;
 import lombok.*;
 
 import java.math.BigDecimal;
@@ -19,4 +21,13 @@ public class LancamentoDTO {
     private Long usuario;
     private String tipo;
     private String status;
+
+    /**
+     * Usado pelas projecoes JPQL/Criteria, que leem os dados direto da tabela sem hidratar a entidade.
+     */
+    public LancamentoDTO(Long id, String descricao, Integer mes, Integer ano, BigDecimal valor, Long usuario,
+                         TipoLancamento tipo, StatusLancamento status) {
+        this(id, descricao, mes, ano, valor, usuario,
+                tipo == null ? null : tipo.name(), status == null ? null : status.name());
+    }
 }
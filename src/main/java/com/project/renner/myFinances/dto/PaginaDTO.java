@@ -0,0 +1,33 @@
+package com.project.renner.myFinances.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.*;
+
+import java.util.List;
+
+@Getter
+@Setter
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class PaginaDTO<T> {
+    private List<T> conteudo;
+    private boolean temProximo;
+    private String proximoCursor;
+
+    /**
+     * Numero da pagina, na paginacao por pagina e ordem.
+     */
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private Integer pagina;
+
+    /**
+     * Total aproximado, somente quando pedido.
+     */
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private Long total;
+
+    public PaginaDTO(List<T> conteudo, boolean temProximo, String proximoCursor) {
+        this(conteudo, temProximo, proximoCursor, null, null);
+    }
+}
@@ -0,0 +1,38 @@
+package com.project.renner.myFinances.dto;
+
+import lombok.*;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Contadores de um lote. Pode ser lido por outra thread enquanto o lote e processado (progresso de uma
+ * importacao); somente as primeiras {@value #MAXIMO_ERROS_DETALHADOS} linhas com erro sao guardadas.
+ */
+@Getter
+@Setter
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ResultadoLoteDTO {
+    public static final int MAXIMO_ERROS_DETALHADOS = 1000;
+
+    private volatile long recebidos;
+    private volatile long inseridos;
+    private volatile long totalErros;
+    @Getter(AccessLevel.NONE)
+    @Setter(AccessLevel.NONE)
+    @Builder.Default
+    private List<ErroLinhaDTO> erros = new ArrayList<>();
+
+    public synchronized void adicionarErro(long linha, String mensagem) {
+        totalErros++;
+        if (erros.size() < MAXIMO_ERROS_DETALHADOS) {
+            erros.add(new ErroLinhaDTO(linha, mensagem));
+        }
+    }
+
+    public synchronized List<ErroLinhaDTO> getErros() {
+        return new ArrayList<>(erros);
+    }
+}
@@ -0,0 +1,13 @@
+package com.project.renner.myFinances.dto;
+
+import lombok.*;
+
+@Getter
+@Setter
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ResultadoStatusLoteDTO {
+    private String status;
+    private int atualizados;
+}
@@ -0,0 +1,18 @@
+package com.project.renner.myFinances.dto;
+
+import lombok.*;
+
+import java.math.BigDecimal;
+
+@Getter
+@Setter
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ResumoMensalDTO {
+    private Integer mes;
+    private String tipo;
+    private String status;
+    private BigDecimal valor;
+    private Long quantidade;
+}
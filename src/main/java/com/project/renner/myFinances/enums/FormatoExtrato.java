@@ -0,0 +1,22 @@
+package com.project.renner.myFinances.enums;
+
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+
+public enum FormatoExtrato {
+    CSV(StandardCharsets.UTF_8),
+    OFX(Charset.forName("windows-1252"));
+
+    /**
+     * Codificacao assumida quando a importacao nao informa uma; os OFX dos bancos costumam vir em CP1252.
+     */
+    private final Charset charsetPadrao;
+
+    FormatoExtrato(Charset charsetPadrao) {
+        this.charsetPadrao = charsetPadrao;
+    }
+
+    public Charset getCharsetPadrao() {
+        return charsetPadrao;
+    }
+}
@@ -0,0 +1,7 @@
+package com.project.renner.myFinances.enums;
+
+public enum StatusImportacao {
+    EM_ANDAMENTO,
+    CONCLUIDA,
+    FALHOU
+}
@@ -1,7 +1,25 @@
 package com.project.renner.myFinances.enums;
 
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.Set;
+
 public enum StatusLancamento {
     PENDENTE,
     CANCELADO,
-    EFETIVADO
+    EFETIVADO;
+
+    /**
+     * Status a partir dos quais um lancamento pode passar para este: so um lancamento PENDENTE pode ser
+     * efetivado ou cancelado, e nenhum volta a ficar pendente.
+     */
+    public Set<StatusLancamento> getOrigensPermitidas() {
+        switch (this) {
+            case CANCELADO:
+            case EFETIVADO:
+                return Collections.unmodifiableSet(EnumSet.of(PENDENTE));
+            default:
+                return Collections.emptySet();
+        }
+    }
 }
@@ -0,0 +1,25 @@
+package com.project.renner.myFinances.exception;
+
+import org.springframework.http.HttpStatus;
+
+/**
+ * Codigos fixos das respostas de erro, com o status HTTP de cada um. Os clientes devem decidir pelo codigo,
+ * nao pela mensagem.
+ */
+public enum CodigoErro {
+    REGRA_NEGOCIO(HttpStatus.BAD_REQUEST),
+    VALIDACAO(HttpStatus.BAD_REQUEST),
+    TRANSICAO_STATUS_INVALIDA(HttpStatus.CONFLICT),
+    AUTENTICACAO(HttpStatus.BAD_REQUEST),
+    LIMITE_TENTATIVAS(HttpStatus.TOO_MANY_REQUESTS);
+
+    private final HttpStatus status;
+
+    CodigoErro(HttpStatus status) {
+        this.status = status;
+    }
+
+    public HttpStatus getStatus() {
+        return status;
+    }
+}
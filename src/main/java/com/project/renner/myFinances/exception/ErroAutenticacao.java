@@ -1,7 +1,14 @@
 package com.project.renner.myFinances.exception;
 
+/**
+ * Falha de login. Sem stack trace: sob tentativas em massa o preenchimento dominaria o custo da resposta.
+ */
 public class ErroAutenticacao extends RuntimeException{
     public ErroAutenticacao(String msg){
-        super(msg);
+        super(msg, null, false, false);
+    }
+
+    public CodigoErro getCodigo() {
+        return CodigoErro.AUTENTICACAO;
     }
 }
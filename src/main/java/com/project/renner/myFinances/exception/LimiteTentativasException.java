@@ -0,0 +1,30 @@
+package com.project.renner.myFinances.exception;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Tentativas de login acima do limite; recusada antes de consultar o usuario.
+ */
+public class LimiteTentativasException extends ErroAutenticacao {
+    private static final long NANOS_POR_SEGUNDO = TimeUnit.SECONDS.toNanos(1);
+
+    private final long segundosParaNovaTentativa;
+
+    public LimiteTentativasException(long esperaNanos) {
+        super("Muitas tentativas de autenticacao. Tente novamente em " + segundos(esperaNanos) + " segundos.");
+        this.segundosParaNovaTentativa = segundos(esperaNanos);
+    }
+
+    public long getSegundosParaNovaTentativa() {
+        return segundosParaNovaTentativa;
+    }
+
+    @Override
+    public CodigoErro getCodigo() {
+        return CodigoErro.LIMITE_TENTATIVAS;
+    }
+
+    private static long segundos(long nanos) {
+        return Math.max(1, (nanos + NANOS_POR_SEGUNDO - 1) / NANOS_POR_SEGUNDO);
+    }
+}
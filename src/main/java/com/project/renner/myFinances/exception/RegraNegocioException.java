@@ -1,7 +1,31 @@
 package com.project.renner.myFinances.exception;
 
+import java.util.List;
+
+/**
+ * Violacao de regra esperada e respondida ao cliente. Nao preenche o stack trace, que custaria mais que o
+ * proprio tratamento e nunca e lido.
+ */
 public class RegraNegocioException extends RuntimeException{
+    private final CodigoErro codigo;
+
     public RegraNegocioException (String msg){
-        super(msg);
+        this(CodigoErro.REGRA_NEGOCIO, msg);
+    }
+
+    protected RegraNegocioException(CodigoErro codigo, String msg){
+        super(msg, null, false, false);
+        this.codigo = codigo;
+    }
+
+    public CodigoErro getCodigo() {
+        return codigo;
+    }
+
+    /**
+     * Mensagens adicionais da resposta, quando houver mais de um erro.
+     */
+    public List<String> getDetalhes() {
+        return null;
     }
 }
@@ -0,0 +1,10 @@
+package com.project.renner.myFinances.exception;
+
+import com.project.renner.myFinances.enums.StatusLancamento;
+
+public class TransicaoStatusInvalidaException extends RegraNegocioException {
+    public TransicaoStatusInvalidaException(StatusLancamento atual, StatusLancamento novo) {
+        super(CodigoErro.TRANSICAO_STATUS_INVALIDA,
+                "Nao e possivel alterar o status do lancamento de " + atual + " para " + novo + ".");
+    }
+}
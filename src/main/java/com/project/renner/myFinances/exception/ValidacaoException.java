@@ -0,0 +1,27 @@
+package com.project.renner.myFinances.exception;
+
+import com.project.renner.myFinances.validacao.ResultadoValidacao;
+
+import java.util.List;
+
+/**
+ * Lancamento invalido. A mensagem e a da primeira regra violada; o resultado traz todas.
+ */
+public class ValidacaoException extends RegraNegocioException {
+    private final ResultadoValidacao resultado;
+
+    public ValidacaoException(ResultadoValidacao resultado) {
+        super(CodigoErro.VALIDACAO, resultado.getPrimeiraMensagem());
+        this.resultado = resultado;
+    }
+
+    public ResultadoValidacao getResultado() {
+        return resultado;
+    }
+
+    @Override
+    public List<String> getDetalhes() {
+        List<String> mensagens = resultado.getMensagens();
+        return mensagens.size() > 1 ? mensagens : null;
+    }
+}
@@ -0,0 +1,58 @@
+package com.project.renner.myFinances.execucao;
+
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import javax.servlet.FilterChain;
+import javax.servlet.ServletException;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Limita as requisicoes em processamento ao que o pool de conexoes atende. As excedentes esperam uma vaga
+ * por ate {@code esperaMaxima} e depois recebem 503, em vez de acumularem threads bloqueadas no pool.
+ */
+public class LimiteConcorrenciaFilter extends OncePerRequestFilter {
+
+    private final Semaphore vagas;
+
+    private final long esperaMaximaMillis;
+
+    public LimiteConcorrenciaFilter(int limite, long esperaMaximaMillis) {
+        this.vagas = new Semaphore(limite, true);
+        this.esperaMaximaMillis = esperaMaximaMillis;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        boolean admitida;
+        try {
+            admitida = vagas.tryAcquire(esperaMaximaMillis, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            admitida = false;
+        }
+        if (!admitida) {
+            response.setStatus(HttpStatus.SERVICE_UNAVAILABLE.value());
+            response.setHeader(HttpHeaders.RETRY_AFTER, "1");
+            response.setCharacterEncoding(StandardCharsets.UTF_8.name());
+            response.getWriter().write("Muitas requisicoes em andamento. Tente novamente em instantes.");
+            return;
+        }
+        try {
+            chain.doFilter(request, response);
+        } finally {
+            vagas.release();
+        }
+    }
+
+    int vagasDisponiveis() {
+        return vagas.availablePermits();
+    }
+}
@@ -0,0 +1,42 @@
+package com.project.renner.myFinances.execucao;
+
+import java.lang.reflect.Method;
+import java.util.Optional;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Acesso as threads virtuais (Java 21+) por reflexao, para que o build continue aceitando JDKs anteriores.
+ */
+public final class ThreadsVirtuais {
+
+    private ThreadsVirtuais() {
+    }
+
+    public static boolean disponiveis() {
+        return fabrica().isPresent();
+    }
+
+    /**
+     * Executor que cria uma thread virtual por tarefa.
+     *
+     * @throws IllegalStateException se a JVM nao tiver threads virtuais
+     */
+    public static ExecutorService novoExecutor() {
+        Method fabrica = fabrica().orElseThrow(() -> new IllegalStateException(
+                "Threads virtuais exigem Java 21 ou superior; JVM atual: " + System.getProperty("java.version")));
+        try {
+            return (ExecutorService) fabrica.invoke(null);
+        } catch (ReflectiveOperationException e) {
+            throw new IllegalStateException("Nao foi possivel criar o executor de threads virtuais", e);
+        }
+    }
+
+    private static Optional<Method> fabrica() {
+        try {
+            return Optional.of(Executors.class.getMethod("newVirtualThreadPerTaskExecutor"));
+        } catch (NoSuchMethodException e) {
+            return Optional.empty();
+        }
+    }
+}
@@ -0,0 +1,135 @@
+package com.project.renner.myFinances.importacao;
+
+import com.project.renner.myFinances.dto.LancamentoDTO;
+import com.project.renner.myFinances.enums.FormatoExtrato;
+import com.project.renner.myFinances.enums.TipoLancamento;
+import com.project.renner.myFinances.exception.RegraNegocioException;
+
+import java.io.BufferedReader;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.Reader;
+import java.io.UncheckedIOException;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+/**
+ * Le um extrato bancario como fluxo, uma transacao por vez, e entrega cada uma como lancamento do usuario:
+ * mes/ano vem da data e o tipo do sinal do valor. Somente a transacao corrente fica em memoria.
+ * <p>
+ * Erros de leitura do arquivo sao lancados por {@link #hasNext()}; uma transacao com data ou valor
+ * invalido lanca {@link RegraNegocioException} em {@link #next()}, e a leitura pode continuar.
+ */
+public abstract class LeitorExtrato implements Iterator<LancamentoDTO>, Closeable {
+    static final int TAMANHO_MAXIMO_DESCRICAO = 255;
+
+    private final BufferedReader reader;
+
+    private final Long usuario;
+
+    private TransacaoExtrato proxima;
+
+    private boolean terminou;
+
+    protected LeitorExtrato(Reader reader, Long usuario) {
+        this.reader = reader instanceof BufferedReader ? (BufferedReader) reader : new BufferedReader(reader);
+        this.usuario = usuario;
+    }
+
+    public static LeitorExtrato abrir(FormatoExtrato formato, Reader reader, Long usuario) {
+        switch (formato) {
+            case OFX:
+                return new LeitorExtratoOfx(reader, usuario);
+            case CSV:
+                return new LeitorExtratoCsv(reader, usuario);
+            default:
+                throw new RegraNegocioException("Formato de extrato nao suportado.");
+        }
+    }
+
+    /**
+     * Le a proxima transacao do arquivo, ou null no fim.
+     */
+    protected abstract TransacaoExtrato lerTransacao(BufferedReader reader) throws IOException;
+
+    protected abstract LocalDate converterData(String data);
+
+    @Override
+    public boolean hasNext() {
+        if (proxima == null && !terminou) {
+            try {
+                proxima = lerTransacao(reader);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+            terminou = proxima == null;
+        }
+        return proxima != null;
+    }
+
+    @Override
+    public LancamentoDTO next() {
+        if (!hasNext()) {
+            throw new NoSuchElementException();
+        }
+        TransacaoExtrato transacao = proxima;
+        proxima = null;
+        return converter(transacao);
+    }
+
+    @Override
+    public void close() throws IOException {
+        reader.close();
+    }
+
+    private LancamentoDTO converter(TransacaoExtrato transacao) {
+        LocalDate data;
+        try {
+            data = converterData(transacao.data.trim());
+        } catch (RuntimeException e) {
+            throw new RegraNegocioException("Data invalida: " + transacao.data);
+        }
+        BigDecimal valor = converterValor(transacao.valor);
+        return LancamentoDTO.builder()
+                .descricao(descricao(transacao.descricao))
+                .mes(data.getMonthValue())
+                .ano(data.getYear())
+                .valor(valor.abs())
+                .tipo(valor.signum() < 0 ? TipoLancamento.DESPESA.name() : TipoLancamento.RECEITA.name())
+                .usuario(usuario)
+                .build();
+    }
+
+    /**
+     * Aceita "1234.56", "1,234.56" e o formato brasileiro "1.234,56"; o separador decimal e o ultimo que aparece.
+     */
+    static BigDecimal converterValor(String valor) {
+        String texto = valor == null ? "" : valor.replace("R$", "").replace(" ", "").trim();
+        if (texto.lastIndexOf(',') > texto.lastIndexOf('.')) {
+            texto = texto.replace(".", "").replace(',', '.');
+        } else {
+            texto = texto.replace(",", "");
+        }
+        try {
+            return new BigDecimal(texto);
+        } catch (NumberFormatException e) {
+            throw new RegraNegocioException("Valor invalido: " + valor);
+        }
+    }
+
+    private static String descricao(String descricao) {
+        if (descricao == null) {
+            return null;
+        }
+        String texto = descricao.trim();
+        return texto.length() > TAMANHO_MAXIMO_DESCRICAO ? texto.substring(0, TAMANHO_MAXIMO_DESCRICAO) : texto;
+    }
+
+    protected static class TransacaoExtrato {
+        String data;
+        String descricao;
+        String valor;
+    }
+}
@@ -0,0 +1,184 @@
+package com.project.renner.myFinances.importacao;
+
+import com.project.renner.myFinances.exception.RegraNegocioException;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.Reader;
+import java.text.Normalizer;
+import java.time.LocalDate;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.time.format.ResolverStyle;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * CSV com cabecalho contendo as colunas de data, descricao e valor (em qualquer ordem). O separador
+ * (";", "," ou tab) e detectado no cabecalho; campos entre aspas podem conter o separador e quebras de linha.
+ */
+class LeitorExtratoCsv extends LeitorExtrato {
+    private static final DateTimeFormatter[] FORMATOS_DATA = {
+            DateTimeFormatter.ofPattern("dd/MM/uuuu").withResolverStyle(ResolverStyle.STRICT),
+            DateTimeFormatter.ISO_LOCAL_DATE,
+            DateTimeFormatter.ofPattern("dd-MM-uuuu").withResolverStyle(ResolverStyle.STRICT)
+    };
+
+    /**
+     * Limites de um registro com quebras de linha entre aspas: acima deles as aspas provavelmente nunca fecham
+     * e o restante do arquivo viraria um unico campo.
+     */
+    private static final int TAMANHO_MAXIMO_REGISTRO = 16384;
+
+    private static final int MAXIMO_LINHAS_REGISTRO = 100;
+
+    private char separador;
+
+    private int colunaData = -1;
+
+    private int colunaDescricao = -1;
+
+    private int colunaValor = -1;
+
+    LeitorExtratoCsv(Reader reader, Long usuario) {
+        super(reader, usuario);
+    }
+
+    @Override
+    protected TransacaoExtrato lerTransacao(BufferedReader reader) throws IOException {
+        if (colunaData < 0) {
+            lerCabecalho(reader);
+        }
+        List<String> campos;
+        do {
+            campos = lerCampos(reader);
+            if (campos == null) {
+                return null;
+            }
+        } while (campos.size() == 1 && campos.get(0).trim().isEmpty());
+
+        TransacaoExtrato transacao = new TransacaoExtrato();
+        transacao.data = campo(campos, colunaData);
+        transacao.descricao = campo(campos, colunaDescricao);
+        transacao.valor = campo(campos, colunaValor);
+        return transacao;
+    }
+
+    @Override
+    protected LocalDate converterData(String data) {
+        for (DateTimeFormatter formato : FORMATOS_DATA) {
+            try {
+                return LocalDate.parse(data, formato);
+            } catch (DateTimeParseException e) {
+                // tenta o proximo formato
+            }
+        }
+        throw new DateTimeParseException("Formato de data nao reconhecido", data, 0);
+    }
+
+    private void lerCabecalho(BufferedReader reader) throws IOException {
+        String cabecalho = reader.readLine();
+        if (cabecalho == null) {
+            throw new RegraNegocioException("Arquivo CSV vazio.");
+        }
+        if (!cabecalho.isEmpty() && cabecalho.charAt(0) == '\uFEFF') {
+            cabecalho = cabecalho.substring(1);
+        }
+        separador = detectarSeparador(cabecalho);
+        List<String> colunas = dividir(cabecalho);
+        for (int i = 0; i < colunas.size(); i++) {
+            String coluna = normalizar(colunas.get(i));
+            if (colunaData < 0 && (coluna.startsWith("data") || coluna.equals("date"))) {
+                colunaData = i;
+            } else if (colunaDescricao < 0 && (coluna.startsWith("descri") || coluna.startsWith("historico")
+                    || coluna.equals("memo"))) {
+                colunaDescricao = i;
+            } else if (colunaValor < 0 && (coluna.startsWith("valor") || coluna.equals("amount"))) {
+                colunaValor = i;
+            }
+        }
+        if (colunaData < 0 || colunaDescricao < 0 || colunaValor < 0) {
+            colunaData = -1;
+            throw new RegraNegocioException("O cabecalho do CSV deve ter as colunas data, descricao e valor.");
+        }
+    }
+
+    private List<String> lerCampos(BufferedReader reader) throws IOException {
+        String linha = reader.readLine();
+        if (linha == null) {
+            return null;
+        }
+        StringBuilder registro = new StringBuilder(linha);
+        int linhas = 1;
+        // o estado das aspas segue linha a linha, sem reler o registro ja acumulado
+        boolean entreAspas = aspasAbertas(linha, false);
+        while (entreAspas) {
+            String continuacao = reader.readLine();
+            if (continuacao == null) {
+                break;
+            }
+            if (++linhas > MAXIMO_LINHAS_REGISTRO
+                    || registro.length() + continuacao.length() >= TAMANHO_MAXIMO_REGISTRO) {
+                throw new RegraNegocioException("Registro do CSV com aspas sem fechar ou maior que "
+                        + TAMANHO_MAXIMO_REGISTRO + " caracteres em " + MAXIMO_LINHAS_REGISTRO + " linhas.");
+            }
+            registro.append('\n').append(continuacao);
+            entreAspas = aspasAbertas(continuacao, entreAspas);
+        }
+        return dividir(registro);
+    }
+
+    private List<String> dividir(CharSequence registro) {
+        List<String> campos = new ArrayList<>();
+        StringBuilder campo = new StringBuilder();
+        boolean entreAspas = false;
+        for (int i = 0; i < registro.length(); i++) {
+            char c = registro.charAt(i);
+            if (c == '"') {
+                if (entreAspas && i + 1 < registro.length() && registro.charAt(i + 1) == '"') {
+                    campo.append('"');
+                    i++;
+                } else {
+                    entreAspas = !entreAspas;
+                }
+            } else if (c == separador && !entreAspas) {
+                campos.add(campo.toString());
+                campo.setLength(0);
+            } else {
+                campo.append(c);
+            }
+        }
+        campos.add(campo.toString());
+        return campos;
+    }
+
+    private static boolean aspasAbertas(String linha, boolean entreAspas) {
+        for (int i = 0; i < linha.length(); i++) {
+            if (linha.charAt(i) == '"') {
+                entreAspas = !entreAspas;
+            }
+        }
+        return entreAspas;
+    }
+
+    private static char detectarSeparador(String cabecalho) {
+        char separador = ',';
+        long maior = 0;
+        for (char candidato : new char[]{';', ',', '\t'}) {
+            long quantidade = cabecalho.chars().filter(c -> c == candidato).count();
+            if (quantidade > maior) {
+                maior = quantidade;
+                separador = candidato;
+            }
+        }
+        return separador;
+    }
+
+    private static String normalizar(String coluna) {
+        return Normalizer.normalize(coluna.trim().toLowerCase(), Normalizer.Form.NFD).replaceAll("\\p{M}", "");
+    }
+
+    private static String campo(List<String> campos, int coluna) {
+        return coluna < campos.size() ? campos.get(coluna) : null;
+    }
+}
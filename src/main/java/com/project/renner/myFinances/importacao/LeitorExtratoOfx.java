@@ -0,0 +1,109 @@
+package com.project.renner.myFinances.importacao;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.Reader;
+import java.time.LocalDate;
+import java.time.format.DateTimeFormatter;
+
+/**
+ * OFX 1.x (SGML, elementos sem tag de fechamento) ou 2.x (XML). Le o arquivo tag a tag e monta uma
+ * transacao por bloco STMTTRN, usando DTPOSTED, TRNAMT e MEMO (ou NAME, na falta de MEMO).
+ */
+class LeitorExtratoOfx extends LeitorExtrato {
+    private static final int TAMANHO_MAXIMO_TEXTO = 4096;
+
+    LeitorExtratoOfx(Reader reader, Long usuario) {
+        super(reader, usuario);
+    }
+
+    @Override
+    protected TransacaoExtrato lerTransacao(BufferedReader reader) throws IOException {
+        TransacaoExtrato transacao = null;
+        String nome = null;
+        String tag;
+        while ((tag = lerTag(reader)) != null) {
+            String elemento = tag.toUpperCase();
+            if (elemento.equals("STMTTRN")) {
+                transacao = new TransacaoExtrato();
+                nome = null;
+            } else if (elemento.equals("/STMTTRN") && transacao != null) {
+                if (transacao.descricao == null || transacao.descricao.isEmpty()) {
+                    transacao.descricao = nome;
+                }
+                return transacao;
+            } else if (transacao != null && !elemento.startsWith("/")) {
+                String texto = lerTexto(reader);
+                switch (elemento) {
+                    case "DTPOSTED":
+                        transacao.data = texto;
+                        break;
+                    case "TRNAMT":
+                        transacao.valor = texto;
+                        break;
+                    case "MEMO":
+                        transacao.descricao = texto;
+                        break;
+                    case "NAME":
+                        nome = texto;
+                        break;
+                    default:
+                        break;
+                }
+            }
+        }
+        return null;
+    }
+
+    /**
+     * DTPOSTED vem como AAAAMMDD seguido opcionalmente de hora e fuso; so a data interessa.
+     */
+    @Override
+    protected LocalDate converterData(String data) {
+        return LocalDate.parse(data.substring(0, 8), DateTimeFormatter.BASIC_ISO_DATE);
+    }
+
+    /**
+     * Avanca ate a proxima tag e devolve o nome dela, ou null no fim do arquivo. O cabecalho do OFX 1.x,
+     * antes da primeira tag, e ignorado.
+     */
+    private static String lerTag(BufferedReader reader) throws IOException {
+        int c;
+        while ((c = reader.read()) != -1 && c != '<') {
+            // texto fora de elementos conhecidos
+        }
+        if (c == -1) {
+            return null;
+        }
+        StringBuilder tag = new StringBuilder();
+        while ((c = reader.read()) != -1 && c != '>') {
+            if (tag.length() < TAMANHO_MAXIMO_TEXTO) {
+                tag.append((char) c);
+            }
+        }
+        return tag.toString().trim();
+    }
+
+    /**
+     * Le o conteudo do elemento ate a proxima tag, sem consumi-la.
+     */
+    private static String lerTexto(BufferedReader reader) throws IOException {
+        StringBuilder texto = new StringBuilder();
+        while (true) {
+            reader.mark(1);
+            int c = reader.read();
+            if (c == -1) {
+                break;
+            }
+            if (c == '<') {
+                reader.reset();
+                break;
+            }
+            if (texto.length() < TAMANHO_MAXIMO_TEXTO) {
+                texto.append((char) c);
+            }
+        }
+        return texto.toString().trim()
+                .replace("&lt;", "<").replace("&gt;", ">").replace("&amp;", "&");
+    }
+}
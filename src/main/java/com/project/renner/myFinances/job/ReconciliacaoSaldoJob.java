@@ -0,0 +1,36 @@
+package com.project.renner.myFinances.job;
+
+import com.project.renner.myFinances.dto.DivergenciaSaldoDTO;
+import com.project.renner.myFinances.service.SaldoUsuarioService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+/**
+ * Recalcula os saldos materializados a partir dos lancamentos e corrige as divergencias encontradas.
+ * Desligado por padrao; habilite com a propriedade {@code myfinances.saldo.reconciliacao.cron}.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class ReconciliacaoSaldoJob {
+
+    private final SaldoUsuarioService saldoUsuarioService;
+
+    @Scheduled(cron = "${myfinances.saldo.reconciliacao.cron:-}")
+    public void executar() {
+        List<DivergenciaSaldoDTO> divergencias = saldoUsuarioService.reconciliar();
+        if (divergencias.isEmpty()) {
+            log.info("Reconciliacao de saldos concluida sem divergencias.");
+            return;
+        }
+        for (DivergenciaSaldoDTO divergencia : divergencias) {
+            log.warn("Saldo divergente para o usuario {}: armazenado={}, calculado={}", divergencia.getUsuario(),
+                    divergencia.getSaldoArmazenado(), divergencia.getSaldoCalculado());
+        }
+        log.warn("Reconciliacao de saldos corrigiu {} usuario(s).", divergencias.size());
+    }
+}
@@ -0,0 +1,29 @@
+package com.project.renner.myFinances.job;
+
+import com.project.renner.myFinances.service.ResumoMensalService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+/**
+ * Recalcula todo o resumo mensal a partir dos lancamentos na inicializacao. Usado uma vez apos criar a
+ * tabela, ou para corrigir divergencias: {@code --myfinances.resumo.reconstruir=true}.
+ */
+@Component
+@ConditionalOnProperty(name = "myfinances.resumo.reconstruir", havingValue = "true")
+@RequiredArgsConstructor
+@Slf4j
+public class ReconstrucaoResumoMensalJob implements ApplicationRunner {
+
+    private final ResumoMensalService resumoMensalService;
+
+    @Override
+    public void run(ApplicationArguments args) {
+        long inicio = System.currentTimeMillis();
+        int linhas = resumoMensalService.reconstruir();
+        log.info("Resumo mensal reconstruido com {} linha(s) em {} ms.", linhas, System.currentTimeMillis() - inicio);
+    }
+}
@@ -0,0 +1,44 @@
+package com.project.renner.myFinances.metricas;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerMapping;
+
+import javax.servlet.FilterChain;
+import javax.servlet.ServletException;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+
+/**
+ * Registra quantos comandos SQL cada requisicao emitiu, por metodo e padrao de URI.
+ */
+public class ComandosPorRequisicaoFilter extends OncePerRequestFilter {
+    public static final String METRICA = "myfinances.requisicao.comandos";
+
+    private final MeterRegistry registry;
+
+    public ComandosPorRequisicaoFilter(MeterRegistry registry) {
+        this.registry = registry;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        ContadorComandosSql.iniciar();
+        try {
+            chain.doFilter(request, response);
+        } finally {
+            int comandos = ContadorComandosSql.encerrar();
+            Object uri = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+            DistributionSummary.builder(METRICA)
+                    .description("Comandos SQL por requisicao")
+                    .baseUnit("comandos")
+                    .tag("metodo", request.getMethod())
+                    .tag("uri", uri == null ? "UNKNOWN" : uri.toString())
+                    .register(registry)
+                    .record(comandos);
+        }
+    }
+}
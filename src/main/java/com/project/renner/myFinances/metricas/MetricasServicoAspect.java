@@ -0,0 +1,79 @@
+package com.project.renner.myFinances.metricas;
+
+import com.project.renner.myFinances.exception.ErroAutenticacao;
+import com.project.renner.myFinances.exception.RegraNegocioException;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CompletionStage;
+
+/**
+ * Mede cada chamada publica aos servicos, separando pelo resultado: sucesso, violacao de regra de negocio,
+ * falha de autenticacao ou erro inesperado. Metodos assincronos e reativos sao medidos ate a conclusao do resultado.
+ */
+@Aspect
+public class MetricasServicoAspect {
+    public static final String METRICA = "myfinances.servico";
+
+    private final MeterRegistry registry;
+
+    public MetricasServicoAspect(MeterRegistry registry) {
+        this.registry = registry;
+    }
+
+    @Around("within(com.project.renner.myFinances.service.impl..*) && execution(public * *(..))")
+    public Object medir(ProceedingJoinPoint chamada) throws Throwable {
+        Timer.Sample amostra = Timer.start(registry);
+        Object retorno;
+        try {
+            retorno = chamada.proceed();
+        } catch (Throwable e) {
+            registrar(amostra, chamada, e);
+            throw e;
+        }
+        if (retorno instanceof CompletionStage) {
+            ((CompletionStage<?>) retorno).whenComplete((valor, erro) -> registrar(amostra, chamada, erro));
+        } else if (retorno instanceof Mono) {
+            return ((Mono<?>) retorno)
+                    .doOnSuccess(valor -> registrar(amostra, chamada, null))
+                    .doOnError(erro -> registrar(amostra, chamada, erro));
+        } else if (retorno instanceof Flux) {
+            return ((Flux<?>) retorno)
+                    .doOnComplete(() -> registrar(amostra, chamada, null))
+                    .doOnError(erro -> registrar(amostra, chamada, erro));
+        } else {
+            registrar(amostra, chamada, null);
+        }
+        return retorno;
+    }
+
+    private void registrar(Timer.Sample amostra, ProceedingJoinPoint chamada, Throwable erro) {
+        Throwable causa = erro instanceof CompletionException && erro.getCause() != null ? erro.getCause() : erro;
+        amostra.stop(Timer.builder(METRICA)
+                .description("Tempo das chamadas aos servicos")
+                .tag("classe", chamada.getSignature().getDeclaringType().getSimpleName())
+                .tag("metodo", chamada.getSignature().getName())
+                .tag("resultado", resultado(causa))
+                .tag("excecao", causa == null ? "none" : causa.getClass().getSimpleName())
+                .register(registry));
+    }
+
+    static String resultado(Throwable erro) {
+        if (erro == null) {
+            return "sucesso";
+        }
+        if (erro instanceof RegraNegocioException) {
+            return "regra_negocio";
+        }
+        if (erro instanceof ErroAutenticacao) {
+            return "erro_autenticacao";
+        }
+        return "erro";
+    }
+}
@@ -1,11 +1,13 @@
 package com.project.renner.myFinances.model;
 
+import com.project.renner.myFinances.config.Caches;
 import com.project.renner.myFinances.enums.StatusLancamento;
 import com.project.renner.myFinances.enums.TipoLancamento;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
 import lombok.NoArgsConstructor;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 import org.springframework.data.convert.Jsr310Converters;
 import org.springframework.data.jpa.convert.threeten.Jsr310JpaConverters;
 
@@ -13,14 +15,19 @@ import javax.persistence.*;
 import java.math.BigDecimal;
 import java.time.LocalDate;
 @Entity
-@Table(name = "lancamento", schema = "financas")
+@Cacheable
+@org.hibernate.annotations.Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = Caches.REGIAO_LANCAMENTO)
+@Table(name = "lancamento", schema = "financas", indexes = {
+        @Index(name = "idx_lancamento_usuario_ano_mes_id", columnList = "id_usuario, ano, mes, id")
+})
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
 @Builder
 public class Lancamento {
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "lancamento_seq")
+    @SequenceGenerator(name = "lancamento_seq", schema = "financas", sequenceName = "lancamento_id_seq", allocationSize = 50)
     @Column(name = "id")
     private Long id;
 
@@ -33,7 +40,7 @@ public class Lancamento {
     @Column(name = "ano")
     private Integer ano;
 
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "id_usuario")
     private Usuario usuario;
 
@@ -51,4 +58,8 @@ public class Lancamento {
     @Column(name = "status")
     @Enumerated(value = EnumType.STRING)
     private StatusLancamento status;
+
+    @Version
+    @Column(name = "versao")
+    private Long versao;
 }
@@ -0,0 +1,62 @@
+package com.project.renner.myFinances.model;
+
+import com.project.renner.myFinances.enums.StatusLancamento;
+import com.project.renner.myFinances.enums.TipoLancamento;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import javax.persistence.Column;
+import javax.persistence.Entity;
+import javax.persistence.EnumType;
+import javax.persistence.Enumerated;
+import javax.persistence.Id;
+import javax.persistence.IdClass;
+import javax.persistence.Table;
+import java.math.BigDecimal;
+
+/**
+ * Totais mensais de um usuario por tipo e status, mantidos na mesma transacao das escritas de
+ * lancamentos para que o painel leia no maximo algumas dezenas de linhas por ano.
+ */
+@Entity
+@Table(name = "resumo_mensal", schema = "financas")
+@IdClass(ResumoMensalId.class)
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class ResumoMensal {
+    @Id
+    @Column(name = "id_usuario")
+    private Long idUsuario;
+
+    @Id
+    @Column(name = "ano")
+    private Integer ano;
+
+    @Id
+    @Column(name = "mes")
+    private Integer mes;
+
+    @Id
+    @Column(name = "tipo")
+    @Enumerated(value = EnumType.STRING)
+    private TipoLancamento tipo;
+
+    @Id
+    @Column(name = "status")
+    @Enumerated(value = EnumType.STRING)
+    private StatusLancamento status;
+
+    @Column(name = "valor")
+    private BigDecimal valor;
+
+    @Column(name = "quantidade")
+    private Long quantidade;
+
+    public ResumoMensalId getChave() {
+        return new ResumoMensalId(idUsuario, ano, mes, tipo, status);
+    }
+}
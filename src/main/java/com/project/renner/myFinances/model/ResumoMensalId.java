@@ -0,0 +1,31 @@
+package com.project.renner.myFinances.model;
+
+import com.project.renner.myFinances.enums.StatusLancamento;
+import com.project.renner.myFinances.enums.TipoLancamento;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.io.Serializable;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ResumoMensalId implements Serializable {
+    private Long idUsuario;
+    private Integer ano;
+    private Integer mes;
+    private TipoLancamento tipo;
+    private StatusLancamento status;
+
+    /**
+     * Lancamentos sem usuario, tipo ou status nao entram no resumo.
+     */
+    public boolean isCompleta() {
+        return idUsuario != null && ano != null && mes != null && tipo != null && status != null;
+    }
+
+    public ResumoMensalId comStatus(StatusLancamento novoStatus) {
+        return new ResumoMensalId(idUsuario, ano, mes, tipo, novoStatus);
+    }
+}
@@ -0,0 +1,38 @@
+package com.project.renner.myFinances.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import javax.persistence.Column;
+import javax.persistence.Entity;
+import javax.persistence.Id;
+import javax.persistence.Table;
+import java.math.BigDecimal;
+
+/**
+ * Saldo materializado de um usuario, mantido na mesma transacao das escritas de lancamentos
+ * para que a consulta de saldo seja uma leitura por chave primaria.
+ */
+@Entity
+@Table(name = "saldo_usuario", schema = "financas")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class SaldoUsuario {
+    @Id
+    @Column(name = "id_usuario")
+    private Long idUsuario;
+
+    @Column(name = "receitas")
+    private BigDecimal receitas;
+
+    @Column(name = "despesas")
+    private BigDecimal despesas;
+
+    public BigDecimal getSaldo() {
+        return receitas.subtract(despesas);
+    }
+}
@@ -1,16 +1,90 @@
 package com.project.renner.myFinances.repository;
 
+import com.project.renner.myFinances.dto.LancamentoDTO;
+import com.project.renner.myFinances.enums.StatusLancamento;
 import com.project.renner.myFinances.enums.TipoLancamento;
 import com.project.renner.myFinances.model.Lancamento;
+import com.project.renner.myFinances.repository.projection.DescricaoLancamento;
+import com.project.renner.myFinances.repository.projection.SaldoConsolidado;
+import com.project.renner.myFinances.repository.projection.SaldoMensal;
+import com.project.renner.myFinances.repository.projection.TotalResumoMensal;
+import com.project.renner.myFinances.repository.projection.ValoresSaldoLancamento;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 
+import javax.persistence.QueryHint;
 import java.math.BigDecimal;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
 
-public interface LancamentoRepository extends JpaRepository<Lancamento, Long> {
+public interface LancamentoRepository extends JpaRepository<Lancamento, Long>, LancamentoRepositoryCustom {
+
+    String SOMA_RECEITAS = "coalesce(sum(CASE WHEN l.tipo = com.project.renner.myFinances.enums.TipoLancamento.RECEITA" +
+            " THEN l.valor ELSE 0 END), 0)";
+
+    String SOMA_DESPESAS = "coalesce(sum(CASE WHEN l.tipo = com.project.renner.myFinances.enums.TipoLancamento.DESPESA" +
+            " THEN l.valor ELSE 0 END), 0)";
+
+    /**
+     * Quantidade de linhas trazidas por ida ao banco ao percorrer um cursor.
+     */
+    String TAMANHO_LOTE_CURSOR = "500";
+
+    String SOMA_SALDO = "coalesce(sum(CASE WHEN l.tipo = com.project.renner.myFinances.enums.TipoLancamento.RECEITA" +
+            " THEN l.valor WHEN l.tipo = com.project.renner.myFinances.enums.TipoLancamento.DESPESA" +
+            " THEN -l.valor ELSE 0 END), 0)";
 
     @Query(value = "SELECT sum(l.valor) FROM Lancamento l JOIN l.usuario u" +
             " WHERE u.id = :idUsuario AND l.tipo =:tipo GROUP BY u")
     BigDecimal obterSaldoPorTipoLancamentoUsuario(@Param("idUsuario") Long idUsuario, @Param("tipo") TipoLancamento tipo);
+
+    @Query(value = "SELECT " + SOMA_RECEITAS + " AS receitas, " + SOMA_DESPESAS + " AS despesas, "
+            + SOMA_SALDO + " AS saldo FROM Lancamento l WHERE l.usuario.id = :idUsuario")
+    SaldoConsolidado obterSaldoConsolidado(@Param("idUsuario") Long idUsuario);
+
+    @Query(value = "SELECT l.mes AS mes, " + SOMA_RECEITAS + " AS receitas, " + SOMA_DESPESAS + " AS despesas, "
+            + SOMA_SALDO + " AS saldo FROM Lancamento l WHERE l.usuario.id = :idUsuario AND l.ano = :ano"
+            + " GROUP BY l.mes ORDER BY l.mes")
+    List<SaldoMensal> obterSaldosMensais(@Param("idUsuario") Long idUsuario, @Param("ano") Integer ano);
+
+    @Query(value = "SELECT new com.project.renner.myFinances.dto.LancamentoDTO(l.id, l.descricao, l.mes, l.ano," +
+            " l.valor, l.usuario.id, l.tipo, l.status) FROM Lancamento l WHERE l.id = :id")
+    Optional<LancamentoDTO> obterDTOPorId(@Param("id") Long id);
+
+    /**
+     * Le os valores gravados na base sem descarregar o contexto de persistencia, para que
+     * alteracoes pendentes na entidade gerenciada nao mascarem o estado anterior.
+     */
+    @Query(value = "SELECT l.usuario.id AS idUsuario, l.tipo AS tipo, l.valor AS valor, l.ano AS ano, l.mes AS mes," +
+            " l.status AS status FROM Lancamento l WHERE l.id = :id")
+    @QueryHints(@QueryHint(name = org.hibernate.annotations.QueryHints.FLUSH_MODE, value = "COMMIT"))
+    Optional<ValoresSaldoLancamento> obterValoresSaldo(@Param("id") Long id);
+
+    @Query(value = "SELECT coalesce(sum(l.valor), 0) AS valor, count(l) AS quantidade FROM Lancamento l"
+            + " WHERE l.usuario.id = :idUsuario AND l.ano = :ano AND l.mes = :mes AND l.tipo = :tipo AND l.status = :status")
+    TotalResumoMensal obterTotalResumoMensal(@Param("idUsuario") Long idUsuario, @Param("ano") Integer ano,
+                                             @Param("mes") Integer mes, @Param("tipo") TipoLancamento tipo,
+                                             @Param("status") StatusLancamento status);
+
+    @Query(value = "SELECT l.id AS id, l.descricao AS descricao FROM Lancamento l WHERE l.usuario.id = :idUsuario")
+    List<DescricaoLancamento> findDescricoesByUsuarioId(@Param("idUsuario") Long idUsuario);
+
+    @Query(value = "SELECT DISTINCT l.usuario.id FROM Lancamento l WHERE l.usuario IS NOT NULL")
+    List<Long> listarUsuarios();
+
+    /**
+     * Percorre os lancamentos do usuario com um cursor do JDBC, sem materializar a lista. Precisa ser
+     * consumido e fechado dentro de uma transacao.
+     */
+    @QueryHints({
+            @QueryHint(name = org.hibernate.jpa.QueryHints.HINT_FETCH_SIZE, value = TAMANHO_LOTE_CURSOR),
+            @QueryHint(name = org.hibernate.jpa.QueryHints.HINT_READONLY, value = "true")
+    })
+    @Query(value = "SELECT new com.project.renner.myFinances.dto.LancamentoDTO(l.id, l.descricao, l.mes, l.ano, l.valor,"
+            + " l.usuario.id, l.tipo, l.status) FROM Lancamento l WHERE l.usuario.id = :idUsuario"
+            + " ORDER BY l.ano, l.mes, l.id")
+    Stream<LancamentoDTO> percorrerPorUsuario(@Param("idUsuario") Long idUsuario);
 }
@@ -0,0 +1,42 @@
+package com.project.renner.myFinances.repository;
+
+import com.project.renner.myFinances.dto.LancamentoDTO;
+import com.project.renner.myFinances.enums.StatusLancamento;
+import com.project.renner.myFinances.model.Lancamento;
+import com.project.renner.myFinances.model.ResumoMensal;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.util.List;
+
+public interface LancamentoRepositoryCustom {
+
+    /**
+     * Busca limitada, sem a consulta de contagem que o {@code findAll(Specification, Pageable)} executa.
+     * Projeta direto em {@link LancamentoDTO}, sem carregar entidades nem o usuario.
+     */
+    List<LancamentoDTO> buscar(Specification<Lancamento> filtro, Sort ordem, int limite);
+
+    /**
+     * Como {@link #buscar(Specification, Sort, int)}, pulando as {@code inicio} primeiras linhas.
+     */
+    List<LancamentoDTO> buscar(Specification<Lancamento> filtro, Sort ordem, long inicio, int limite);
+
+    /**
+     * Conta os lancamentos do filtro ate {@code limite}: a contagem para de percorrer o indice ao alcanca-lo.
+     */
+    long contar(Specification<Lancamento> filtro, int limite);
+
+    /**
+     * Altera o status de todos os lancamentos do filtro num unico UPDATE, incrementando a versao.
+     * O filtro nao pode depender da consulta, ja que e aplicado a um {@code CriteriaUpdate}.
+     *
+     * @return quantidade de lancamentos alterados
+     */
+    int atualizarStatus(Specification<Lancamento> filtro, StatusLancamento status);
+
+    /**
+     * Totais dos lancamentos do filtro agrupados pela chave do resumo mensal, sem carregar os lancamentos.
+     */
+    List<ResumoMensal> agruparPorResumoMensal(Specification<Lancamento> filtro);
+}
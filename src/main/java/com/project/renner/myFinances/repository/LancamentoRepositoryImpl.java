@@ -0,0 +1,104 @@
+package com.project.renner.myFinances.repository;
+
+import com.project.renner.myFinances.dto.LancamentoDTO;
+import com.project.renner.myFinances.enums.StatusLancamento;
+import com.project.renner.myFinances.model.Lancamento;
+import com.project.renner.myFinances.model.ResumoMensal;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+
+import javax.persistence.EntityManager;
+import javax.persistence.PersistenceContext;
+import javax.persistence.criteria.CriteriaBuilder;
+import javax.persistence.criteria.CriteriaQuery;
+import javax.persistence.criteria.CriteriaUpdate;
+import javax.persistence.criteria.Expression;
+import javax.persistence.criteria.Order;
+import javax.persistence.criteria.Predicate;
+import javax.persistence.criteria.Root;
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+
+public class LancamentoRepositoryImpl implements LancamentoRepositoryCustom {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public List<LancamentoDTO> buscar(Specification<Lancamento> filtro, Sort ordem, int limite) {
+        return buscar(filtro, ordem, 0, limite);
+    }
+
+    @Override
+    public List<LancamentoDTO> buscar(Specification<Lancamento> filtro, Sort ordem, long inicio, int limite) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<LancamentoDTO> query = cb.createQuery(LancamentoDTO.class);
+        Root<Lancamento> root = query.from(Lancamento.class);
+        query.select(cb.construct(LancamentoDTO.class, root.get("id"), root.get("descricao"), root.get("mes"),
+                root.get("ano"), root.get("valor"), root.get("usuario").get("id"), root.get("tipo"), root.get("status")));
+
+        Predicate predicado = filtro.toPredicate(root, query, cb);
+        if (predicado != null) {
+            query.where(predicado);
+        }
+        List<Order> ordens = new ArrayList<>();
+        for (Sort.Order campo : ordem) {
+            ordens.add(campo.isAscending() ? cb.asc(root.get(campo.getProperty()))
+                    : cb.desc(root.get(campo.getProperty())));
+        }
+        query.orderBy(ordens);
+
+        return entityManager.createQuery(query)
+                .setFirstResult(Math.toIntExact(inicio))
+                .setMaxResults(limite)
+                .getResultList();
+    }
+
+    @Override
+    public long contar(Specification<Lancamento> filtro, int limite) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Long> query = cb.createQuery(Long.class);
+        Root<Lancamento> root = query.from(Lancamento.class);
+        query.select(root.get("id"));
+
+        Predicate predicado = filtro.toPredicate(root, query, cb);
+        if (predicado != null) {
+            query.where(predicado);
+        }
+        return entityManager.createQuery(query).setMaxResults(limite).getResultList().size();
+    }
+
+    @Override
+    public int atualizarStatus(Specification<Lancamento> filtro, StatusLancamento status) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaUpdate<Lancamento> update = cb.createCriteriaUpdate(Lancamento.class);
+        Root<Lancamento> root = update.from(Lancamento.class);
+        update.set(root.<StatusLancamento>get("status"), status);
+        update.set(root.<Long>get("versao"), cb.sum(cb.coalesce(root.<Long>get("versao"), 0L), 1L));
+
+        Predicate predicado = filtro.toPredicate(root, null, cb);
+        if (predicado != null) {
+            update.where(predicado);
+        }
+        return entityManager.createQuery(update).executeUpdate();
+    }
+
+    @Override
+    public List<ResumoMensal> agruparPorResumoMensal(Specification<Lancamento> filtro) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<ResumoMensal> query = cb.createQuery(ResumoMensal.class);
+        Root<Lancamento> root = query.from(Lancamento.class);
+        Expression<Long> idUsuario = root.get("usuario").get("id");
+        query.select(cb.construct(ResumoMensal.class, idUsuario, root.get("ano"), root.get("mes"), root.get("tipo"),
+                root.get("status"), cb.sum(root.<BigDecimal>get("valor")), cb.count(root)));
+
+        Predicate predicado = filtro.toPredicate(root, query, cb);
+        if (predicado != null) {
+            query.where(predicado);
+        }
+        query.groupBy(idUsuario, root.get("ano"), root.get("mes"), root.get("tipo"), root.get("status"));
+
+        return entityManager.createQuery(query).getResultList();
+    }
+}
@@ -0,0 +1,62 @@
+package com.project.renner.myFinances.repository;
+
+import com.project.renner.myFinances.dto.CursorLancamento;
+import com.project.renner.myFinances.enums.StatusLancamento;
+import com.project.renner.myFinances.model.Lancamento;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.util.Collection;
+
+/**
+ * Filtros da busca de lancamentos. Usuario, ano e mes sao comparados por igualdade para que o
+ * indice (id_usuario, ano, mes, id) atenda a busca e a paginacao por cursor.
+ */
+public final class LancamentoSpecifications {
+
+    private LancamentoSpecifications() {
+    }
+
+    public static Specification<Lancamento> doUsuario(Long idUsuario) {
+        return (root, query, cb) -> cb.equal(root.get("usuario").get("id"), idUsuario);
+    }
+
+    public static Specification<Lancamento> doAno(Integer ano) {
+        return (root, query, cb) -> ano == null ? null : cb.equal(root.get("ano"), ano);
+    }
+
+    public static Specification<Lancamento> doMes(Integer mes) {
+        return (root, query, cb) -> mes == null ? null : cb.equal(root.get("mes"), mes);
+    }
+
+    public static Specification<Lancamento> comIds(Collection<Long> ids) {
+        return (root, query, cb) -> ids == null || ids.isEmpty() ? null : root.get("id").in(ids);
+    }
+
+    public static Specification<Lancamento> comStatus(Collection<StatusLancamento> status) {
+        return (root, query, cb) -> root.get("status").in(status);
+    }
+
+    public static Specification<Lancamento> descricaoContendo(String descricao) {
+        return (root, query, cb) -> descricao == null || descricao.trim().isEmpty() ? null
+                : cb.like(cb.lower(root.get("descricao")), "%" + escaparLike(descricao.trim().toLowerCase()) + "%", '\\');
+    }
+
+    public static Specification<Lancamento> aposCursor(CursorLancamento cursor) {
+        return (root, query, cb) -> {
+            if (cursor == null) {
+                return null;
+            }
+            return cb.or(
+                    cb.greaterThan(root.get("ano"), cursor.getAno()),
+                    cb.and(cb.equal(root.get("ano"), cursor.getAno()),
+                            cb.greaterThan(root.get("mes"), cursor.getMes())),
+                    cb.and(cb.equal(root.get("ano"), cursor.getAno()),
+                            cb.equal(root.get("mes"), cursor.getMes()),
+                            cb.greaterThan(root.get("id"), cursor.getId())));
+        };
+    }
+
+    private static String escaparLike(String texto) {
+        return texto.replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_");
+    }
+}
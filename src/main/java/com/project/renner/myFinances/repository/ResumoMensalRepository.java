@@ -0,0 +1,70 @@
+package com.project.renner.myFinances.repository;
+
+import com.project.renner.myFinances.enums.StatusLancamento;
+import com.project.renner.myFinances.enums.TipoLancamento;
+import com.project.renner.myFinances.model.ResumoMensal;
+import com.project.renner.myFinances.model.ResumoMensalId;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+
+import javax.persistence.QueryHint;
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Optional;
+
+public interface ResumoMensalRepository extends JpaRepository<ResumoMensal, ResumoMensalId> {
+
+    /**
+     * Tabela afetada pelos comandos nativos. Sem ela o Hibernate nao sabe o que o comando altera e esvazia
+     * todas as regioes do cache de segundo nivel.
+     */
+    String TABELA = "financas.resumo_mensal";
+
+    List<ResumoMensal> findByIdUsuarioAndAnoOrderByMesAscTipoAscStatusAsc(Long idUsuario, Integer ano);
+
+    @Query(value = "SELECT coalesce(sum(r.quantidade), 0) FROM ResumoMensal r WHERE r.idUsuario = :idUsuario" +
+            " AND (:ano IS NULL OR r.ano = :ano) AND (:mes IS NULL OR r.mes = :mes)")
+    long contarLancamentos(@Param("idUsuario") Long idUsuario, @Param("ano") Integer ano, @Param("mes") Integer mes);
+
+    @Modifying
+    @Query(value = "UPDATE ResumoMensal r SET r.valor = r.valor + :valor, r.quantidade = r.quantidade + :quantidade" +
+            " WHERE r.idUsuario = :idUsuario AND r.ano = :ano AND r.mes = :mes AND r.tipo = :tipo AND r.status = :status")
+    int acumular(@Param("idUsuario") Long idUsuario, @Param("ano") Integer ano, @Param("mes") Integer mes,
+                 @Param("tipo") TipoLancamento tipo, @Param("status") StatusLancamento status,
+                 @Param("valor") BigDecimal valor, @Param("quantidade") Long quantidade);
+
+    @Modifying
+    @QueryHints(@QueryHint(name = org.hibernate.annotations.QueryHints.NATIVE_SPACES, value = TABELA))
+    @Query(value = "INSERT INTO financas.resumo_mensal (id_usuario, ano, mes, tipo, status, valor, quantidade)" +
+            " VALUES (:idUsuario, :ano, :mes, :tipo, :status, :valor, :quantidade)", nativeQuery = true)
+    void inserir(@Param("idUsuario") Long idUsuario, @Param("ano") Integer ano, @Param("mes") Integer mes,
+                 @Param("tipo") String tipo, @Param("status") String status,
+                 @Param("valor") BigDecimal valor, @Param("quantidade") Long quantidade);
+
+    /**
+     * Trava a linha do usuario antes de inserir a primeira linha de uma chave: serializa duas primeiras
+     * movimentacoes concorrentes da mesma chave. Nada e lido dos lancamentos, por isso nao precisa do flush automatico.
+     */
+    @QueryHints(@QueryHint(name = org.hibernate.annotations.QueryHints.FLUSH_MODE, value = "COMMIT"))
+    @Query(value = "SELECT id FROM financas.usuario WHERE id = :idUsuario FOR UPDATE", nativeQuery = true)
+    Optional<Long> travarUsuario(@Param("idUsuario") Long idUsuario);
+
+    @Modifying
+    @QueryHints(@QueryHint(name = org.hibernate.annotations.QueryHints.NATIVE_SPACES, value = TABELA))
+    @Query(value = "DELETE FROM financas.resumo_mensal", nativeQuery = true)
+    int removerTodos();
+
+    /**
+     * Recalcula todas as linhas a partir dos lancamentos, num unico INSERT ... SELECT.
+     */
+    @Modifying
+    @QueryHints(@QueryHint(name = org.hibernate.annotations.QueryHints.NATIVE_SPACES, value = TABELA))
+    @Query(value = "INSERT INTO financas.resumo_mensal (id_usuario, ano, mes, tipo, status, valor, quantidade)" +
+            " SELECT id_usuario, ano, mes, tipo, status, coalesce(sum(valor), 0), count(*) FROM financas.lancamento" +
+            " WHERE id_usuario IS NOT NULL AND ano IS NOT NULL AND mes IS NOT NULL AND tipo IS NOT NULL" +
+            " AND status IS NOT NULL GROUP BY id_usuario, ano, mes, tipo, status", nativeQuery = true)
+    int inserirAPartirDosLancamentos();
+}
@@ -0,0 +1,54 @@
+package com.project.renner.myFinances.repository;
+
+import com.project.renner.myFinances.model.SaldoUsuario;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+
+import javax.persistence.LockModeType;
+import javax.persistence.QueryHint;
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Optional;
+
+public interface SaldoUsuarioRepository extends JpaRepository<SaldoUsuario, Long> {
+
+    /**
+     * Tabela do INSERT nativo, para que o Hibernate nao esvazie as regioes do cache de segundo nivel.
+     */
+    String TABELA = "financas.saldo_usuario";
+
+    @Modifying
+    @Query(value = "UPDATE SaldoUsuario s SET s.receitas = s.receitas + :receitas," +
+            " s.despesas = s.despesas + :despesas WHERE s.idUsuario = :idUsuario")
+    int acumular(@Param("idUsuario") Long idUsuario, @Param("receitas") BigDecimal receitas,
+                 @Param("despesas") BigDecimal despesas);
+
+    @Modifying
+    @QueryHints(@QueryHint(name = org.hibernate.annotations.QueryHints.NATIVE_SPACES, value = TABELA))
+    @Query(value = "INSERT INTO financas.saldo_usuario (id_usuario, receitas, despesas)" +
+            " VALUES (:idUsuario, :receitas, :despesas)", nativeQuery = true)
+    void inserir(@Param("idUsuario") Long idUsuario, @Param("receitas") BigDecimal receitas,
+                 @Param("despesas") BigDecimal despesas);
+
+    @Query(value = "SELECT s.idUsuario FROM SaldoUsuario s")
+    List<Long> listarUsuarios();
+
+    /**
+     * Le o saldo com a linha travada ate o fim da transacao (SELECT ... FOR UPDATE).
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query(value = "SELECT s FROM SaldoUsuario s WHERE s.idUsuario = :idUsuario")
+    Optional<SaldoUsuario> travar(@Param("idUsuario") Long idUsuario);
+
+    /**
+     * Trava a linha do usuario quando ainda nao ha saldo para travar: serializa a insercao do primeiro saldo.
+     * Nada e lido dos lancamentos, por isso nao precisa do flush automatico.
+     */
+    @QueryHints(@QueryHint(name = org.hibernate.annotations.QueryHints.FLUSH_MODE, value = "COMMIT"))
+    @Query(value = "SELECT id FROM financas.usuario WHERE id = :idUsuario FOR UPDATE", nativeQuery = true)
+    Optional<Long> travarUsuario(@Param("idUsuario") Long idUsuario);
+}
@@ -1,12 +1,30 @@
 package com.project.renner.myFinances.repository;
 
+import com.project.renner.myFinances.config.Caches;
 import com.project.renner.myFinances.model.Usuario;
+import org.springframework.cache.annotation.Cacheable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.util.Optional;
 
 public interface UsuarioRepository extends JpaRepository<Usuario, Long> {
 
     boolean existsByEmail(String email);
+    /**
+     * Cacheado por email; entradas expiram pelo TTL do cache e sao removidas em {@code salvarUsuario}.
+     */
+    @Cacheable(cacheNames = Caches.USUARIOS_POR_EMAIL, unless = "#result == null")
     Optional<Usuario>findByEmail(String email);
+
+    /**
+     * Troca a senha somente se ela ainda for a informada, para que duas atualizacoes concorrentes nao se sobreponham.
+     */
+    @Transactional
+    @Modifying
+    @Query("UPDATE Usuario u SET u.senha = :novaSenha WHERE u.id = :id AND u.senha = :senhaAtual")
+    int atualizarSenha(@Param("id") Long id, @Param("senhaAtual") String senhaAtual, @Param("novaSenha") String novaSenha);
 }
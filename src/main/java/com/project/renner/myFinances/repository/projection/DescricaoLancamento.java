@@ -0,0 +1,7 @@
+package com.project.renner.myFinances.repository.projection;
+
+public interface DescricaoLancamento {
+    Long getId();
+
+    String getDescricao();
+}
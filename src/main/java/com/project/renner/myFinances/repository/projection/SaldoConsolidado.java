@@ -0,0 +1,14 @@
+package com.project.renner.myFinances.repository.projection;
+
+import java.math.BigDecimal;
+
+/**
+ * Receitas, despesas e saldo de um usuario calculados numa unica passada sobre os lancamentos.
+ */
+public interface SaldoConsolidado {
+    BigDecimal getReceitas();
+
+    BigDecimal getDespesas();
+
+    BigDecimal getSaldo();
+}
@@ -0,0 +1,13 @@
+package com.project.renner.myFinances.repository.projection;
+
+import java.math.BigDecimal;
+
+public interface SaldoMensal {
+    Integer getMes();
+
+    BigDecimal getReceitas();
+
+    BigDecimal getDespesas();
+
+    BigDecimal getSaldo();
+}
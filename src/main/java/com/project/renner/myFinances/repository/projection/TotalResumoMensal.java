@@ -0,0 +1,9 @@
+package com.project.renner.myFinances.repository.projection;
+
+import java.math.BigDecimal;
+
+public interface TotalResumoMensal {
+    BigDecimal getValor();
+
+    Long getQuantidade();
+}
@@ -0,0 +1,73 @@
+package com.project.renner.myFinances.repository.projection;
+
+import com.project.renner.myFinances.enums.StatusLancamento;
+import com.project.renner.myFinances.enums.TipoLancamento;
+import com.project.renner.myFinances.model.Lancamento;
+import com.project.renner.myFinances.model.ResumoMensalId;
+
+import java.math.BigDecimal;
+
+/**
+ * Valores de um lancamento que participam do saldo e do resumo mensal, lidos diretamente da base ou copiados
+ * da entidade ja carregada.
+ */
+public interface ValoresSaldoLancamento {
+    Long getIdUsuario();
+
+    TipoLancamento getTipo();
+
+    BigDecimal getValor();
+
+    Integer getAno();
+
+    Integer getMes();
+
+    StatusLancamento getStatus();
+
+    default ResumoMensalId getChaveResumo() {
+        return new ResumoMensalId(getIdUsuario(), getAno(), getMes(), getTipo(), getStatus());
+    }
+
+    /**
+     * Copia os valores da entidade no momento da chamada, antes que ela seja alterada.
+     */
+    static ValoresSaldoLancamento de(Lancamento lancamento) {
+        Long idUsuario = lancamento.getUsuario() == null ? null : lancamento.getUsuario().getId();
+        TipoLancamento tipo = lancamento.getTipo();
+        BigDecimal valor = lancamento.getValor();
+        Integer ano = lancamento.getAno();
+        Integer mes = lancamento.getMes();
+        StatusLancamento status = lancamento.getStatus();
+        return new ValoresSaldoLancamento() {
+            @Override
+            public Long getIdUsuario() {
+                return idUsuario;
+            }
+
+            @Override
+            public TipoLancamento getTipo() {
+                return tipo;
+            }
+
+            @Override
+            public BigDecimal getValor() {
+                return valor;
+            }
+
+            @Override
+            public Integer getAno() {
+                return ano;
+            }
+
+            @Override
+            public Integer getMes() {
+                return mes;
+            }
+
+            @Override
+            public StatusLancamento getStatus() {
+                return status;
+            }
+        };
+    }
+}
@@ -0,0 +1,30 @@
+package com.project.renner.myFinances.seguranca;
+
+import java.util.Locale;
+
+/**
+ * Limite de tentativas de login por IP e por email, verificado antes de qualquer consulta ao banco ou
+ * calculo do hash. O balde do email so e consumido se o IP ainda tiver fichas.
+ */
+public class LimiteAutenticacao {
+
+    private final LimiteTentativas porEmail;
+
+    private final LimiteTentativas porIp;
+
+    public LimiteAutenticacao(LimiteTentativas porEmail, LimiteTentativas porIp) {
+        this.porEmail = porEmail;
+        this.porIp = porIp;
+    }
+
+    /**
+     * @return zero se a tentativa pode seguir; senao, os nanossegundos ate a proxima permitida
+     */
+    public long verificar(String email, String ip) {
+        long espera = ip == null ? 0 : porIp.consumir(ip);
+        if (espera == 0 && email != null) {
+            espera = porEmail.consumir(email.trim().toLowerCase(Locale.ROOT));
+        }
+        return espera;
+    }
+}
@@ -0,0 +1,15 @@
+package com.project.renner.myFinances.seguranca;
+
+/**
+ * Balde de fichas por chave para limitar tentativas. A implementacao local guarda os baldes nesta instancia;
+ * com varias instancias, uma implementacao sobre um armazenamento compartilhado mantem o limite global.
+ */
+public interface LimiteTentativas {
+
+    /**
+     * Consome uma ficha do balde da chave.
+     *
+     * @return zero se havia ficha; senao, os nanossegundos ate a proxima, sem consumir nada
+     */
+    long consumir(String chave);
+}
@@ -0,0 +1,64 @@
+package com.project.renner.myFinances.seguranca;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Ticker;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Baldes em memoria, sem lock: cada balde e um unico {@link AtomicLong} com o instante em que o balde
+ * ficaria sem fichas a recuperar (GCRA, equivalente ao balde de fichas), atualizado por CAS. Um balde sem
+ * uso por um periodo inteiro estaria cheio e nao guarda nada, por isso expira; o numero de chaves e limitado.
+ */
+public class LimiteTentativasLocal implements LimiteTentativas {
+
+    private final long intervaloNanos;
+
+    private final long toleranciaNanos;
+
+    private final Ticker ticker;
+
+    private final Cache<String, AtomicLong> baldes;
+
+    /**
+     * @param capacidade tentativas seguidas permitidas com o balde cheio
+     * @param periodo    tempo para o balde vazio voltar a ficar cheio
+     */
+    public LimiteTentativasLocal(int capacidade, Duration periodo, long maximoChaves, Ticker ticker) {
+        if (capacidade < 1 || periodo.isNegative() || periodo.isZero()) {
+            throw new IllegalArgumentException("Informe capacidade e periodo positivos");
+        }
+        this.intervaloNanos = periodo.toNanos() / capacidade;
+        this.toleranciaNanos = intervaloNanos * (capacidade - 1);
+        this.ticker = ticker;
+        this.baldes = Caffeine.newBuilder()
+                .maximumSize(maximoChaves)
+                .expireAfterAccess(periodo)
+                .ticker(ticker)
+                .build();
+    }
+
+    @Override
+    public long consumir(String chave) {
+        AtomicLong vazioEm = baldes.get(chave, k -> new AtomicLong(Long.MIN_VALUE));
+        long agora = ticker.read();
+        while (true) {
+            long atual = vazioEm.get();
+            long inicio = Math.max(atual, agora);
+            long espera = inicio - toleranciaNanos - agora;
+            if (espera > 0) {
+                return espera;
+            }
+            if (vazioEm.compareAndSet(atual, inicio + intervaloNanos)) {
+                return 0;
+            }
+        }
+    }
+
+    long quantidadeBaldes() {
+        baldes.cleanUp();
+        return baldes.estimatedSize();
+    }
+}
@@ -0,0 +1,44 @@
+package com.project.renner.myFinances.seguranca;
+
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import javax.servlet.FilterChain;
+import javax.servlet.ServletException;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.util.Optional;
+
+/**
+ * Valida o token Bearer da requisicao e publica o {@link UsuarioAutenticado} no atributo
+ * {@link #ATRIBUTO_USUARIO}. Requisicoes sem token seguem sem usuario; token invalido ou expirado responde 401.
+ */
+public class TokenAutenticacaoFilter extends OncePerRequestFilter {
+    public static final String ATRIBUTO_USUARIO = "usuarioAutenticado";
+
+    private static final String PREFIXO_BEARER = "Bearer ";
+
+    private final TokenService tokenService;
+
+    public TokenAutenticacaoFilter(TokenService tokenService) {
+        this.tokenService = tokenService;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        String autorizacao = request.getHeader(HttpHeaders.AUTHORIZATION);
+        if (autorizacao != null && autorizacao.regionMatches(true, 0, PREFIXO_BEARER, 0, PREFIXO_BEARER.length())) {
+            Optional<UsuarioAutenticado> usuario = tokenService.validar(autorizacao.substring(PREFIXO_BEARER.length()).trim());
+            if (!usuario.isPresent()) {
+                response.setHeader(HttpHeaders.WWW_AUTHENTICATE, "Bearer");
+                response.sendError(HttpStatus.UNAUTHORIZED.value(), "Token invalido ou expirado.");
+                return;
+            }
+            request.setAttribute(ATRIBUTO_USUARIO, usuario.get());
+        }
+        filterChain.doFilter(request, response);
+    }
+}
@@ -0,0 +1,114 @@
+package com.project.renner.myFinances.seguranca;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.project.renner.myFinances.model.Usuario;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.time.Clock;
+import java.time.Duration;
+import java.util.Base64;
+import java.util.Optional;
+
+/**
+ * Tokens no formato JWT assinados com HMAC-SHA256. Carregam id, nome e email do usuario, entao sao
+ * verificados em memoria, sem consulta ao banco; qualquer instancia com o mesmo segredo os aceita.
+ */
+public class TokenService {
+    static final int TAMANHO_MINIMO_SEGREDO = 32;
+
+    private static final String CABECALHO = base64(
+            "{\"alg\":\"HS256\",\"typ\":\"JWT\"}".getBytes(StandardCharsets.UTF_8));
+
+    private final byte[] segredo;
+
+    private final Duration validade;
+
+    private final Clock clock;
+
+    private final ObjectMapper objectMapper;
+
+    // Mac nao e thread-safe; uma instancia por thread evita a busca do provedor a cada requisicao
+    private final ThreadLocal<Mac> mac;
+
+    public TokenService(byte[] segredo, Duration validade, Clock clock, ObjectMapper objectMapper) {
+        if (segredo.length < TAMANHO_MINIMO_SEGREDO) {
+            throw new IllegalArgumentException("O segredo dos tokens deve ter ao menos " + TAMANHO_MINIMO_SEGREDO + " bytes.");
+        }
+        this.segredo = segredo.clone();
+        this.validade = validade;
+        this.clock = clock;
+        this.objectMapper = objectMapper;
+        this.mac = ThreadLocal.withInitial(this::novoMac);
+    }
+
+    public String gerar(Usuario usuario) {
+        long agora = clock.instant().getEpochSecond();
+        ObjectNode claims = objectMapper.createObjectNode()
+                .put("sub", String.valueOf(usuario.getId()))
+                .put("nome", usuario.getNome())
+                .put("email", usuario.getEmail())
+                .put("iat", agora)
+                .put("exp", agora + validade.getSeconds());
+        String conteudo = CABECALHO + "." + base64(escrever(claims));
+        return conteudo + "." + base64(assinar(conteudo));
+    }
+
+    /**
+     * Retorna o usuario do token, ou vazio se o token estiver malformado, com assinatura invalida ou expirado.
+     */
+    public Optional<UsuarioAutenticado> validar(String token) {
+        int ponto = token.lastIndexOf('.');
+        if (ponto < 0 || !token.startsWith(CABECALHO + ".")) {
+            return Optional.empty();
+        }
+        String conteudo = token.substring(0, ponto);
+        try {
+            byte[] assinatura = Base64.getUrlDecoder().decode(token.substring(ponto + 1));
+            if (!MessageDigest.isEqual(assinatura, assinar(conteudo))) {
+                return Optional.empty();
+            }
+            JsonNode claims = objectMapper.readTree(
+                    Base64.getUrlDecoder().decode(conteudo.substring(CABECALHO.length() + 1)));
+            if (claims.path("exp").asLong() <= clock.instant().getEpochSecond()) {
+                return Optional.empty();
+            }
+            return Optional.of(new UsuarioAutenticado(Long.valueOf(claims.path("sub").asText()),
+                    claims.path("nome").textValue(), claims.path("email").textValue()));
+        } catch (IllegalArgumentException | IOException e) {
+            return Optional.empty();
+        }
+    }
+
+    private byte[] assinar(String conteudo) {
+        return mac.get().doFinal(conteudo.getBytes(StandardCharsets.US_ASCII));
+    }
+
+    private byte[] escrever(JsonNode claims) {
+        try {
+            return objectMapper.writeValueAsBytes(claims);
+        } catch (IOException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private Mac novoMac() {
+        try {
+            Mac instancia = Mac.getInstance("HmacSHA256");
+            instancia.init(new SecretKeySpec(segredo, "HmacSHA256"));
+            return instancia;
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static String base64(byte[] bytes) {
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(bytes);
+    }
+}
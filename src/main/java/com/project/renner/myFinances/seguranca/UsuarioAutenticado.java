@@ -0,0 +1,25 @@
+package com.project.renner.myFinances.seguranca;
+
+import com.project.renner.myFinances.model.Usuario;
+import lombok.*;
+
+/**
+ * Usuario identificado pelo token da requisicao, montado so com os dados assinados no token.
+ */
+@Getter
+@Builder
+@AllArgsConstructor
+@ToString
+@EqualsAndHashCode
+public class UsuarioAutenticado {
+    private final Long id;
+    private final String nome;
+    private final String email;
+
+    /**
+     * Referencia ao usuario para associar a lancamentos sem consultar o banco; nao traz a senha.
+     */
+    public Usuario toUsuario() {
+        return Usuario.builder().id(id).nome(nome).email(email).build();
+    }
+}
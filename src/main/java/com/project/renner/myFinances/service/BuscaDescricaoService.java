@@ -0,0 +1,16 @@
+package com.project.renner.myFinances.service;
+
+import com.project.renner.myFinances.model.Lancamento;
+import org.springframework.data.jpa.domain.Specification;
+
+/**
+ * Busca por trecho da descricao dos lancamentos de um usuario. A implementacao e escolhida pela
+ * propriedade {@code myfinances.busca.descricao}: {@code postgres} (indice pg_trgm) ou {@code memoria}.
+ */
+public interface BuscaDescricaoService {
+    Specification<Lancamento> filtrar(Long idUsuario, String trecho);
+
+    void indexar(Lancamento lancamento);
+
+    void remover(Long idUsuario, Long idLancamento);
+}
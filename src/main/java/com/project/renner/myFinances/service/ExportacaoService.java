@@ -0,0 +1,15 @@
+package com.project.renner.myFinances.service;
+
+import com.project.renner.myFinances.enums.FormatoExportacao;
+
+import java.io.IOException;
+import java.io.OutputStream;
+
+public interface ExportacaoService {
+    /**
+     * Escreve todos os lancamentos do usuario na saida, lendo-os do banco por cursor. A saida nao e fechada.
+     *
+     * @return quantidade de lancamentos exportados
+     */
+    long exportar(Long idUsuario, FormatoExportacao formato, OutputStream saida) throws IOException;
+}
@@ -0,0 +1,20 @@
+package com.project.renner.myFinances.service;
+
+import com.project.renner.myFinances.dto.ImportacaoDTO;
+import com.project.renner.myFinances.enums.FormatoExtrato;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.Charset;
+import java.util.Optional;
+
+public interface ImportacaoService {
+    /**
+     * Copia o extrato para um arquivo temporario e o importa em segundo plano, em blocos, como lancamentos
+     * do usuario. Retorna a importacao em andamento, que pode ser acompanhada por {@link #obterPorId(String)}.
+     */
+    ImportacaoDTO importar(Long idUsuario, FormatoExtrato formato, Charset charset, String nomeArquivo,
+                           InputStream conteudo) throws IOException;
+
+    Optional<ImportacaoDTO> obterPorId(String id);
+}
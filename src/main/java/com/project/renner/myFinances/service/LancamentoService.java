@@ -1,26 +1,111 @@
 package com.project.renner.myFinances.service;
 
+import com.project.renner.myFinances.dto.CursorLancamento;
+import com.project.renner.myFinances.dto.LancamentoDTO;
+import com.project.renner.myFinances.dto.ResumoMensalDTO;
+import com.project.renner.myFinances.dto.SaldoMensalDTO;
 import com.project.renner.myFinances.enums.StatusLancamento;
 import com.project.renner.myFinances.model.Lancamento;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 
 import java.math.BigDecimal;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
 public interface LancamentoService {
     Lancamento salvar(Lancamento lancamento);
 
+    /**
+     * Copia os valores para o lancamento carregado e devolve a entidade gerenciada.
+     *
+     * @throws com.project.renner.myFinances.exception.RegraNegocioException se o lancamento nao existir
+     * @throws com.project.renner.myFinances.exception.TransicaoStatusInvalidaException se o status informado nao
+     *         puder ser alcancado a partir do atual
+     * @throws org.springframework.orm.ObjectOptimisticLockingFailureException se a versao informada nao for a atual
+     */
     Lancamento atualizar(Lancamento lancamento);
 
+    /**
+     * Como {@link #atualizar(Lancamento)}; com {@code idUsuario}, somente se o lancamento pertencer a esse usuario.
+     *
+     * @throws com.project.renner.myFinances.exception.RegraNegocioException se o lancamento nao existir ou for de outro usuario
+     */
+    Lancamento atualizar(Lancamento lancamento, Long idUsuario);
+
     void deletar(Lancamento lancamento);
 
-    List<Lancamento>buscar(Lancamento lancamento);
+    /**
+     * Exclui o lancamento; com {@code idUsuario}, somente se pertencer a esse usuario.
+     *
+     * @return false se o lancamento nao existir ou for de outro usuario
+     */
+    boolean deletar(Long id, Long idUsuario);
+
+    Slice<LancamentoDTO> buscar(Lancamento lancamentoFiltro, CursorLancamento cursor, int tamanho);
+
+    /**
+     * Busca por pagina, ordenada por ano, mes, valor ou dataCadastro, sem consulta de contagem.
+     *
+     * @throws com.project.renner.myFinances.exception.RegraNegocioException se a ordenacao usar outro campo
+     */
+    Slice<LancamentoDTO> buscar(Lancamento lancamentoFiltro, Pageable pagina);
+
+    /**
+     * Como {@link #buscar(Lancamento, Pageable)}, com um total aproximado: sem filtro de descricao vem do
+     * resumo mensal; com descricao, de uma contagem limitada a 10000 lancamentos.
+     */
+    Page<LancamentoDTO> buscarComTotal(Lancamento lancamentoFiltro, Pageable pagina);
 
     void atualizarStatus(Lancamento lancamento, StatusLancamento statusLancamento);
 
+    /**
+     * Altera so o status do lancamento carregado, num UPDATE condicionado a versao. Pedir o status em que o lancamento
+     * ja esta nao e erro, para que repeticoes da mesma requisicao sejam inofensivas.
+     *
+     * @return false se o lancamento nao existir
+     * @throws com.project.renner.myFinances.exception.TransicaoStatusInvalidaException se o status atual nao permitir a transicao
+     */
+    boolean transicionarStatus(Long id, StatusLancamento novoStatus);
+
+    /**
+     * Como {@link #transicionarStatus(Long, StatusLancamento)}; com {@code idUsuario}, somente se o lancamento
+     * pertencer a esse usuario.
+     *
+     * @return false se o lancamento nao existir ou for de outro usuario
+     */
+    boolean transicionarStatus(Long id, StatusLancamento novoStatus, Long idUsuario);
+
+    /**
+     * Altera o status de varios lancamentos num unico UPDATE: os ids informados ou, sem ids, todos os do
+     * usuario do filtro que casarem com mes, ano e status do filtro. Somente lancamentos num status que
+     * permita a transicao sao alterados; o saldo nao depende do status e nao muda, o resumo mensal e movido
+     * por grupo.
+     *
+     * @return quantidade de lancamentos alterados
+     */
+    int transicionarStatus(Lancamento filtro, Collection<Long> ids, StatusLancamento novoStatus);
+
+    /**
+     * Aplica todas as regras de {@link com.project.renner.myFinances.validacao.ValidadorLancamento}.
+     *
+     * @throws com.project.renner.myFinances.exception.ValidacaoException com a mensagem da primeira regra violada
+     *         e o resultado com todas
+     */
     void validar(Lancamento lancamento);
 
     Optional<Lancamento> obterPorId(Long id);
 
+    Optional<LancamentoDTO> obterDTOPorId(Long id);
+
     BigDecimal obterSaldoPorUsuario(Long id);
+
+    List<SaldoMensalDTO> obterSaldosMensaisPorUsuario(Long id, Integer ano);
+
+    /**
+     * Totais do ano por mes, tipo e status, lidos do resumo mantido a cada escrita.
+     */
+    List<ResumoMensalDTO> obterResumoMensalPorUsuario(Long id, Integer ano);
 }
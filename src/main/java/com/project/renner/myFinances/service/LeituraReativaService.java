@@ -0,0 +1,27 @@
+package com.project.renner.myFinances.service;
+
+import com.project.renner.myFinances.dto.LancamentoDTO;
+import com.project.renner.myFinances.model.Lancamento;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.math.BigDecimal;
+
+/**
+ * Consultas de leitura sobre R2DBC, sem prender threads enquanto o banco responde. As escritas continuam
+ * no {@link LancamentoService}.
+ */
+public interface LeituraReativaService {
+
+    /**
+     * Lancamentos do usuario do filtro, por ano, mes e id. As linhas sao lidas do banco conforme o
+     * consumidor as pede.
+     */
+    Flux<LancamentoDTO> buscar(Lancamento lancamentoFiltro);
+
+    /**
+     * Saldo materializado do usuario ou, se ele ainda nao tiver movimento registrado, a soma dos lancamentos.
+     * Vazio se o usuario nao existir.
+     */
+    Mono<BigDecimal> obterSaldo(Long idUsuario);
+}
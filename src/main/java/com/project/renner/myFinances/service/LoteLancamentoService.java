@@ -0,0 +1,27 @@
+package com.project.renner.myFinances.service;
+
+import com.project.renner.myFinances.dto.LancamentoDTO;
+import com.project.renner.myFinances.dto.ResultadoLoteDTO;
+import com.project.renner.myFinances.model.Usuario;
+
+import java.util.Iterator;
+
+public interface LoteLancamentoService {
+    /**
+     * Valida e insere os lancamentos em blocos, cada um na sua transacao. Linhas invalidas ou de um bloco
+     * que falhou sao reportadas no resultado sem interromper as demais.
+     */
+    ResultadoLoteDTO salvar(Iterator<LancamentoDTO> lancamentos);
+
+    /**
+     * Igual a {@link #salvar(Iterator)}, acumulando no resultado informado, que pode ser consultado
+     * enquanto o lote ainda esta sendo gravado.
+     */
+    ResultadoLoteDTO salvar(Iterator<LancamentoDTO> lancamentos, ResultadoLoteDTO resultado);
+
+    /**
+     * Igual a {@link #salvar(Iterator)}, com todos os lancamentos do usuario informado: o usuario de cada
+     * linha e ignorado e nao ha consulta por usuario.
+     */
+    ResultadoLoteDTO salvar(Iterator<LancamentoDTO> lancamentos, Usuario usuario);
+}
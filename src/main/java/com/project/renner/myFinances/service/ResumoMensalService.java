@@ -0,0 +1,31 @@
+package com.project.renner.myFinances.service;
+
+import com.project.renner.myFinances.dto.ResumoMensalDTO;
+import com.project.renner.myFinances.model.ResumoMensalId;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+public interface ResumoMensalService {
+    List<ResumoMensalDTO> obterResumo(Long idUsuario, Integer ano);
+
+    /**
+     * Quantidade de lancamentos do usuario, lida do resumo; ano e mes sao opcionais.
+     */
+    long contarLancamentos(Long idUsuario, Integer ano, Integer mes);
+
+    /**
+     * Assim como no saldo, os registros devem ser feitos na transacao da escrita e antes dela: a primeira
+     * movimentacao de uma chave inicializa a linha a partir dos lancamentos ja gravados.
+     */
+    void registrarInclusao(ResumoMensalId chave, BigDecimal valor, long quantidade);
+
+    void registrarExclusao(ResumoMensalId chave, BigDecimal valor, long quantidade);
+
+    /**
+     * Apaga e recalcula todas as linhas; usado para preencher o resumo do historico existente.
+     *
+     * @return quantidade de linhas gravadas
+     */
+    int reconstruir();
+}
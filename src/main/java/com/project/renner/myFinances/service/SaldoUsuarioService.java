@@ -0,0 +1,36 @@
+package com.project.renner.myFinances.service;
+
+import com.project.renner.myFinances.dto.DivergenciaSaldoDTO;
+import com.project.renner.myFinances.dto.SaldoMensalDTO;
+import com.project.renner.myFinances.enums.TipoLancamento;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+public interface SaldoUsuarioService {
+    /**
+     * Saldo do usuario, guardado em cache ate o proximo movimento dele.
+     */
+    BigDecimal obterSaldo(Long idUsuario);
+
+    /**
+     * Receitas, despesas e saldo de cada mes do ano, em cache por usuario ate o proximo movimento dele.
+     */
+    List<SaldoMensalDTO> obterSaldosMensais(Long idUsuario, Integer ano);
+
+    /**
+     * Os registros de movimento devem ser feitos na transacao da escrita e antes dela, pois o primeiro
+     * movimento de um usuario inicializa o saldo a partir dos lancamentos ja gravados.
+     */
+    void registrarInclusao(Long idUsuario, TipoLancamento tipo, BigDecimal valor);
+
+    void registrarExclusao(Long idUsuario, TipoLancamento tipo, BigDecimal valor);
+
+    /**
+     * Descarta os saldos mensais em cache do usuario quando um lancamento muda de mes ou de ano sem que o
+     * saldo total mude.
+     */
+    void registrarAlteracaoDePeriodo(Long idUsuario);
+
+    List<DivergenciaSaldoDTO> reconciliar();
+}
@@ -3,9 +3,17 @@ package com.project.renner.myFinances.service;
 import com.project.renner.myFinances.model.Usuario;
 
 import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
 
 public interface UsuarioService {
     Usuario autenticar(String email, String senha);
+
+    /**
+     * Executa {@link #autenticar(String, String)} no executor de autenticacao, liberando a thread da requisicao.
+     *
+     * @throws org.springframework.core.task.TaskRejectedException se o executor estiver saturado
+     */
+    CompletableFuture<Usuario> autenticarAssincrono(String email, String senha);
     Usuario salvarUsuario(Usuario usuario);
     void validarEmail(String email);
 
@@ -0,0 +1,160 @@
+package com.project.renner.myFinances.service.impl;
+
+import com.project.renner.myFinances.model.Lancamento;
+import com.project.renner.myFinances.repository.LancamentoRepository;
+import com.project.renner.myFinances.repository.projection.DescricaoLancamento;
+import com.project.renner.myFinances.service.BuscaDescricaoService;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Indice invertido de trigramas em memoria, para H2 e testes. O indice de cada usuario e carregado
+ * na primeira busca e depois acompanha as escritas confirmadas.
+ */
+@Service
+@ConditionalOnProperty(name = "myfinances.busca.descricao", havingValue = "memoria")
+public class BuscaDescricaoMemoriaServiceImpl implements BuscaDescricaoService {
+
+    private static final int TAMANHO_NGRAMA = 3;
+
+    private final LancamentoRepository repository;
+
+    private final Map<Long, IndiceUsuario> indices = new ConcurrentHashMap<>();
+
+    public BuscaDescricaoMemoriaServiceImpl(LancamentoRepository repository) {
+        this.repository = repository;
+    }
+
+    @Override
+    public Specification<Lancamento> filtrar(Long idUsuario, String trecho) {
+        if (trecho == null || trecho.trim().isEmpty()) {
+            return null;
+        }
+        Set<Long> ids = indices.computeIfAbsent(idUsuario, this::carregar).buscar(normalizar(trecho));
+        return (root, query, cb) -> ids.isEmpty() ? cb.disjunction() : root.get("id").in(ids);
+    }
+
+    @Override
+    public void indexar(Lancamento lancamento) {
+        if (lancamento.getUsuario() == null || lancamento.getId() == null) {
+            return;
+        }
+        Long idUsuario = lancamento.getUsuario().getId();
+        Long id = lancamento.getId();
+        String descricao = lancamento.getDescricao();
+        aposConfirmar(() -> indices.computeIfPresent(idUsuario, (chave, indice) -> {
+            indice.adicionar(id, descricao);
+            return indice;
+        }));
+    }
+
+    @Override
+    public void remover(Long idUsuario, Long idLancamento) {
+        if (idUsuario == null) {
+            return;
+        }
+        aposConfirmar(() -> indices.computeIfPresent(idUsuario, (chave, indice) -> {
+            indice.remover(idLancamento);
+            return indice;
+        }));
+    }
+
+    private IndiceUsuario carregar(Long idUsuario) {
+        IndiceUsuario indice = new IndiceUsuario();
+        for (DescricaoLancamento lancamento : repository.findDescricoesByUsuarioId(idUsuario)) {
+            indice.adicionar(lancamento.getId(), lancamento.getDescricao());
+        }
+        return indice;
+    }
+
+    private static void aposConfirmar(Runnable acao) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            acao.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                acao.run();
+            }
+        });
+    }
+
+    static String normalizar(String texto) {
+        return texto == null ? "" : texto.trim().toLowerCase();
+    }
+
+    static final class IndiceUsuario {
+        private final Map<Long, String> descricoes = new HashMap<>();
+        private final Map<String, Set<Long>> postagens = new HashMap<>();
+
+        synchronized void adicionar(Long id, String descricao) {
+            remover(id);
+            String normalizada = normalizar(descricao);
+            descricoes.put(id, normalizada);
+            for (String ngrama : ngramas(normalizada)) {
+                postagens.computeIfAbsent(ngrama, chave -> new HashSet<>()).add(id);
+            }
+        }
+
+        synchronized void remover(Long id) {
+            String anterior = descricoes.remove(id);
+            if (anterior == null) {
+                return;
+            }
+            for (String ngrama : ngramas(anterior)) {
+                Set<Long> ids = postagens.get(ngrama);
+                if (ids != null && ids.remove(id) && ids.isEmpty()) {
+                    postagens.remove(ngrama);
+                }
+            }
+        }
+
+        synchronized Set<Long> buscar(String trecho) {
+            Set<Long> resultado = new HashSet<>();
+            if (trecho.length() < TAMANHO_NGRAMA) {
+                descricoes.forEach((id, descricao) -> {
+                    if (descricao.contains(trecho)) {
+                        resultado.add(id);
+                    }
+                });
+                return resultado;
+            }
+            // parte da menor lista de postagens e confirma o trecho inteiro em cada candidato
+            Set<Long> candidatos = null;
+            for (String ngrama : ngramas(trecho)) {
+                Set<Long> ids = postagens.get(ngrama);
+                if (ids == null) {
+                    return Collections.emptySet();
+                }
+                if (candidatos == null || ids.size() < candidatos.size()) {
+                    candidatos = ids;
+                }
+            }
+            for (Long id : candidatos) {
+                if (descricoes.get(id).contains(trecho)) {
+                    resultado.add(id);
+                }
+            }
+            return resultado;
+        }
+
+        private static Set<String> ngramas(String texto) {
+            Set<String> ngramas = new HashSet<>();
+            for (int i = 0; i + TAMANHO_NGRAMA <= texto.length(); i++) {
+                ngramas.add(texto.substring(i, i + TAMANHO_NGRAMA));
+            }
+            return ngramas;
+        }
+    }
+}
@@ -0,0 +1,30 @@
+package com.project.renner.myFinances.service.impl;
+
+import com.project.renner.myFinances.model.Lancamento;
+import com.project.renner.myFinances.repository.LancamentoSpecifications;
+import com.project.renner.myFinances.service.BuscaDescricaoService;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.stereotype.Service;
+
+/**
+ * Delega ao banco o {@code lower(descricao) LIKE}, atendido pelo indice GIN de trigramas
+ * criado em db/postgresql/003-indice-descricao-trigrama.sql. Nao mantem estado proprio.
+ */
+@Service
+@ConditionalOnProperty(name = "myfinances.busca.descricao", havingValue = "postgres", matchIfMissing = true)
+public class BuscaDescricaoPostgresServiceImpl implements BuscaDescricaoService {
+
+    @Override
+    public Specification<Lancamento> filtrar(Long idUsuario, String trecho) {
+        return LancamentoSpecifications.descricaoContendo(trecho);
+    }
+
+    @Override
+    public void indexar(Lancamento lancamento) {
+    }
+
+    @Override
+    public void remover(Long idUsuario, Long idLancamento) {
+    }
+}
@@ -0,0 +1,90 @@
+package com.project.renner.myFinances.service.impl;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.project.renner.myFinances.dto.LancamentoDTO;
+import com.project.renner.myFinances.enums.FormatoExportacao;
+import com.project.renner.myFinances.repository.LancamentoRepository;
+import com.project.renner.myFinances.service.ExportacaoService;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.Iterator;
+import java.util.stream.Stream;
+
+@Service
+public class ExportacaoServiceImpl implements ExportacaoService {
+    private static final char SEPARADOR_CSV = ';';
+
+    private final LancamentoRepository repository;
+
+    private final ObjectWriter writerJson;
+
+    public ExportacaoServiceImpl(LancamentoRepository repository, ObjectMapper objectMapper) {
+        this.repository = repository;
+        this.writerJson = objectMapper.writerFor(LancamentoDTO.class)
+                .without(JsonGenerator.Feature.AUTO_CLOSE_TARGET)
+                .without(JsonGenerator.Feature.FLUSH_PASSED_TO_STREAM);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public long exportar(Long idUsuario, FormatoExportacao formato, OutputStream saida) throws IOException {
+        // o writer so e esvaziado, nunca fechado: quem abriu a saida decide quando fecha-la
+        Writer writer = new BufferedWriter(new OutputStreamWriter(saida, StandardCharsets.UTF_8));
+        long quantidade = 0;
+        try (Stream<LancamentoDTO> lancamentos = repository.percorrerPorUsuario(idUsuario)) {
+            if (formato == FormatoExportacao.CSV) {
+                writer.write("id;descricao;mes;ano;valor;tipo;status\n");
+            }
+            Iterator<LancamentoDTO> iterator = lancamentos.iterator();
+            while (iterator.hasNext()) {
+                LancamentoDTO lancamento = iterator.next();
+                if (formato == FormatoExportacao.CSV) {
+                    escreverCsv(writer, lancamento);
+                } else {
+                    writerJson.writeValue(writer, lancamento);
+                    writer.write('\n');
+                }
+                quantidade++;
+            }
+        }
+        writer.flush();
+        return quantidade;
+    }
+
+    private static void escreverCsv(Writer writer, LancamentoDTO lancamento) throws IOException {
+        writer.write(String.valueOf(lancamento.getId()));
+        writer.write(SEPARADOR_CSV);
+        writer.write(campoCsv(lancamento.getDescricao()));
+        writer.write(SEPARADOR_CSV);
+        writer.write(String.valueOf(lancamento.getMes()));
+        writer.write(SEPARADOR_CSV);
+        writer.write(String.valueOf(lancamento.getAno()));
+        writer.write(SEPARADOR_CSV);
+        writer.write(lancamento.getValor() == null ? "" : lancamento.getValor().toPlainString());
+        writer.write(SEPARADOR_CSV);
+        writer.write(campoCsv(lancamento.getTipo()));
+        writer.write(SEPARADOR_CSV);
+        writer.write(campoCsv(lancamento.getStatus()));
+        writer.write('\n');
+    }
+
+    private static String campoCsv(String valor) {
+        if (valor == null) {
+            return "";
+        }
+        if (valor.indexOf(SEPARADOR_CSV) < 0 && valor.indexOf('"') < 0 && valor.indexOf('\n') < 0
+                && valor.indexOf('\r') < 0) {
+            return valor;
+        }
+        return '"' + valor.replace("\"", "\"\"") + '"';
+    }
+}
@@ -0,0 +1,126 @@
+package com.project.renner.myFinances.service.impl;
+
+import com.project.renner.myFinances.dto.ImportacaoDTO;
+import com.project.renner.myFinances.dto.ResultadoLoteDTO;
+import com.project.renner.myFinances.enums.FormatoExtrato;
+import com.project.renner.myFinances.enums.StatusImportacao;
+import com.project.renner.myFinances.exception.RegraNegocioException;
+import com.project.renner.myFinances.importacao.LeitorExtrato;
+import com.project.renner.myFinances.service.ImportacaoService;
+import com.project.renner.myFinances.service.LoteLancamentoService;
+import com.project.renner.myFinances.service.UsuarioService;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.task.TaskExecutionAutoConfiguration;
+import org.springframework.core.task.TaskExecutor;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.Charset;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.time.LocalDateTime;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+@Slf4j
+@Service
+public class ImportacaoServiceImpl implements ImportacaoService {
+
+    private final LoteLancamentoService loteLancamentoService;
+
+    private final UsuarioService usuarioService;
+
+    private final TaskExecutor taskExecutor;
+
+    private final long retencaoMinutos;
+
+    private final Map<String, ImportacaoDTO> importacoes = new ConcurrentHashMap<>();
+
+    public ImportacaoServiceImpl(LoteLancamentoService loteLancamentoService, UsuarioService usuarioService,
+                                 @Qualifier(TaskExecutionAutoConfiguration.APPLICATION_TASK_EXECUTOR_BEAN_NAME)
+                                         TaskExecutor taskExecutor,
+                                 @Value("${myfinances.importacao.retencao-minutos:60}") long retencaoMinutos) {
+        this.loteLancamentoService = loteLancamentoService;
+        this.usuarioService = usuarioService;
+        this.taskExecutor = taskExecutor;
+        this.retencaoMinutos = retencaoMinutos;
+    }
+
+    @Override
+    public ImportacaoDTO importar(Long idUsuario, FormatoExtrato formato, Charset charset, String nomeArquivo,
+                                  InputStream conteudo) throws IOException {
+        if (!usuarioService.obterPorId(idUsuario).isPresent()) {
+            throw new RegraNegocioException("Usuario nao encontrado com o Id informado.");
+        }
+        descartarEncerradas();
+
+        // a requisicao termina antes da importacao, entao o conteudo e lido de uma copia em disco
+        Path arquivo = Files.createTempFile("importacao-", "." + formato.name().toLowerCase());
+        try {
+            Files.copy(conteudo, arquivo, StandardCopyOption.REPLACE_EXISTING);
+        } catch (IOException e) {
+            apagar(arquivo);
+            throw e;
+        }
+
+        ImportacaoDTO importacao = ImportacaoDTO.builder()
+                .id(UUID.randomUUID().toString())
+                .usuario(idUsuario)
+                .arquivo(nomeArquivo)
+                .formato(formato)
+                .status(StatusImportacao.EM_ANDAMENTO)
+                .inicio(LocalDateTime.now())
+                .resultado(new ResultadoLoteDTO())
+                .build();
+        importacoes.put(importacao.getId(), importacao);
+        try {
+            taskExecutor.execute(() -> processar(importacao, arquivo, charset == null ? formato.getCharsetPadrao() : charset));
+        } catch (TaskRejectedException e) {
+            importacoes.remove(importacao.getId());
+            apagar(arquivo);
+            throw new RegraNegocioException("Muitas importacoes em andamento. Tente novamente mais tarde.");
+        }
+        return importacao;
+    }
+
+    @Override
+    public Optional<ImportacaoDTO> obterPorId(String id) {
+        return Optional.ofNullable(importacoes.get(id));
+    }
+
+    private void processar(ImportacaoDTO importacao, Path arquivo, Charset charset) {
+        StatusImportacao status = StatusImportacao.FALHOU;
+        try (LeitorExtrato leitor = LeitorExtrato.abrir(importacao.getFormato(),
+                Files.newBufferedReader(arquivo, charset), importacao.getUsuario())) {
+            loteLancamentoService.salvar(leitor, importacao.getResultado());
+            status = StatusImportacao.CONCLUIDA;
+        } catch (IOException | RuntimeException e) {
+            log.error("Falha na importacao {} do arquivo {}", importacao.getId(), importacao.getArquivo(), e);
+            importacao.setMensagem(e.getMessage());
+        } finally {
+            apagar(arquivo);
+            importacao.setFim(LocalDateTime.now());
+            importacao.setStatus(status);
+        }
+    }
+
+    private void descartarEncerradas() {
+        LocalDateTime limite = LocalDateTime.now().minusMinutes(retencaoMinutos);
+        importacoes.values().removeIf(importacao -> importacao.getFim() != null && importacao.getFim().isBefore(limite));
+    }
+
+    private static void apagar(Path arquivo) {
+        try {
+            Files.deleteIfExists(arquivo);
+        } catch (IOException e) {
+            log.warn("Nao foi possivel apagar o arquivo temporario {}", arquivo, e);
+        }
+    }
+}
@@ -1,92 +1,349 @@
 package com.project.renner.myFinances.service.impl;
 
+import com.project.renner.myFinances.dto.CursorLancamento;
+import com.project.renner.myFinances.dto.LancamentoDTO;
+import com.project.renner.myFinances.dto.ResumoMensalDTO;
+import com.project.renner.myFinances.dto.SaldoMensalDTO;
 import com.project.renner.myFinances.enums.StatusLancamento;
-import com.project.renner.myFinances.enums.TipoLancamento;
 import com.project.renner.myFinances.exception.RegraNegocioException;
+import com.project.renner.myFinances.exception.TransicaoStatusInvalidaException;
+import com.project.renner.myFinances.exception.ValidacaoException;
 import com.project.renner.myFinances.model.Lancamento;
+import com.project.renner.myFinances.model.ResumoMensal;
+import com.project.renner.myFinances.model.ResumoMensalId;
 import com.project.renner.myFinances.repository.LancamentoRepository;
+import com.project.renner.myFinances.repository.LancamentoSpecifications;
+import com.project.renner.myFinances.repository.projection.ValoresSaldoLancamento;
+import com.project.renner.myFinances.service.BuscaDescricaoService;
 import com.project.renner.myFinances.service.LancamentoService;
+import com.project.renner.myFinances.service.ResumoMensalService;
+import com.project.renner.myFinances.service.SaldoUsuarioService;
+import com.project.renner.myFinances.validacao.ResultadoValidacao;
+import com.project.renner.myFinances.validacao.ValidadorLancamento;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.data.domain.Example;
-import org.springframework.data.domain.ExampleMatcher;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.math.BigDecimal;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.EnumSet;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Objects;
 import java.util.Optional;
+import java.util.Set;
 
 @Service
 public class LancamentoServiceImpl implements LancamentoService {
 
+    private static final Sort ORDEM_CURSOR = Sort.by("ano", "mes", "id");
+
+    private static final Set<String> CAMPOS_ORDENACAO = new HashSet<>(Arrays.asList("ano", "mes", "valor", "dataCadastro"));
+
+    /**
+     * Teto da contagem de uma busca por descricao, que nao pode ser respondida pelo resumo mensal.
+     */
+    static final int LIMITE_CONTAGEM = 10000;
+
+    /**
+     * Limite de ids numa alteracao de status em massa, para manter o IN do UPDATE num tamanho razoavel.
+     */
+    private static final int MAXIMO_IDS_POR_ALTERACAO = 1000;
+
     @Autowired
     private LancamentoRepository repository;
 
-    public LancamentoServiceImpl(LancamentoRepository repository){
+    @Autowired
+    private SaldoUsuarioService saldoUsuarioService;
+
+    @Autowired
+    private BuscaDescricaoService buscaDescricaoService;
+
+    @Autowired
+    private ResumoMensalService resumoMensalService;
+
+    public LancamentoServiceImpl(LancamentoRepository repository, SaldoUsuarioService saldoUsuarioService,
+                                 BuscaDescricaoService buscaDescricaoService, ResumoMensalService resumoMensalService){
         this.repository = repository;
+        this.saldoUsuarioService = saldoUsuarioService;
+        this.buscaDescricaoService = buscaDescricaoService;
+        this.resumoMensalService = resumoMensalService;
     }
     @Override
     @Transactional
     public Lancamento salvar(Lancamento lancamento) {
         validar(lancamento);
         lancamento.setStatus(StatusLancamento.PENDENTE);
-        return repository.save(lancamento);
+        saldoUsuarioService.registrarInclusao(idUsuario(lancamento), lancamento.getTipo(), lancamento.getValor());
+        resumoMensalService.registrarInclusao(chaveResumo(lancamento), lancamento.getValor(), 1);
+        // com id por sequencia o insert ficaria para o commit; grava agora para que uma atualizacao
+        // na mesma transacao encontre os valores anteriores no banco
+        Lancamento lancamentoSalvo = repository.saveAndFlush(lancamento);
+        buscaDescricaoService.indexar(lancamentoSalvo);
+        return lancamentoSalvo;
     }
 
+    /**
+     * Carrega o lancamento uma unica vez (cache de segundo nivel, contexto de persistencia ou um SELECT) e
+     * copia os valores recebidos para a entidade gerenciada: o saldo e o resumo sao calculados a partir dela
+     * e o flush gera so o UPDATE condicionado a versao, sem o SELECT do merge.
+     */
     @Override
     @Transactional
     public Lancamento atualizar(Lancamento lancamento) {
+        return atualizar(lancamento, null);
+    }
+
+    @Override
+    @Transactional
+    public Lancamento atualizar(Lancamento lancamento, Long idUsuario) {
         Objects.requireNonNull(lancamento.getId());
         validar(lancamento);
-        return repository.save(lancamento);
+        Lancamento atual = repository.findById(lancamento.getId())
+                .filter(encontrado -> idUsuario == null || idUsuario.equals(idUsuario(encontrado)))
+                .orElseThrow(() -> new RegraNegocioException("Lancamento nao encontrado na base de dados."));
+        if(lancamento.getVersao() != null && !lancamento.getVersao().equals(atual.getVersao())){
+            throw new ObjectOptimisticLockingFailureException(Lancamento.class, lancamento.getId());
+        }
+        // se o chamador ja alterou a propria entidade gerenciada, os valores anteriores so estao na base
+        ValoresSaldoLancamento anterior = atual == lancamento
+                ? repository.obterValoresSaldo(lancamento.getId()).orElseGet(() -> ValoresSaldoLancamento.de(atual))
+                : ValoresSaldoLancamento.de(atual);
+        if(lancamento.getStatus() == null){
+            lancamento.setStatus(anterior.getStatus());
+        }else if(lancamento.getStatus() != anterior.getStatus()
+                && !lancamento.getStatus().getOrigensPermitidas().contains(anterior.getStatus())){
+            throw new TransicaoStatusInvalidaException(anterior.getStatus(), lancamento.getStatus());
+        }
+        if(lancamento.getDataCadastro() == null){
+            lancamento.setDataCadastro(atual.getDataCadastro());
+        }
+        if(alteraSaldo(anterior, lancamento)){
+            saldoUsuarioService.registrarExclusao(anterior.getIdUsuario(), anterior.getTipo(), anterior.getValor());
+            saldoUsuarioService.registrarInclusao(idUsuario(lancamento), lancamento.getTipo(), lancamento.getValor());
+        }else if(alteraPeriodo(anterior, lancamento)){
+            // o saldo total e o mesmo, mas o valor passou para outro mes
+            saldoUsuarioService.registrarAlteracaoDePeriodo(idUsuario(lancamento));
+        }
+        if(alteraResumo(anterior, lancamento)){
+            resumoMensalService.registrarExclusao(anterior.getChaveResumo(), anterior.getValor(), 1);
+            resumoMensalService.registrarInclusao(chaveResumo(lancamento), lancamento.getValor(), 1);
+        }
+        if(!Objects.equals(anterior.getIdUsuario(), idUsuario(lancamento))){
+            buscaDescricaoService.remover(anterior.getIdUsuario(), lancamento.getId());
+        }
+        atual.setDescricao(lancamento.getDescricao());
+        atual.setMes(lancamento.getMes());
+        atual.setAno(lancamento.getAno());
+        atual.setValor(lancamento.getValor());
+        atual.setUsuario(lancamento.getUsuario());
+        atual.setTipo(lancamento.getTipo());
+        atual.setStatus(lancamento.getStatus());
+        atual.setDataCadastro(lancamento.getDataCadastro());
+        buscaDescricaoService.indexar(atual);
+        return atual;
     }
 
     @Override
     @Transactional
     public void deletar(Lancamento lancamento) {
         Objects.requireNonNull(lancamento.getId());
+        deletar(lancamento.getId(), null);
+    }
+
+    /**
+     * Remove a entidade carregada, e nao um DELETE em massa por JPQL, para que o cache de segundo nivel
+     * descarte so esse lancamento e nao a regiao inteira.
+     */
+    @Override
+    @Transactional
+    public boolean deletar(Long id, Long idUsuario) {
+        Optional<Lancamento> encontrado = repository.findById(id)
+                .filter(lancamento -> idUsuario == null || idUsuario.equals(idUsuario(lancamento)));
+        if(!encontrado.isPresent()){
+            return false;
+        }
+        Lancamento lancamento = encontrado.get();
+        saldoUsuarioService.registrarExclusao(idUsuario(lancamento), lancamento.getTipo(), lancamento.getValor());
+        resumoMensalService.registrarExclusao(chaveResumo(lancamento), lancamento.getValor(), 1);
+        buscaDescricaoService.remover(idUsuario(lancamento), lancamento.getId());
         repository.delete(lancamento);
+        return true;
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public Slice<LancamentoDTO> buscar(Lancamento lancamentoFiltro, CursorLancamento cursor, int tamanho) {
+        Specification<Lancamento> filtro = filtroBusca(lancamentoFiltro)
+                .and(LancamentoSpecifications.aposCursor(cursor));
+
+        List<LancamentoDTO> lancamentos = repository.buscar(filtro, ORDEM_CURSOR, tamanho + 1);
+        boolean temProximo = lancamentos.size() > tamanho;
+        if(temProximo){
+            lancamentos = lancamentos.subList(0, tamanho);
+        }
+        return new SliceImpl<>(lancamentos, PageRequest.of(0, tamanho, ORDEM_CURSOR), temProximo);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public Slice<LancamentoDTO> buscar(Lancamento lancamentoFiltro, Pageable pagina) {
+        Sort ordem = ordenacao(pagina.getSort());
+        List<LancamentoDTO> lancamentos = repository.buscar(filtroBusca(lancamentoFiltro), ordem, pagina.getOffset(),
+                pagina.getPageSize() + 1);
+        boolean temProximo = lancamentos.size() > pagina.getPageSize();
+        if(temProximo){
+            lancamentos = lancamentos.subList(0, pagina.getPageSize());
+        }
+        return new SliceImpl<>(lancamentos, PageRequest.of(pagina.getPageNumber(), pagina.getPageSize(), ordem), temProximo);
     }
 
     @Override
     @Transactional(readOnly = true)
-    public List<Lancamento> buscar(Lancamento lancamentoFiltro) {
-        Example example = Example.of(lancamentoFiltro,
-                ExampleMatcher.matching()
-                        .withIgnoreCase()
-                        .withStringMatcher(ExampleMatcher.StringMatcher.CONTAINING));
-        return repository.findAll(example);
+    public Page<LancamentoDTO> buscarComTotal(Lancamento lancamentoFiltro, Pageable pagina) {
+        Slice<LancamentoDTO> lancamentos = buscar(lancamentoFiltro, pagina);
+        long lidos = pagina.getOffset() + lancamentos.getNumberOfElements();
+        long total;
+        if(!lancamentos.hasNext() && (lancamentos.hasContent() || pagina.getOffset() == 0)){
+            // ultima pagina: o total ja e conhecido
+            total = lidos;
+        }else if(lancamentoFiltro.getDescricao() == null || lancamentoFiltro.getDescricao().trim().isEmpty()){
+            total = resumoMensalService.contarLancamentos(lancamentoFiltro.getUsuario().getId(),
+                    lancamentoFiltro.getAno(), lancamentoFiltro.getMes());
+        }else{
+            total = repository.contar(filtroBusca(lancamentoFiltro), LIMITE_CONTAGEM);
+        }
+        // o total estimado nunca fica abaixo do que ja foi lido
+        total = Math.max(total, lancamentos.hasNext() ? lidos + 1 : lidos);
+        return new PageImpl<>(lancamentos.getContent(), lancamentos.getPageable(), total);
+    }
+
+    private Specification<Lancamento> filtroBusca(Lancamento lancamentoFiltro) {
+        Objects.requireNonNull(lancamentoFiltro.getUsuario());
+        return Specification
+                .where(LancamentoSpecifications.doUsuario(lancamentoFiltro.getUsuario().getId()))
+                .and(LancamentoSpecifications.doAno(lancamentoFiltro.getAno()))
+                .and(LancamentoSpecifications.doMes(lancamentoFiltro.getMes()))
+                .and(buscaDescricaoService.filtrar(lancamentoFiltro.getUsuario().getId(), lancamentoFiltro.getDescricao()));
+    }
+
+    /**
+     * Sem ordenacao, usa a ordem do indice (ano, mes, id); com ordenacao, o id desempata para que as paginas
+     * nao repitam nem pulem lancamentos.
+     */
+    private Sort ordenacao(Sort ordem) {
+        if(ordem.isUnsorted()){
+            return ORDEM_CURSOR;
+        }
+        for(Sort.Order campo : ordem){
+            if(!CAMPOS_ORDENACAO.contains(campo.getProperty())){
+                throw new RegraNegocioException("Ordenacao invalida: " + campo.getProperty()
+                        + ". Ordene por ano, mes, valor ou dataCadastro.");
+            }
+        }
+        return ordem.and(Sort.by("id"));
     }
 
     @Override
+    @Transactional
     public void atualizarStatus(Lancamento lancamento, StatusLancamento statusLancamento) {
         lancamento.setStatus(statusLancamento);
         atualizar(lancamento);
     }
 
     @Override
-    public void validar(Lancamento lancamento) {
-        if(lancamento.getDescricao() == null || lancamento.getDescricao().trim().equals("")){
-            throw new RegraNegocioException("informe uma Descricao valida.");
-        }
+    @Transactional
+    public boolean transicionarStatus(Long id, StatusLancamento novoStatus) {
+        return transicionarStatus(id, novoStatus, null);
+    }
 
-        if(lancamento.getMes() == null || lancamento.getMes() < 1 || lancamento.getMes() > 12){
-            throw new RegraNegocioException("Informe um Mes valido");
+    @Override
+    @Transactional
+    public boolean transicionarStatus(Long id, StatusLancamento novoStatus, Long idUsuario) {
+        Optional<Lancamento> encontrado = repository.findById(id)
+                .filter(lancamento -> idUsuario == null || idUsuario.equals(idUsuario(lancamento)));
+        if(!encontrado.isPresent()){
+            return false;
         }
-
-        if(lancamento.getAno() == null || lancamento.getAno().toString().length() != 4){
-            throw new RegraNegocioException("Informe um Ano valido.");
+        Lancamento lancamento = encontrado.get();
+        StatusLancamento statusAtual = lancamento.getStatus();
+        if(statusAtual == novoStatus){
+            return true;
+        }
+        if(!novoStatus.getOrigensPermitidas().contains(statusAtual)){
+            throw new TransicaoStatusInvalidaException(statusAtual, novoStatus);
         }
+        ResumoMensalId chave = chaveResumo(lancamento);
+        resumoMensalService.registrarExclusao(chave, lancamento.getValor(), 1);
+        resumoMensalService.registrarInclusao(chave.comStatus(novoStatus), lancamento.getValor(), 1);
+        // altera a entidade carregada, e nao um UPDATE em massa por JPQL, para que o cache de segundo nivel
+        // descarte so esse lancamento; o flush aqui faz o conflito de versao aparecer antes do commit
+        lancamento.setStatus(novoStatus);
+        repository.flush();
+        return true;
+    }
 
-        if(lancamento.getUsuario() == null || lancamento.getUsuario().getId() == null){
-            throw new RegraNegocioException("Informe um usuario");
+    @Override
+    @Transactional
+    public int transicionarStatus(Lancamento filtro, Collection<Long> ids, StatusLancamento novoStatus) {
+        Objects.requireNonNull(novoStatus);
+        boolean porIds = ids != null && !ids.isEmpty();
+        if(!porIds && idUsuario(filtro) == null){
+            throw new RegraNegocioException("Informe os lancamentos ou um usuario");
         }
-        if(lancamento.getValor() == null || lancamento.getValor().compareTo(BigDecimal.ZERO) < 1){
-            throw new RegraNegocioException("Informe um Valor valido.");
+        if(porIds && ids.size() > MAXIMO_IDS_POR_ALTERACAO){
+            throw new RegraNegocioException("Informe no maximo " + MAXIMO_IDS_POR_ALTERACAO + " lancamentos");
         }
-        if (lancamento.getTipo() == null){
-            throw new RegraNegocioException("Informe um Tipo de Lancamento");
+        Set<StatusLancamento> origens = EnumSet.noneOf(StatusLancamento.class);
+        origens.addAll(novoStatus.getOrigensPermitidas());
+        if(filtro.getStatus() != null){
+            if(!origens.contains(filtro.getStatus())){
+                throw new TransicaoStatusInvalidaException(filtro.getStatus(), novoStatus);
+            }
+            origens.retainAll(EnumSet.of(filtro.getStatus()));
+        }
+        if(origens.isEmpty()){
+            return 0;
+        }
+        Specification<Lancamento> alvo = Specification
+                .where(LancamentoSpecifications.comIds(ids))
+                .and(LancamentoSpecifications.comStatus(origens))
+                .and(LancamentoSpecifications.doAno(filtro.getAno()))
+                .and(LancamentoSpecifications.doMes(filtro.getMes()));
+        if(idUsuario(filtro) != null){
+            alvo = alvo.and(LancamentoSpecifications.doUsuario(idUsuario(filtro)));
+        }
+        // o resumo e movido por grupo (usuario, ano, mes, tipo, status), nao por lancamento
+        long esperados = 0;
+        for(ResumoMensal grupo : repository.agruparPorResumoMensal(alvo)){
+            resumoMensalService.registrarExclusao(grupo.getChave(), grupo.getValor(), grupo.getQuantidade());
+            resumoMensalService.registrarInclusao(grupo.getChave().comStatus(novoStatus), grupo.getValor(),
+                    grupo.getQuantidade());
+            esperados += grupo.getQuantidade();
+        }
+        int atualizados = repository.atualizarStatus(alvo, novoStatus);
+        if(atualizados != esperados){
+            // outra transacao alterou parte dos lancamentos entre o agrupamento e o UPDATE
+            throw new ObjectOptimisticLockingFailureException(Lancamento.class, ids);
+        }
+        return atualizados;
+    }
+
+    @Override
+    public void validar(Lancamento lancamento) {
+        ResultadoValidacao resultado = ValidadorLancamento.validar(lancamento);
+        if(!resultado.isValido()){
+            throw new ValidacaoException(resultado);
         }
     }
 
@@ -95,18 +352,54 @@ public class LancamentoServiceImpl implements LancamentoService {
         return repository.findById(id);
     }
 
+    @Override
+    @Transactional(readOnly = true)
+    public Optional<LancamentoDTO> obterDTOPorId(Long id) {
+        return repository.obterDTOPorId(id);
+    }
+
     @Override
     @Transactional(readOnly = true)
     public BigDecimal obterSaldoPorUsuario(Long id) {
-        BigDecimal receitas = repository.obterSaldoPorTipoLancamentoUsuario(id, TipoLancamento.RECEITA);
-        BigDecimal  despesa = repository.obterSaldoPorTipoLancamentoUsuario(id, TipoLancamento.DESPESA);
-        if(receitas == null){
-            receitas = BigDecimal.ZERO;
-        }
-        if(despesa == null){
-            despesa = BigDecimal.ZERO;
-        }
+        return saldoUsuarioService.obterSaldo(id);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<SaldoMensalDTO> obterSaldosMensaisPorUsuario(Long id, Integer ano) {
+        return saldoUsuarioService.obterSaldosMensais(id, ano);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<ResumoMensalDTO> obterResumoMensalPorUsuario(Long id, Integer ano) {
+        return resumoMensalService.obterResumo(id, ano);
+    }
+
+    private static ResumoMensalId chaveResumo(Lancamento lancamento) {
+        return new ResumoMensalId(idUsuario(lancamento), lancamento.getAno(), lancamento.getMes(),
+                lancamento.getTipo(), lancamento.getStatus());
+    }
+
+    private static boolean alteraResumo(ValoresSaldoLancamento anterior, Lancamento lancamento) {
+        return !Objects.equals(anterior.getChaveResumo(), chaveResumo(lancamento))
+                || anterior.getValor() == null || lancamento.getValor() == null
+                || anterior.getValor().compareTo(lancamento.getValor()) != 0;
+    }
+
+    private static boolean alteraPeriodo(ValoresSaldoLancamento anterior, Lancamento lancamento) {
+        return !Objects.equals(anterior.getAno(), lancamento.getAno())
+                || !Objects.equals(anterior.getMes(), lancamento.getMes());
+    }
+
+    private static Long idUsuario(Lancamento lancamento) {
+        return lancamento.getUsuario() == null ? null : lancamento.getUsuario().getId();
+    }
 
-        return receitas.subtract(despesa);
+    private static boolean alteraSaldo(ValoresSaldoLancamento anterior, Lancamento lancamento) {
+        return !Objects.equals(anterior.getIdUsuario(), idUsuario(lancamento))
+                || anterior.getTipo() != lancamento.getTipo()
+                || anterior.getValor() == null || lancamento.getValor() == null
+                || anterior.getValor().compareTo(lancamento.getValor()) != 0;
     }
 }
@@ -0,0 +1,97 @@
+package com.project.renner.myFinances.service.impl;
+
+import com.project.renner.myFinances.dto.LancamentoDTO;
+import com.project.renner.myFinances.exception.RegraNegocioException;
+import com.project.renner.myFinances.model.Lancamento;
+import com.project.renner.myFinances.service.LeituraReativaService;
+import io.r2dbc.spi.Row;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.math.BigDecimal;
+
+@Service
+public class LeituraReativaServiceImpl implements LeituraReativaService {
+
+    private static final String BUSCA = "SELECT l.id, l.descricao, l.mes, l.ano, l.valor, l.id_usuario, l.tipo, l.status"
+            + " FROM financas.lancamento l WHERE l.id_usuario = :usuario";
+
+    private static final String SALDO = "SELECT s.receitas - s.despesas AS saldo,"
+            + " (SELECT coalesce(sum(CASE WHEN l.tipo = 'RECEITA' THEN l.valor WHEN l.tipo = 'DESPESA' THEN -l.valor"
+            + " ELSE 0 END), 0) FROM financas.lancamento l WHERE s.id_usuario IS NULL AND l.id_usuario = u.id) AS calculado"
+            + " FROM financas.usuario u LEFT JOIN financas.saldo_usuario s ON s.id_usuario = u.id WHERE u.id = :usuario";
+
+    private final DatabaseClient databaseClient;
+
+    private final int tamanhoLote;
+
+    public LeituraReativaServiceImpl(DatabaseClient databaseClient,
+                                     @Value("${myfinances.leitura-reativa.tamanho-lote:250}") int tamanhoLote) {
+        this.databaseClient = databaseClient;
+        this.tamanhoLote = tamanhoLote;
+    }
+
+    @Override
+    public Flux<LancamentoDTO> buscar(Lancamento lancamentoFiltro) {
+        if (lancamentoFiltro.getUsuario() == null || lancamentoFiltro.getUsuario().getId() == null) {
+            return Flux.error(new RegraNegocioException("Informe o usuario da consulta."));
+        }
+        StringBuilder sql = new StringBuilder(BUSCA);
+        if (lancamentoFiltro.getAno() != null) {
+            sql.append(" AND l.ano = :ano");
+        }
+        if (lancamentoFiltro.getMes() != null) {
+            sql.append(" AND l.mes = :mes");
+        }
+        String descricao = lancamentoFiltro.getDescricao() == null ? "" : lancamentoFiltro.getDescricao().trim();
+        if (!descricao.isEmpty()) {
+            sql.append(" AND lower(l.descricao) LIKE :descricao ESCAPE '\\'");
+        }
+        sql.append(" ORDER BY l.ano, l.mes, l.id");
+
+        DatabaseClient.GenericExecuteSpec consulta = databaseClient.sql(sql.toString())
+                .bind("usuario", lancamentoFiltro.getUsuario().getId())
+                // o driver busca as linhas em lotes, conforme a demanda do assinante
+                .filter(comando -> comando.fetchSize(tamanhoLote));
+        if (lancamentoFiltro.getAno() != null) {
+            consulta = consulta.bind("ano", lancamentoFiltro.getAno());
+        }
+        if (lancamentoFiltro.getMes() != null) {
+            consulta = consulta.bind("mes", lancamentoFiltro.getMes());
+        }
+        if (!descricao.isEmpty()) {
+            consulta = consulta.bind("descricao", "%" + escaparLike(descricao.toLowerCase()) + "%");
+        }
+        return consulta.map((linha, metadados) -> converter(linha)).all();
+    }
+
+    @Override
+    public Mono<BigDecimal> obterSaldo(Long idUsuario) {
+        return databaseClient.sql(SALDO)
+                .bind("usuario", idUsuario)
+                .map((linha, metadados) -> {
+                    BigDecimal saldo = linha.get("saldo", BigDecimal.class);
+                    return saldo != null ? saldo : linha.get("calculado", BigDecimal.class);
+                })
+                .one();
+    }
+
+    private static LancamentoDTO converter(Row linha) {
+        return new LancamentoDTO(
+                linha.get("id", Long.class),
+                linha.get("descricao", String.class),
+                linha.get("mes", Integer.class),
+                linha.get("ano", Integer.class),
+                linha.get("valor", BigDecimal.class),
+                linha.get("id_usuario", Long.class),
+                linha.get("tipo", String.class),
+                linha.get("status", String.class));
+    }
+
+    private static String escaparLike(String texto) {
+        return texto.replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_");
+    }
+}
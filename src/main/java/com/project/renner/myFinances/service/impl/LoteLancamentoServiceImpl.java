@@ -0,0 +1,220 @@
+package com.project.renner.myFinances.service.impl;
+
+import com.project.renner.myFinances.dto.LancamentoDTO;
+import com.project.renner.myFinances.dto.ResultadoLoteDTO;
+import com.project.renner.myFinances.enums.StatusLancamento;
+import com.project.renner.myFinances.enums.TipoLancamento;
+import com.project.renner.myFinances.model.Lancamento;
+import com.project.renner.myFinances.model.ResumoMensal;
+import com.project.renner.myFinances.model.ResumoMensalId;
+import com.project.renner.myFinances.model.Usuario;
+import com.project.renner.myFinances.repository.LancamentoRepository;
+import com.project.renner.myFinances.service.BuscaDescricaoService;
+import com.project.renner.myFinances.service.LoteLancamentoService;
+import com.project.renner.myFinances.service.ResumoMensalService;
+import com.project.renner.myFinances.service.SaldoUsuarioService;
+import com.project.renner.myFinances.service.UsuarioService;
+import com.project.renner.myFinances.validacao.ResultadoValidacao;
+import com.project.renner.myFinances.validacao.ValidadorLancamento;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.persistence.EntityManager;
+import javax.persistence.PersistenceContext;
+import javax.persistence.PersistenceException;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+
+@Service
+public class LoteLancamentoServiceImpl implements LoteLancamentoService {
+
+    private static final TipoLancamento[] TIPOS = TipoLancamento.values();
+
+    private final UsuarioService usuarioService;
+
+    private final SaldoUsuarioService saldoUsuarioService;
+
+    private final BuscaDescricaoService buscaDescricaoService;
+
+    private final ResumoMensalService resumoMensalService;
+
+    private final LancamentoRepository repository;
+
+    private final TransactionTemplate transactionTemplate;
+
+    private final int tamanhoBloco;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    public LoteLancamentoServiceImpl(UsuarioService usuarioService, SaldoUsuarioService saldoUsuarioService,
+                                     BuscaDescricaoService buscaDescricaoService, ResumoMensalService resumoMensalService,
+                                     LancamentoRepository repository, PlatformTransactionManager transactionManager,
+                                     @Value("${myfinances.lote.tamanho-bloco:500}") int tamanhoBloco) {
+        this.usuarioService = usuarioService;
+        this.saldoUsuarioService = saldoUsuarioService;
+        this.buscaDescricaoService = buscaDescricaoService;
+        this.resumoMensalService = resumoMensalService;
+        this.repository = repository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.tamanhoBloco = tamanhoBloco;
+    }
+
+    @Override
+    public ResultadoLoteDTO salvar(Iterator<LancamentoDTO> lancamentos) {
+        return salvar(lancamentos, new ResultadoLoteDTO());
+    }
+
+    @Override
+    public ResultadoLoteDTO salvar(Iterator<LancamentoDTO> lancamentos, ResultadoLoteDTO resultado) {
+        return salvar(lancamentos, null, resultado);
+    }
+
+    @Override
+    public ResultadoLoteDTO salvar(Iterator<LancamentoDTO> lancamentos, Usuario usuario) {
+        return salvar(lancamentos, Objects.requireNonNull(usuario), new ResultadoLoteDTO());
+    }
+
+    private ResultadoLoteDTO salvar(Iterator<LancamentoDTO> lancamentos, Usuario usuarioLote, ResultadoLoteDTO resultado) {
+        Map<Long, Optional<Usuario>> usuarios = new HashMap<>();
+        List<Lancamento> bloco = new ArrayList<>(tamanhoBloco);
+        List<Long> linhasBloco = new ArrayList<>(tamanhoBloco);
+        long linha = 0;
+        while (true) {
+            try {
+                if (!lancamentos.hasNext()) {
+                    break;
+                }
+            } catch (RuntimeException e) {
+                // conteudo malformado: o restante da entrada nao pode ser lido com seguranca
+                resultado.adicionarErro(linha + 1, "Conteudo invalido: " + e.getMessage());
+                break;
+            }
+            resultado.setRecebidos(++linha);
+            LancamentoDTO lancamentoDTO;
+            try {
+                lancamentoDTO = lancamentos.next();
+            } catch (RuntimeException e) {
+                resultado.adicionarErro(linha, "Lancamento invalido: " + e.getMessage());
+                continue;
+            }
+            Optional<Usuario> usuario;
+            if (usuarioLote != null) {
+                usuario = Optional.of(usuarioLote);
+            } else {
+                usuario = lancamentoDTO.getUsuario() == null ? Optional.empty()
+                        : usuarios.computeIfAbsent(lancamentoDTO.getUsuario(), usuarioService::obterPorId);
+            }
+            if (usuarioLote == null && lancamentoDTO.getUsuario() != null && !usuario.isPresent()) {
+                resultado.adicionarErro(linha, "Usuario nao encontrado com o Id informado.");
+                continue;
+            }
+            // sem excecao por linha invalida: todas as regras violadas vao para o relatorio do lote
+            Lancamento lancamento = converter(lancamentoDTO, usuario.orElse(null));
+            ResultadoValidacao validacao = ValidadorLancamento.validar(lancamento);
+            if (!validacao.isValido()) {
+                resultado.adicionarErro(linha, validacao.getMensagem());
+                continue;
+            }
+            lancamento.setStatus(StatusLancamento.PENDENTE);
+            bloco.add(lancamento);
+            linhasBloco.add(linha);
+            if (bloco.size() == tamanhoBloco) {
+                gravar(bloco, linhasBloco, resultado);
+            }
+        }
+        gravar(bloco, linhasBloco, resultado);
+        return resultado;
+    }
+
+    private void gravar(List<Lancamento> bloco, List<Long> linhasBloco, ResultadoLoteDTO resultado) {
+        if (bloco.isEmpty()) {
+            return;
+        }
+        try {
+            transactionTemplate.executeWithoutResult(status -> {
+                registrarSaldos(bloco);
+                registrarResumos(bloco);
+                repository.saveAll(bloco);
+                entityManager.flush();
+                bloco.forEach(buscaDescricaoService::indexar);
+            });
+            resultado.setInseridos(resultado.getInseridos() + bloco.size());
+        } catch (DataAccessException | PersistenceException e) {
+            for (Long linha : linhasBloco) {
+                resultado.adicionarErro(linha, "Nao foi possivel gravar o bloco: " + e.getMessage());
+            }
+        } finally {
+            // o contexto de persistencia pode ser o da requisicao; nao deixa as entidades acumularem
+            entityManager.clear();
+            bloco.clear();
+            linhasBloco.clear();
+        }
+    }
+
+    private void registrarSaldos(List<Lancamento> bloco) {
+        Map<Long, BigDecimal[]> totais = new HashMap<>();
+        for (Lancamento lancamento : bloco) {
+            BigDecimal[] total = totais.computeIfAbsent(lancamento.getUsuario().getId(),
+                    id -> new BigDecimal[]{BigDecimal.ZERO, BigDecimal.ZERO});
+            int indice = lancamento.getTipo() == TipoLancamento.RECEITA ? 0 : 1;
+            total[indice] = total[indice].add(lancamento.getValor());
+        }
+        totais.forEach((idUsuario, total) -> {
+            if (total[0].signum() != 0) {
+                saldoUsuarioService.registrarInclusao(idUsuario, TipoLancamento.RECEITA, total[0]);
+            }
+            if (total[1].signum() != 0) {
+                saldoUsuarioService.registrarInclusao(idUsuario, TipoLancamento.DESPESA, total[1]);
+            }
+        });
+    }
+
+    private void registrarResumos(List<Lancamento> bloco) {
+        Map<ResumoMensalId, ResumoMensal> resumos = new HashMap<>();
+        for (Lancamento lancamento : bloco) {
+            ResumoMensalId chave = new ResumoMensalId(lancamento.getUsuario().getId(), lancamento.getAno(),
+                    lancamento.getMes(), lancamento.getTipo(), lancamento.getStatus());
+            ResumoMensal resumo = resumos.computeIfAbsent(chave, id -> new ResumoMensal(id.getIdUsuario(), id.getAno(),
+                    id.getMes(), id.getTipo(), id.getStatus(), BigDecimal.ZERO, 0L));
+            resumo.setValor(resumo.getValor().add(lancamento.getValor()));
+            resumo.setQuantidade(resumo.getQuantidade() + 1);
+        }
+        resumos.forEach((chave, resumo) ->
+                resumoMensalService.registrarInclusao(chave, resumo.getValor(), resumo.getQuantidade()));
+    }
+
+    private Lancamento converter(LancamentoDTO lancamentoDTO, Usuario usuario) {
+        Lancamento lancamento = new Lancamento();
+        lancamento.setDescricao(lancamentoDTO.getDescricao());
+        lancamento.setAno(lancamentoDTO.getAno());
+        lancamento.setMes(lancamentoDTO.getMes());
+        lancamento.setValor(lancamentoDTO.getValor());
+        lancamento.setUsuario(usuario);
+        lancamento.setDataCadastro(LocalDate.now());
+        lancamento.setTipo(tipo(lancamentoDTO.getTipo()));
+        return lancamento;
+    }
+
+    // tipo desconhecido fica nulo e e reportado pela regra do tipo
+    private static TipoLancamento tipo(String tipo) {
+        if (tipo != null) {
+            for (TipoLancamento valor : TIPOS) {
+                if (valor.name().equals(tipo)) {
+                    return valor;
+                }
+            }
+        }
+        return null;
+    }
+}
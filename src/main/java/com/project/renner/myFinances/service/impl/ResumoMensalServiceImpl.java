@@ -0,0 +1,98 @@
+package com.project.renner.myFinances.service.impl;
+
+import com.project.renner.myFinances.dto.ResumoMensalDTO;
+import com.project.renner.myFinances.model.ResumoMensal;
+import com.project.renner.myFinances.model.ResumoMensalId;
+import com.project.renner.myFinances.repository.LancamentoRepository;
+import com.project.renner.myFinances.repository.ResumoMensalRepository;
+import com.project.renner.myFinances.repository.projection.TotalResumoMensal;
+import com.project.renner.myFinances.service.ResumoMensalService;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.stream.Collectors;
+
+@Service
+public class ResumoMensalServiceImpl implements ResumoMensalService {
+
+    private final ResumoMensalRepository resumoRepository;
+
+    private final LancamentoRepository lancamentoRepository;
+
+    public ResumoMensalServiceImpl(ResumoMensalRepository resumoRepository, LancamentoRepository lancamentoRepository) {
+        this.resumoRepository = resumoRepository;
+        this.lancamentoRepository = lancamentoRepository;
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<ResumoMensalDTO> obterResumo(Long idUsuario, Integer ano) {
+        return resumoRepository.findByIdUsuarioAndAnoOrderByMesAscTipoAscStatusAsc(idUsuario, ano).stream()
+                .filter(resumo -> resumo.getQuantidade() > 0)
+                .map(ResumoMensalServiceImpl::converter)
+                .collect(Collectors.toList());
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public long contarLancamentos(Long idUsuario, Integer ano, Integer mes) {
+        return resumoRepository.contarLancamentos(idUsuario, ano, mes);
+    }
+
+    @Override
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void registrarInclusao(ResumoMensalId chave, BigDecimal valor, long quantidade) {
+        acumular(chave, valor, quantidade);
+    }
+
+    @Override
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void registrarExclusao(ResumoMensalId chave, BigDecimal valor, long quantidade) {
+        if (valor != null) {
+            acumular(chave, valor.negate(), -quantidade);
+        }
+    }
+
+    @Override
+    @Transactional
+    public int reconstruir() {
+        resumoRepository.removerTodos();
+        return resumoRepository.inserirAPartirDosLancamentos();
+    }
+
+    private void acumular(ResumoMensalId chave, BigDecimal valor, long quantidade) {
+        if (chave == null || !chave.isCompleta() || valor == null) {
+            return;
+        }
+        if (somar(chave, valor, quantidade) == 0) {
+            // sem linha ainda: a trava no usuario faz a segunda de duas primeiras movimentacoes concorrentes
+            // esperar e encontrar, na nova tentativa, a linha inserida pela primeira
+            resumoRepository.travarUsuario(chave.getIdUsuario());
+            if (somar(chave, valor, quantidade) == 0) {
+                // primeira movimentacao da chave: parte dos lancamentos ja gravados, ainda sem a escrita atual
+                TotalResumoMensal anterior = lancamentoRepository.obterTotalResumoMensal(chave.getIdUsuario(),
+                        chave.getAno(), chave.getMes(), chave.getTipo(), chave.getStatus());
+                resumoRepository.inserir(chave.getIdUsuario(), chave.getAno(), chave.getMes(), chave.getTipo().name(),
+                        chave.getStatus().name(), anterior.getValor().add(valor), anterior.getQuantidade() + quantidade);
+            }
+        }
+    }
+
+    private int somar(ResumoMensalId chave, BigDecimal valor, long quantidade) {
+        return resumoRepository.acumular(chave.getIdUsuario(), chave.getAno(), chave.getMes(), chave.getTipo(),
+                chave.getStatus(), valor, quantidade);
+    }
+
+    private static ResumoMensalDTO converter(ResumoMensal resumo) {
+        return ResumoMensalDTO.builder()
+                .mes(resumo.getMes())
+                .tipo(resumo.getTipo().name())
+                .status(resumo.getStatus().name())
+                .valor(resumo.getValor())
+                .quantidade(resumo.getQuantidade())
+                .build();
+    }
+}
@@ -0,0 +1,228 @@
+package com.project.renner.myFinances.service.impl;
+
+import com.project.renner.myFinances.config.Caches;
+import com.project.renner.myFinances.dto.DivergenciaSaldoDTO;
+import com.project.renner.myFinances.dto.SaldoMensalDTO;
+import com.project.renner.myFinances.enums.TipoLancamento;
+import com.project.renner.myFinances.model.SaldoUsuario;
+import com.project.renner.myFinances.repository.LancamentoRepository;
+import com.project.renner.myFinances.repository.SaldoUsuarioRepository;
+import com.project.renner.myFinances.repository.projection.SaldoConsolidado;
+import com.project.renner.myFinances.repository.projection.SaldoMensal;
+import com.project.renner.myFinances.service.SaldoUsuarioService;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+@Service
+public class SaldoUsuarioServiceImpl implements SaldoUsuarioService {
+
+    private final SaldoUsuarioRepository saldoRepository;
+
+    private final LancamentoRepository lancamentoRepository;
+
+    private final CacheManager cacheManager;
+
+    private final TransactionTemplate transactionTemplate;
+
+    public SaldoUsuarioServiceImpl(SaldoUsuarioRepository saldoRepository, LancamentoRepository lancamentoRepository,
+                                   CacheManager cacheManager, PlatformTransactionManager transactionManager) {
+        this.saldoRepository = saldoRepository;
+        this.lancamentoRepository = lancamentoRepository;
+        this.cacheManager = cacheManager;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public BigDecimal obterSaldo(Long idUsuario) {
+        return emCache(Caches.SALDOS, idUsuario, () -> saldoRepository.findById(idUsuario)
+                .map(SaldoUsuario::getSaldo)
+                .orElseGet(() -> calcularSaldo(idUsuario)));
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<SaldoMensalDTO> obterSaldosMensais(Long idUsuario, Integer ano) {
+        Map<Integer, List<SaldoMensalDTO>> porAno = emCache(Caches.SALDOS_MENSAIS, idUsuario, ConcurrentHashMap::new);
+        return porAno.computeIfAbsent(ano, anoConsultado -> calcularSaldosMensais(idUsuario, anoConsultado));
+    }
+
+    @Override
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void registrarInclusao(Long idUsuario, TipoLancamento tipo, BigDecimal valor) {
+        acumular(idUsuario, tipo, valor);
+    }
+
+    @Override
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void registrarExclusao(Long idUsuario, TipoLancamento tipo, BigDecimal valor) {
+        if (valor != null) {
+            acumular(idUsuario, tipo, valor.negate());
+        }
+    }
+
+    @Override
+    public void registrarAlteracaoDePeriodo(Long idUsuario) {
+        if (idUsuario != null) {
+            removerDoCache(idUsuario, Caches.SALDOS_MENSAIS);
+        }
+    }
+
+    /**
+     * Cada usuario e reconciliado na propria transacao, com o saldo travado, para que a reconciliacao nao
+     * segure as escritas de todos os usuarios ate o fim.
+     */
+    @Override
+    public List<DivergenciaSaldoDTO> reconciliar() {
+        removerDoCache(null, Caches.SALDOS, Caches.SALDOS_MENSAIS);
+        Set<Long> usuarios = new TreeSet<>(saldoRepository.listarUsuarios());
+        usuarios.addAll(lancamentoRepository.listarUsuarios());
+        List<DivergenciaSaldoDTO> divergencias = new ArrayList<>();
+        for (Long idUsuario : usuarios) {
+            DivergenciaSaldoDTO divergencia = transactionTemplate.execute(status -> reconciliar(idUsuario));
+            if (divergencia != null) {
+                divergencias.add(divergencia);
+            }
+        }
+        return divergencias;
+    }
+
+    /**
+     * Trava a linha do saldo (ou, sem ela, a do usuario) antes de somar os lancamentos: um movimento concorrente
+     * espera o fim desta transacao e acumula sobre o total corrigido, em vez de ser sobrescrito por ele.
+     */
+    private DivergenciaSaldoDTO reconciliar(Long idUsuario) {
+        Optional<SaldoUsuario> armazenado = saldoRepository.travar(idUsuario);
+        if (!armazenado.isPresent()) {
+            saldoRepository.travarUsuario(idUsuario);
+            armazenado = saldoRepository.travar(idUsuario);
+        }
+        SaldoConsolidado calculado = lancamentoRepository.obterSaldoConsolidado(idUsuario);
+        if (!armazenado.isPresent()) {
+            saldoRepository.inserir(idUsuario, calculado.getReceitas(), calculado.getDespesas());
+            return divergencia(idUsuario, null, calculado.getSaldo());
+        }
+        SaldoUsuario saldo = armazenado.get();
+        if (saldo.getReceitas().compareTo(calculado.getReceitas()) == 0
+                && saldo.getDespesas().compareTo(calculado.getDespesas()) == 0) {
+            return null;
+        }
+        DivergenciaSaldoDTO divergencia = divergencia(idUsuario, saldo.getSaldo(), calculado.getSaldo());
+        saldo.setReceitas(calculado.getReceitas());
+        saldo.setDespesas(calculado.getDespesas());
+        return divergencia;
+    }
+
+    private void acumular(Long idUsuario, TipoLancamento tipo, BigDecimal valor) {
+        if (idUsuario == null || tipo == null || valor == null) {
+            return;
+        }
+        removerDoCache(idUsuario, Caches.SALDOS, Caches.SALDOS_MENSAIS);
+        BigDecimal receitas = tipo == TipoLancamento.RECEITA ? valor : BigDecimal.ZERO;
+        BigDecimal despesas = tipo == TipoLancamento.DESPESA ? valor : BigDecimal.ZERO;
+        if (saldoRepository.acumular(idUsuario, receitas, despesas) == 0) {
+            // sem saldo ainda: a trava no usuario faz a segunda de duas primeiras escritas concorrentes esperar
+            // e encontrar, na nova tentativa, o saldo inserido pela primeira
+            saldoRepository.travarUsuario(idUsuario);
+            if (saldoRepository.acumular(idUsuario, receitas, despesas) == 0) {
+                // primeiro movimento do usuario desde a criacao da tabela: parte do historico ja gravado,
+                // por isso o registro deve acontecer antes da escrita do proprio lancamento
+                SaldoConsolidado anterior = lancamentoRepository.obterSaldoConsolidado(idUsuario);
+                saldoRepository.inserir(idUsuario,
+                        anterior.getReceitas().add(receitas), anterior.getDespesas().add(despesas));
+            }
+        }
+    }
+
+    private BigDecimal calcularSaldo(Long idUsuario) {
+        return lancamentoRepository.obterSaldoConsolidado(idUsuario).getSaldo();
+    }
+
+    private List<SaldoMensalDTO> calcularSaldosMensais(Long idUsuario, Integer ano) {
+        List<SaldoMensalDTO> saldos = new ArrayList<>(12);
+        for (int mes = 1; mes <= 12; mes++) {
+            saldos.add(new SaldoMensalDTO(mes, BigDecimal.ZERO, BigDecimal.ZERO, BigDecimal.ZERO));
+        }
+        for (SaldoMensal saldoMensal : lancamentoRepository.obterSaldosMensais(idUsuario, ano)) {
+            SaldoMensalDTO saldo = saldos.get(saldoMensal.getMes() - 1);
+            saldo.setReceitas(saldoMensal.getReceitas());
+            saldo.setDespesas(saldoMensal.getDespesas());
+            saldo.setSaldo(saldoMensal.getSaldo());
+        }
+        return Collections.unmodifiableList(saldos);
+    }
+
+    /**
+     * So guarda no cache o que foi lido numa transacao somente leitura: dentro de uma escrita o valor lido
+     * ainda nao foi confirmado e poderia ficar no cache mesmo se a transacao fosse desfeita.
+     */
+    private <T> T emCache(String nome, Long idUsuario, Supplier<T> consulta) {
+        Cache cache = cacheManager.getCache(nome);
+        if (cache == null || !TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+            return consulta.get();
+        }
+        try {
+            return cache.get(idUsuario, consulta::get);
+        } catch (Cache.ValueRetrievalException e) {
+            // a consulta so lanca excecoes nao verificadas; devolve a original em vez do envelope do cache
+            throw (RuntimeException) e.getCause();
+        }
+    }
+
+    /**
+     * Remove os saldos do usuario (ou de todos, com {@code null}) agora e de novo ao fim da transacao, para que
+     * uma leitura concorrente feita antes da confirmacao nao deixe no cache o saldo anterior.
+     */
+    private void removerDoCache(Long idUsuario, String... nomes) {
+        evictar(idUsuario, nomes);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    evictar(idUsuario, nomes);
+                }
+            });
+        }
+    }
+
+    private void evictar(Long idUsuario, String... nomes) {
+        for (String nome : nomes) {
+            Cache cache = cacheManager.getCache(nome);
+            if (cache == null) {
+                continue;
+            }
+            if (idUsuario == null) {
+                cache.clear();
+            } else {
+                cache.evict(idUsuario);
+            }
+        }
+    }
+
+    private static DivergenciaSaldoDTO divergencia(Long idUsuario, BigDecimal saldoArmazenado,
+                                                   BigDecimal saldoCalculado) {
+        return DivergenciaSaldoDTO.builder()
+                .usuario(idUsuario)
+                .saldoArmazenado(saldoArmazenado)
+                .saldoCalculado(saldoCalculado)
+                .build();
+    }
+}
@@ -1,23 +1,51 @@
 package com.project.renner.myFinances.service.impl;
 
+import com.project.renner.myFinances.config.Caches;
+import com.project.renner.myFinances.config.ExecutoresConfig;
 import com.project.renner.myFinances.exception.ErroAutenticacao;
 import com.project.renner.myFinances.exception.RegraNegocioException;
 import com.project.renner.myFinances.model.Usuario;
 import com.project.renner.myFinances.repository.UsuarioRepository;
 import com.project.renner.myFinances.service.UsuarioService;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.cache.annotation.CachePut;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.cache.annotation.Caching;
+import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
 
 import javax.transaction.Transactional;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
 import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.regex.Pattern;
 
 @Service
 public class UsuarioServiceImpl implements UsuarioService {
 
+    private static final Pattern HASH_BCRYPT = Pattern.compile("^\\$2[abxy]?\\$\\d{2}\\$[./A-Za-z0-9]{53}$");
+
     @Autowired
     private UsuarioRepository usuarioRepository;
-    public UsuarioServiceImpl(UsuarioRepository usuarioRepository) {
+
+    private final PasswordEncoder passwordEncoder;
+
+    private final Executor executorAutenticacao;
+
+    private final CacheManager cacheManager;
+
+    public UsuarioServiceImpl(UsuarioRepository usuarioRepository, PasswordEncoder passwordEncoder,
+                              @Qualifier(ExecutoresConfig.EXECUTOR_AUTENTICACAO) Executor executorAutenticacao,
+                              CacheManager cacheManager) {
         this.usuarioRepository = usuarioRepository;
+        this.passwordEncoder = passwordEncoder;
+        this.executorAutenticacao = executorAutenticacao;
+        this.cacheManager = cacheManager;
     }
 
     @Override
@@ -26,16 +54,40 @@ public class UsuarioServiceImpl implements UsuarioService {
         if(!usuario.isPresent()){
             throw new ErroAutenticacao("Email nao cadastrado.");
         }
-        if(!usuario.get().getSenha().equals(senha)){
+        String senhaArmazenada = usuario.get().getSenha();
+        if(senha == null || senhaArmazenada == null){
             throw new ErroAutenticacao("Senha invalida.");
         }
+        if(HASH_BCRYPT.matcher(senhaArmazenada).matches()){
+            if(!passwordEncoder.matches(senha, senhaArmazenada)){
+                throw new ErroAutenticacao("Senha invalida.");
+            }
+        }else{
+            // cadastro anterior ao hash: confere o texto puro e ja grava o hash no lugar
+            if(!MessageDigest.isEqual(senha.getBytes(StandardCharsets.UTF_8), senhaArmazenada.getBytes(StandardCharsets.UTF_8))){
+                throw new ErroAutenticacao("Senha invalida.");
+            }
+            usuarioRepository.atualizarSenha(usuario.get().getId(), senhaArmazenada, passwordEncoder.encode(senha));
+            evictar(usuario.get());
+        }
         return usuario.get();
     }
 
+    @Override
+    public CompletableFuture<Usuario> autenticarAssincrono(String email, String senha) {
+        return CompletableFuture.supplyAsync(() -> autenticar(email, senha), executorAutenticacao);
+    }
+
     @Override
     @Transactional
+    @Caching(put = @CachePut(cacheNames = Caches.USUARIOS, key = "#result.id"),
+            evict = @CacheEvict(cacheNames = Caches.USUARIOS_POR_EMAIL, key = "#usuario.email",
+                    condition = "#usuario.email != null"))
     public Usuario salvarUsuario(Usuario usuario) {
         validarEmail(usuario.getEmail());
+        if(usuario.getSenha() != null){
+            usuario.setSenha(passwordEncoder.encode(usuario.getSenha()));
+        }
         return usuarioRepository.save(usuario);
     }
 
@@ -47,9 +99,18 @@ public class UsuarioServiceImpl implements UsuarioService {
         }
     }
 
+    /**
+     * Consultado a cada requisicao de lancamento so para validar e referenciar o usuario, por isso fica em
+     * cache. A instancia cacheada e compartilhada e nao deve ser alterada.
+     */
     @Override
+    @Cacheable(cacheNames = Caches.USUARIOS, unless = "#result == null")
     public Optional<Usuario> obterPorId(Long id) {
         return usuarioRepository.findById(id);
     }
 
+    private void evictar(Usuario usuario) {
+        Optional.ofNullable(cacheManager.getCache(Caches.USUARIOS)).ifPresent(cache -> cache.evict(usuario.getId()));
+        Optional.ofNullable(cacheManager.getCache(Caches.USUARIOS_POR_EMAIL)).ifPresent(cache -> cache.evict(usuario.getEmail()));
+    }
 }
@@ -0,0 +1,76 @@
+package com.project.renner.myFinances.validacao;
+
+import com.project.renner.myFinances.model.Lancamento;
+
+import java.math.BigDecimal;
+
+/**
+ * Regras de um lancamento valido, na ordem em que as mensagens sao apresentadas. As verificacoes sao
+ * numericas ou percorrem a string sem copia-la, para que validar um lancamento correto nao aloque nada.
+ */
+public enum RegraLancamento {
+    DESCRICAO("informe uma Descricao valida.") {
+        @Override
+        boolean violadaPor(Lancamento lancamento) {
+            return emBranco(lancamento.getDescricao());
+        }
+    },
+    MES("Informe um Mes valido") {
+        @Override
+        boolean violadaPor(Lancamento lancamento) {
+            Integer mes = lancamento.getMes();
+            return mes == null || mes < 1 || mes > 12;
+        }
+    },
+    ANO("Informe um Ano valido.") {
+        @Override
+        boolean violadaPor(Lancamento lancamento) {
+            Integer ano = lancamento.getAno();
+            return ano == null || ano < 1000 || ano > 9999;
+        }
+    },
+    USUARIO("Informe um usuario") {
+        @Override
+        boolean violadaPor(Lancamento lancamento) {
+            return lancamento.getUsuario() == null || lancamento.getUsuario().getId() == null;
+        }
+    },
+    VALOR("Informe um Valor valido.") {
+        @Override
+        boolean violadaPor(Lancamento lancamento) {
+            BigDecimal valor = lancamento.getValor();
+            return valor == null || valor.signum() <= 0;
+        }
+    },
+    TIPO("Informe um Tipo de Lancamento") {
+        @Override
+        boolean violadaPor(Lancamento lancamento) {
+            return lancamento.getTipo() == null;
+        }
+    };
+
+    private final String mensagem;
+
+    RegraLancamento(String mensagem) {
+        this.mensagem = mensagem;
+    }
+
+    public String getMensagem() {
+        return mensagem;
+    }
+
+    abstract boolean violadaPor(Lancamento lancamento);
+
+    // mesmo criterio de String.trim(): so caracteres ate o espaco
+    private static boolean emBranco(String texto) {
+        if (texto == null) {
+            return true;
+        }
+        for (int i = 0; i < texto.length(); i++) {
+            if (texto.charAt(i) > ' ') {
+                return false;
+            }
+        }
+        return true;
+    }
+}
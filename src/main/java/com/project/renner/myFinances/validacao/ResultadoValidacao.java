@@ -0,0 +1,66 @@
+package com.project.renner.myFinances.validacao;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Regras violadas por um lancamento, guardadas num bit por regra. O resultado sem violacoes e uma
+ * constante compartilhada; as listas so sao montadas quando alguem as pede.
+ */
+public final class ResultadoValidacao {
+
+    public static final ResultadoValidacao VALIDO = new ResultadoValidacao(0);
+
+    private static final RegraLancamento[] REGRAS = RegraLancamento.values();
+
+    private final int violacoes;
+
+    ResultadoValidacao(int violacoes) {
+        this.violacoes = violacoes;
+    }
+
+    public boolean isValido() {
+        return violacoes == 0;
+    }
+
+    public boolean violou(RegraLancamento regra) {
+        return (violacoes & (1 << regra.ordinal())) != 0;
+    }
+
+    public List<RegraLancamento> getViolacoes() {
+        if (isValido()) {
+            return Collections.emptyList();
+        }
+        List<RegraLancamento> regras = new ArrayList<>(Integer.bitCount(violacoes));
+        for (RegraLancamento regra : REGRAS) {
+            if (violou(regra)) {
+                regras.add(regra);
+            }
+        }
+        return regras;
+    }
+
+    public List<String> getMensagens() {
+        List<RegraLancamento> regras = getViolacoes();
+        List<String> mensagens = new ArrayList<>(regras.size());
+        for (RegraLancamento regra : regras) {
+            mensagens.add(regra.getMensagem());
+        }
+        return mensagens;
+    }
+
+    /**
+     * Mensagem da primeira regra violada, a mesma que a validacao interrompida no primeiro erro devolvia.
+     */
+    public String getPrimeiraMensagem() {
+        return isValido() ? null : REGRAS[Integer.numberOfTrailingZeros(violacoes)].getMensagem();
+    }
+
+    /**
+     * Todas as mensagens numa linha, para relatorios de lote.
+     */
+    public String getMensagem() {
+        return isValido() ? null : String.join("; ", getMensagens());
+    }
+}
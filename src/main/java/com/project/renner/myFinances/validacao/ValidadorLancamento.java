@@ -0,0 +1,25 @@
+package com.project.renner.myFinances.validacao;
+
+import com.project.renner.myFinances.model.Lancamento;
+
+/**
+ * Aplica todas as {@link RegraLancamento regras} e devolve as violacoes num unico resultado, sem lancar
+ * excecao: o lote registra o erro da linha e segue; a inclusao individual decide se interrompe.
+ */
+public final class ValidadorLancamento {
+
+    private static final RegraLancamento[] REGRAS = RegraLancamento.values();
+
+    private ValidadorLancamento() {
+    }
+
+    public static ResultadoValidacao validar(Lancamento lancamento) {
+        int violacoes = 0;
+        for (RegraLancamento regra : REGRAS) {
+            if (regra.violadaPor(lancamento)) {
+                violacoes |= 1 << regra.ordinal();
+            }
+        }
+        return violacoes == 0 ? ResultadoValidacao.VALIDO : new ResultadoValidacao(violacoes);
+    }
+}
@@ -0,0 +1,7 @@
+-- Saldo materializado por usuario. Apos criar a tabela, execute a reconciliacao
+-- (ReconciliacaoSaldoJob) uma vez para preencher os saldos do historico existente.
+CREATE TABLE IF NOT EXISTS financas.saldo_usuario (
+    id_usuario BIGINT PRIMARY KEY REFERENCES financas.usuario (id),
+    receitas   NUMERIC(19, 2) NOT NULL DEFAULT 0,
+    despesas   NUMERIC(19, 2) NOT NULL DEFAULT 0
+);
@@ -0,0 +1,3 @@
+-- Atende a busca por usuario/ano/mes e a paginacao por cursor (ano, mes, id) de GET /api/lancamentos.
+CREATE INDEX IF NOT EXISTS idx_lancamento_usuario_ano_mes_id
+    ON financas.lancamento (id_usuario, ano, mes, id);
@@ -0,0 +1,6 @@
+-- Busca por trecho da descricao (BuscaDescricaoPostgresServiceImpl). O btree_gin permite combinar
+-- o usuario com os trigramas no mesmo indice, de modo que a busca percorre apenas as postagens do usuario.
+CREATE EXTENSION IF NOT EXISTS pg_trgm;
+CREATE EXTENSION IF NOT EXISTS btree_gin;
+CREATE INDEX IF NOT EXISTS idx_lancamento_usuario_descricao_trgm
+    ON financas.lancamento USING gin (id_usuario, lower(descricao) gin_trgm_ops);
@@ -0,0 +1,6 @@
+-- Lancamento.id passou de IDENTITY para sequencia com alocacao em blocos de 50 (otimizador pooled),
+-- o que permite ao Hibernate agrupar os INSERTs em lotes JDBC. O incremento precisa ser igual ao allocationSize
+-- e, como o pooled trata o valor lido como o topo do bloco, a sequencia parte de max(id) + 50.
+CREATE SEQUENCE IF NOT EXISTS financas.lancamento_id_seq;
+ALTER SEQUENCE financas.lancamento_id_seq INCREMENT BY 50;
+SELECT setval('financas.lancamento_id_seq', COALESCE((SELECT max(id) FROM financas.lancamento), 0) + 50, false);
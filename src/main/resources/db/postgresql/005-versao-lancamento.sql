@@ -0,0 +1,2 @@
+-- Versao para o lock otimista de Lancamento; incrementada a cada atualizacao, inclusive nas transicoes de status.
+ALTER TABLE financas.lancamento ADD COLUMN IF NOT EXISTS versao bigint NOT NULL DEFAULT 0;
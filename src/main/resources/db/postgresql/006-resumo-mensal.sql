@@ -0,0 +1,13 @@
+-- Totais mensais por usuario, tipo e status (GET /api/usuarios/{id}/resumo). Apos criar a tabela,
+-- inicie a aplicacao uma vez com --myfinances.resumo.reconstruir=true, sem escritas em andamento,
+-- para preencher o historico existente.
+CREATE TABLE IF NOT EXISTS financas.resumo_mensal (
+    id_usuario BIGINT         NOT NULL REFERENCES financas.usuario (id),
+    ano        INTEGER        NOT NULL,
+    mes        INTEGER        NOT NULL,
+    tipo       VARCHAR(20)    NOT NULL,
+    status     VARCHAR(20)    NOT NULL,
+    valor      NUMERIC(19, 2) NOT NULL DEFAULT 0,
+    quantidade BIGINT         NOT NULL DEFAULT 0,
+    PRIMARY KEY (id_usuario, ano, mes, tipo, status)
+);
@@ -0,0 +1,122 @@
+package com.project.renner.myFinances.benchmark;
+
+import com.project.renner.myFinances.model.Usuario;
+import com.project.renner.myFinances.repository.UsuarioRepository;
+import com.project.renner.myFinances.repository.UsuarioRepositoryTest;
+import com.project.renner.myFinances.service.UsuarioService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Vazao e latencia do login com BCrypt de custo 10 sob concorrencia, verificando a senha na propria thread
+ * da requisicao e no executor de autenticacao. No executor, o excedente e rejeitado (503) em vez de ocupar
+ * as threads do servidor. Execute com {@code mvn test -Dtest=AutenticacaoBenchmarkTest -Dbenchmark=true}.
+ */
+@ExtendWith(SpringExtension.class)
+@ActiveProfiles("test")
+@SpringBootTest(properties = "myfinances.autenticacao.bcrypt-custo=10")
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+public class AutenticacaoBenchmarkTest {
+
+    static final int LOGINS_POR_CLIENTE = 5;
+    static final int[] CLIENTES = {1, 8, 32};
+
+    @Autowired
+    UsuarioService usuarioService;
+
+    @Autowired
+    UsuarioRepository usuarioRepository;
+
+    @Autowired
+    PasswordEncoder passwordEncoder;
+
+    Usuario usuario;
+
+    @AfterEach
+    public void tearDown(){
+        usuarioRepository.delete(usuario);
+    }
+
+    @Test
+    public void medirVazaoDoLogin() throws Exception{
+        usuario = UsuarioRepositoryTest.criarUsuario();
+        usuario.setEmail("benchmark@email.com");
+        usuario.setSenha(passwordEncoder.encode("senha"));
+        usuario = usuarioRepository.save(usuario);
+
+        medir("aquecimento", 4, false);
+        for(int clientes : CLIENTES){
+            medir("thread da requisicao", clientes, false);
+            medir("executor dedicado", clientes, true);
+        }
+    }
+
+    private void medir(String nome, int clientes, boolean assincrono) throws InterruptedException {
+        AtomicLongArray latencias = new AtomicLongArray(clientes * LOGINS_POR_CLIENTE);
+        AtomicInteger concluidos = new AtomicInteger();
+        AtomicInteger rejeitados = new AtomicInteger();
+        CountDownLatch largada = new CountDownLatch(1);
+        List<Thread> threads = new ArrayList<>();
+        for(int c = 0; c < clientes; c++){
+            Thread thread = new Thread(() -> {
+                try {
+                    largada.await();
+                } catch (InterruptedException e) {
+                    return;
+                }
+                for(int i = 0; i < LOGINS_POR_CLIENTE; i++){
+                    long inicio = System.nanoTime();
+                    try {
+                        if(assincrono){
+                            usuarioService.autenticarAssincrono(usuario.getEmail(), "senha").join();
+                        }else{
+                            usuarioService.autenticar(usuario.getEmail(), "senha");
+                        }
+                        latencias.set(concluidos.getAndIncrement(), System.nanoTime() - inicio);
+                    } catch (TaskRejectedException e) {
+                        rejeitados.incrementAndGet();
+                    }
+                }
+            });
+            thread.start();
+            threads.add(thread);
+        }
+        long inicio = System.nanoTime();
+        largada.countDown();
+        for(Thread thread : threads){
+            thread.join();
+        }
+        double segundos = (System.nanoTime() - inicio) / 1_000_000_000.0;
+
+        long[] ordenadas = new long[concluidos.get()];
+        for(int i = 0; i < ordenadas.length; i++){
+            ordenadas[i] = latencias.get(i);
+        }
+        Arrays.sort(ordenadas);
+        System.out.printf("%-22s clientes=%3d %8.1f logins/s  p50=%7.1f ms  p99=%7.1f ms  rejeitados=%d%n",
+                nome, clientes, ordenadas.length / segundos, percentil(ordenadas, 0.50), percentil(ordenadas, 0.99),
+                rejeitados.get());
+    }
+
+    private static double percentil(long[] ordenadas, double percentil){
+        if(ordenadas.length == 0){
+            return 0;
+        }
+        return ordenadas[(int) Math.min(ordenadas.length - 1, Math.ceil(percentil * ordenadas.length) - 1)] / 1_000_000.0;
+    }
+}
@@ -0,0 +1,242 @@
+package com.project.renner.myFinances.benchmark;
+
+import com.project.renner.myFinances.enums.TipoLancamento;
+import com.project.renner.myFinances.model.Usuario;
+import com.project.renner.myFinances.seguranca.TokenService;
+import com.project.renner.myFinances.service.ResumoMensalService;
+import com.project.renner.myFinances.service.SaldoUsuarioService;
+import com.project.renner.myFinances.service.UsuarioService;
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.boot.web.server.LocalServerPort;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.http.client.ClientHttpResponse;
+import org.springframework.context.annotation.Bean;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+import org.springframework.web.client.ResponseErrorHandler;
+import org.springframework.web.client.RestTemplate;
+
+import javax.sql.DataSource;
+import java.io.File;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.math.BigDecimal;
+import java.sql.Connection;
+import java.sql.Date;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.BiFunction;
+
+/**
+ * Teste de carga de ponta a ponta: sobe a aplicacao numa porta aleatoria sobre o H2, cria N usuarios com M
+ * lancamentos cada e dispara um mix de requisicoes HTTP numa taxa fixa. Reporta a latencia por operacao
+ * (HdrHistogram, em target/carga) e falha se a taxa de erros passar do limite. Para comparar os modos de
+ * execucao, rode com {@code -Dmyfinances.execucao.modo=plataforma} e {@code =virtual} (Java 21+), de preferencia
+ * com {@code -Dcarga.latencia-banco-ms} simulando um banco lento. Parametros, com os padroes:
+ * <pre>
+ * mvn test -Dtest=CargaBenchmarkTest -Dbenchmark=true
+ *     -Dcarga.usuarios=20 -Dcarga.lancamentos=1000 -Dcarga.rps=200 -Dcarga.duracao=30 -Dcarga.aquecimento=10
+ *     -Dcarga.clientes=64 -Dcarga.latencia-banco-ms=0
+ *     -Dcarga.mix=autenticar=5,salvar=20,buscar=40,saldo=25,atualizar_status=10 -Dcarga.erros-maximo=0.01
+ * </pre>
+ */
+@ExtendWith(SpringExtension.class)
+@ActiveProfiles("test")
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = {
+        "myfinances.autenticacao.bcrypt-custo=10",
+        // todas as requisicoes saem do mesmo IP e repetem os mesmos emails
+        "myfinances.autenticacao.limite-email.capacidade=1000000",
+        "myfinances.autenticacao.limite-ip.capacidade=1000000",
+        "spring.jpa.properties.hibernate.generate_statistics=false"})
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+public class CargaBenchmarkTest {
+
+    static final String SENHA = "senha-carga";
+    static final String[] DESCRICOES = {"aluguel", "mercado", "farmacia", "salario", "combustivel", "academia"};
+
+    @LocalServerPort
+    int porta;
+
+    @Value("${myfinances.execucao.modo}")
+    String modoExecucao;
+
+    @Autowired
+    UsuarioService usuarioService;
+
+    @Autowired
+    SaldoUsuarioService saldoUsuarioService;
+
+    @Autowired
+    ResumoMensalService resumoMensalService;
+
+    @Autowired
+    TokenService tokenService;
+
+    @Autowired
+    JdbcTemplate jdbcTemplate;
+
+    final List<Usuario> usuarios = new ArrayList<>();
+
+    final List<String> tokens = new ArrayList<>();
+
+    final List<Long> lancamentos = new ArrayList<>();
+
+    RestTemplate restTemplate;
+
+    @Test
+    public void executarCarga() throws Exception{
+        int quantidadeUsuarios = Integer.getInteger("carga.usuarios", 20);
+        int lancamentosPorUsuario = Integer.getInteger("carga.lancamentos", 1000);
+        Map<OperacaoCarga, Integer> mix = OperacaoCarga.lerMix(System.getProperty("carga.mix",
+                "autenticar=5,salvar=20,buscar=40,saldo=25,atualizar_status=10"));
+        GeradorCarga gerador = new GeradorCarga(Integer.getInteger("carga.rps", 200),
+                Long.getLong("carga.duracao", 30), Integer.getInteger("carga.clientes", 64));
+        double errosMaximo = Double.parseDouble(System.getProperty("carga.erros-maximo", "0.01"));
+
+        popular(quantidadeUsuarios, lancamentosPorUsuario);
+        restTemplate = new RestTemplate();
+        restTemplate.setErrorHandler(new ResponseErrorHandler() {
+            @Override
+            public boolean hasError(ClientHttpResponse response) {
+                return false;
+            }
+
+            @Override
+            public void handleError(ClientHttpResponse response) {
+            }
+        });
+
+        // aquecimento (JIT, pool de conexoes, caches) fora da medicao
+        new GeradorCarga(Integer.getInteger("carga.rps", 200), Long.getLong("carga.aquecimento", 10),
+                Integer.getInteger("carga.clientes", 64)).executar(() -> OperacaoCarga.sortear(mix), this::executar);
+        gerador.executar(() -> OperacaoCarga.sortear(mix), this::executar);
+        System.out.println("modo de execucao: " + modoExecucao + ", latencia simulada do banco: "
+                + Long.getLong("carga.latencia-banco-ms", 0) + " ms");
+        gerador.relatar(System.out, new File("target/carga"));
+
+        Assertions.assertThat((double) gerador.totalErros() / gerador.totalRequisicoes()).isLessThanOrEqualTo(errosMaximo);
+    }
+
+    private boolean executar(OperacaoCarga operacao){
+        int indice = ThreadLocalRandom.current().nextInt(usuarios.size());
+        Usuario usuario = usuarios.get(indice);
+        HttpHeaders cabecalhos = new HttpHeaders();
+        cabecalhos.setContentType(MediaType.APPLICATION_JSON);
+        cabecalhos.setBearerAuth(tokens.get(indice));
+        ResponseEntity<String> resposta;
+        switch (operacao){
+            case AUTENTICAR:
+                resposta = restTemplate.postForEntity(url("/api/usuarios/autenticar"), new HttpEntity<>(
+                        "{\"email\":\"" + usuario.getEmail() + "\",\"senha\":\"" + SENHA + "\"}", cabecalhos), String.class);
+                break;
+            case SALVAR:
+                resposta = restTemplate.postForEntity(url("/api/lancamentos"), new HttpEntity<>(
+                        "{\"descricao\":\"carga\",\"mes\":" + (ThreadLocalRandom.current().nextInt(12) + 1)
+                                + ",\"ano\":2019,\"valor\":10,\"tipo\":\"DESPESA\"}", cabecalhos), String.class);
+                break;
+            case BUSCAR:
+                resposta = restTemplate.exchange(url("/api/lancamentos?ano=2019&mes="
+                                + (ThreadLocalRandom.current().nextInt(12) + 1)), HttpMethod.GET,
+                        new HttpEntity<>(cabecalhos), String.class);
+                break;
+            case SALDO:
+                resposta = restTemplate.exchange(url("/api/usuarios/" + usuario.getId() + "/saldo"), HttpMethod.GET,
+                        new HttpEntity<>(cabecalhos), String.class);
+                break;
+            case ATUALIZAR_STATUS:
+                Long id = lancamentos.get(ThreadLocalRandom.current().nextInt(lancamentos.size()));
+                resposta = restTemplate.exchange(url("/api/lancamentos/" + id + "/atualizar-status"), HttpMethod.PUT,
+                        new HttpEntity<>("{\"status\":\"EFETIVADO\"}", cabecalhos), String.class);
+                break;
+            default:
+                throw new IllegalStateException();
+        }
+        return resposta.getStatusCode().is2xxSuccessful();
+    }
+
+    private void popular(int quantidadeUsuarios, int lancamentosPorUsuario){
+        Date hoje = Date.valueOf(LocalDate.now());
+        for(int u = 0; u < quantidadeUsuarios; u++){
+            Usuario usuario = usuarioService.salvarUsuario(Usuario.builder().nome("carga " + u)
+                    .email("carga" + u + "-" + System.nanoTime() + "@email.com").senha(SENHA).build());
+            usuarios.add(usuario);
+            tokens.add(tokenService.gerar(usuario));
+            List<Object[]> linhas = new ArrayList<>(lancamentosPorUsuario);
+            for(int i = 0; i < lancamentosPorUsuario; i++){
+                TipoLancamento tipo = i % 3 == 0 ? TipoLancamento.DESPESA : TipoLancamento.RECEITA;
+                linhas.add(new Object[]{DESCRICOES[i % DESCRICOES.length] + " " + i, i % 12 + 1, 2019,
+                        usuario.getId(), BigDecimal.valueOf(i % 500 + 1), hoje, tipo.name(), "PENDENTE"});
+            }
+            jdbcTemplate.batchUpdate("INSERT INTO financas.lancamento (id, descricao, mes, ano, id_usuario, valor,"
+                    + " data_cadastro, tipo, status, versao) VALUES (NEXT VALUE FOR financas.lancamento_id_seq,"
+                    + " ?, ?, ?, ?, ?, ?, ?, ?, 0)", linhas);
+        }
+        lancamentos.addAll(jdbcTemplate.queryForList("SELECT id FROM financas.lancamento", Long.class));
+        // os lancamentos foram gravados por JDBC: materializa saldos e resumos como se viessem da aplicacao
+        saldoUsuarioService.reconciliar();
+        resumoMensalService.reconstruir();
+    }
+
+    private String url(String caminho){
+        return "http://localhost:" + porta + caminho;
+    }
+
+    /**
+     * Simula um banco lento: cada comando preparado espera {@code carga.latencia-banco-ms} com a conexao em uso.
+     */
+    @TestConfiguration
+    static class BancoLentoConfig {
+
+        @Bean
+        static BeanPostProcessor bancoLento() {
+            long latencia = Long.getLong("carga.latencia-banco-ms", 0);
+            return new BeanPostProcessor() {
+                @Override
+                public Object postProcessAfterInitialization(Object bean, String nome) {
+                    if (latencia <= 0 || !(bean instanceof DataSource)) {
+                        return bean;
+                    }
+                    DataSource dataSource = (DataSource) bean;
+                    return proxy(DataSource.class, dataSource, (metodo, retorno) -> metodo.getName().equals("getConnection")
+                            ? proxy(Connection.class, (Connection) retorno, (metodoConexao, retornoConexao) -> {
+                                if (metodoConexao.getName().startsWith("prepare")) {
+                                    LockSupport.parkNanos(TimeUnit.MILLISECONDS.toNanos(latencia));
+                                }
+                                return retornoConexao;
+                            })
+                            : retorno);
+                }
+            };
+        }
+
+        @SuppressWarnings("unchecked")
+        private static <T> T proxy(Class<T> tipo, T alvo, BiFunction<Method, Object, Object> apos) {
+            return (T) Proxy.newProxyInstance(tipo.getClassLoader(), new Class<?>[]{tipo}, (instancia, metodo, args) -> {
+                try {
+                    return apos.apply(metodo, metodo.invoke(alvo, args));
+                } catch (InvocationTargetException e) {
+                    throw e.getCause();
+                }
+            });
+        }
+    }
+}
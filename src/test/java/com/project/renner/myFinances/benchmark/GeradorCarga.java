@@ -0,0 +1,122 @@
+package com.project.renner.myFinances.benchmark;
+
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+
+import java.io.File;
+import java.io.FileNotFoundException;
+import java.io.PrintStream;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
+
+/**
+ * Gerador de carga em malha aberta: as requisicoes sao disparadas no ritmo da taxa alvo, independente das
+ * respostas, e a latencia e medida a partir do instante previsto de cada disparo. Assim a fila que se forma
+ * quando o servidor nao acompanha entra na medida, em vez de reduzir a carga (omissao coordenada).
+ */
+class GeradorCarga {
+
+    private static final long LATENCIA_MAXIMA_NANOS = TimeUnit.MINUTES.toNanos(1);
+
+    private final int requisicoesPorSegundo;
+
+    private final long duracaoNanos;
+
+    private final int clientes;
+
+    private final Map<OperacaoCarga, Histogram> latencias = new EnumMap<>(OperacaoCarga.class);
+
+    private final Map<OperacaoCarga, AtomicLong> erros = new EnumMap<>(OperacaoCarga.class);
+
+    private long duracaoRealNanos;
+
+    GeradorCarga(int requisicoesPorSegundo, long duracaoSegundos, int clientes) {
+        this.requisicoesPorSegundo = requisicoesPorSegundo;
+        this.duracaoNanos = TimeUnit.SECONDS.toNanos(duracaoSegundos);
+        this.clientes = clientes;
+        for (OperacaoCarga operacao : OperacaoCarga.values()) {
+            latencias.put(operacao, new ConcurrentHistogram(LATENCIA_MAXIMA_NANOS, 3));
+            erros.put(operacao, new AtomicLong());
+        }
+    }
+
+    /**
+     * @param sorteio  escolhe a proxima operacao
+     * @param executor executa a operacao e indica se ela teve sucesso
+     */
+    void executar(Supplier<OperacaoCarga> sorteio, Predicate<OperacaoCarga> executor) throws InterruptedException {
+        ExecutorService pool = Executors.newFixedThreadPool(clientes);
+        long intervalo = TimeUnit.SECONDS.toNanos(1) / requisicoesPorSegundo;
+        long total = duracaoNanos / intervalo;
+        long inicio = System.nanoTime();
+        for (long i = 0; i < total; i++) {
+            long previsto = inicio + i * intervalo;
+            long espera;
+            while ((espera = previsto - System.nanoTime()) > 0) {
+                LockSupport.parkNanos(espera);
+            }
+            OperacaoCarga operacao = sorteio.get();
+            pool.execute(() -> {
+                boolean sucesso;
+                try {
+                    sucesso = executor.test(operacao);
+                } catch (RuntimeException e) {
+                    sucesso = false;
+                }
+                latencias.get(operacao).recordValue(Math.min(System.nanoTime() - previsto, LATENCIA_MAXIMA_NANOS));
+                if (!sucesso) {
+                    erros.get(operacao).incrementAndGet();
+                }
+            });
+        }
+        pool.shutdown();
+        pool.awaitTermination(1, TimeUnit.MINUTES);
+        duracaoRealNanos = System.nanoTime() - inicio;
+    }
+
+    long totalRequisicoes() {
+        return latencias.values().stream().mapToLong(Histogram::getTotalCount).sum();
+    }
+
+    long totalErros() {
+        return erros.values().stream().mapToLong(AtomicLong::get).sum();
+    }
+
+    /**
+     * Imprime o resumo por operacao e grava a distribuicao completa de cada uma em {@code <diretorio>/<operacao>.hgrm},
+     * em milissegundos, no formato lido pelo HdrHistogram plotter.
+     */
+    void relatar(PrintStream saida, File diretorio) throws FileNotFoundException {
+        saida.printf("%d requisicoes em %.1f s (%.1f req/s; alvo %d req/s), %d erro(s)%n", totalRequisicoes(),
+                duracaoRealNanos / 1e9, totalRequisicoes() / (duracaoRealNanos / 1e9), requisicoesPorSegundo,
+                totalErros());
+        saida.printf("%-17s %8s %7s %9s %9s %9s %9s %9s%n", "operacao", "total", "erros", "p50 ms", "p90 ms",
+                "p99 ms", "p99.9 ms", "max ms");
+        diretorio.mkdirs();
+        for (OperacaoCarga operacao : OperacaoCarga.values()) {
+            Histogram histograma = latencias.get(operacao);
+            if (histograma.getTotalCount() == 0) {
+                continue;
+            }
+            saida.printf("%-17s %8d %6.2f%% %9.2f %9.2f %9.2f %9.2f %9.2f%n", operacao, histograma.getTotalCount(),
+                    100.0 * erros.get(operacao).get() / histograma.getTotalCount(),
+                    milissegundos(histograma.getValueAtPercentile(50)), milissegundos(histograma.getValueAtPercentile(90)),
+                    milissegundos(histograma.getValueAtPercentile(99)),
+                    milissegundos(histograma.getValueAtPercentile(99.9)), milissegundos(histograma.getMaxValue()));
+            try (PrintStream arquivo = new PrintStream(new File(diretorio, operacao.name().toLowerCase() + ".hgrm"))) {
+                histograma.outputPercentileDistribution(arquivo, 1e6);
+            }
+        }
+    }
+
+    private static double milissegundos(long nanos) {
+        return nanos / 1e6;
+    }
+}
@@ -0,0 +1,47 @@
+package com.project.renner.myFinances.benchmark;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Operacoes do teste de carga e o sorteio pelo peso de cada uma no mix.
+ */
+enum OperacaoCarga {
+    AUTENTICAR,
+    SALVAR,
+    BUSCAR,
+    SALDO,
+    ATUALIZAR_STATUS;
+
+    /**
+     * Le um mix no formato {@code autenticar=5,salvar=20,buscar=40,saldo=25,atualizar_status=10}; operacoes
+     * ausentes ficam com peso zero.
+     */
+    static Map<OperacaoCarga, Integer> lerMix(String mix) {
+        Map<OperacaoCarga, Integer> pesos = new EnumMap<>(OperacaoCarga.class);
+        for (String item : mix.split(",")) {
+            String[] partes = item.trim().split("=");
+            if (partes.length != 2) {
+                throw new IllegalArgumentException("Item do mix invalido: " + item);
+            }
+            pesos.put(OperacaoCarga.valueOf(partes[0].trim().toUpperCase()), Integer.parseInt(partes[1].trim()));
+        }
+        if (pesos.values().stream().mapToInt(Integer::intValue).sum() <= 0) {
+            throw new IllegalArgumentException("O mix precisa de ao menos uma operacao com peso positivo.");
+        }
+        return pesos;
+    }
+
+    static OperacaoCarga sortear(Map<OperacaoCarga, Integer> pesos) {
+        int total = pesos.values().stream().mapToInt(Integer::intValue).sum();
+        int sorteio = ThreadLocalRandom.current().nextInt(total);
+        for (Map.Entry<OperacaoCarga, Integer> peso : pesos.entrySet()) {
+            sorteio -= peso.getValue();
+            if (sorteio < 0) {
+                return peso.getKey();
+            }
+        }
+        throw new IllegalStateException();
+    }
+}
@@ -0,0 +1,94 @@
+package com.project.renner.myFinances.benchmark;
+
+import com.project.renner.myFinances.enums.TipoLancamento;
+import com.project.renner.myFinances.model.Usuario;
+import com.project.renner.myFinances.repository.LancamentoRepository;
+import com.project.renner.myFinances.repository.UsuarioRepository;
+import com.project.renner.myFinances.repository.UsuarioRepositoryTest;
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.sql.Date;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Supplier;
+
+/**
+ * Compara, sobre 100 mil lancamentos no H2, o calculo de saldo em duas consultas por tipo com a
+ * agregacao condicional em passada unica e com os saldos mensais agrupados.
+ * Execute com {@code mvn test -Dtest=SaldoConsultaBenchmarkTest -Dbenchmark=true}.
+ */
+@ExtendWith(SpringExtension.class)
+@ActiveProfiles("test")
+@SpringBootTest
+@Transactional
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+public class SaldoConsultaBenchmarkTest {
+
+    static final int LANCAMENTOS = 100_000;
+    static final int AQUECIMENTO = 20;
+    static final int ITERACOES = 50;
+
+    @Autowired
+    LancamentoRepository lancamentoRepository;
+
+    @Autowired
+    UsuarioRepository usuarioRepository;
+
+    @Autowired
+    JdbcTemplate jdbcTemplate;
+
+    @Test
+    public void compararConsultasDeSaldo(){
+        Long idUsuario = popular();
+
+        BigDecimal duasConsultas = medir("duas consultas por tipo", () -> {
+            BigDecimal receitas = lancamentoRepository.obterSaldoPorTipoLancamentoUsuario(idUsuario, TipoLancamento.RECEITA);
+            BigDecimal despesas = lancamentoRepository.obterSaldoPorTipoLancamentoUsuario(idUsuario, TipoLancamento.DESPESA);
+            return receitas.subtract(despesas);
+        });
+        BigDecimal passadaUnica = medir("agregacao condicional", () ->
+                lancamentoRepository.obterSaldoConsolidado(idUsuario).getSaldo());
+        medir("saldos mensais agrupados", () ->
+                BigDecimal.valueOf(lancamentoRepository.obterSaldosMensais(idUsuario, 2019).size()));
+
+        Assertions.assertThat(passadaUnica).isEqualByComparingTo(duasConsultas);
+    }
+
+    private Long popular(){
+        Usuario usuario = usuarioRepository.save(UsuarioRepositoryTest.criarUsuario());
+        List<Object[]> linhas = new ArrayList<>(LANCAMENTOS);
+        for(int i = 0; i < LANCAMENTOS; i++){
+            TipoLancamento tipo = i % 3 == 0 ? TipoLancamento.DESPESA : TipoLancamento.RECEITA;
+            linhas.add(new Object[]{"lancamento " + i, i % 12 + 1, 2019, usuario.getId(), BigDecimal.valueOf(i % 500 + 1),
+                    Date.valueOf(LocalDate.now()), tipo.name(), "PENDENTE"});
+        }
+        jdbcTemplate.batchUpdate("INSERT INTO financas.lancamento (id, descricao, mes, ano, id_usuario, valor," +
+                " data_cadastro, tipo, status) VALUES (NEXT VALUE FOR financas.lancamento_id_seq, ?, ?, ?, ?, ?, ?, ?, ?)", linhas);
+        return usuario.getId();
+    }
+
+    private static BigDecimal medir(String nome, Supplier<BigDecimal> consulta){
+        BigDecimal resultado = null;
+        for(int i = 0; i < AQUECIMENTO; i++){
+            resultado = consulta.get();
+        }
+        long inicio = System.nanoTime();
+        for(int i = 0; i < ITERACOES; i++){
+            resultado = consulta.get();
+        }
+        double media = (System.nanoTime() - inicio) / 1_000_000.0 / ITERACOES;
+        System.out.printf("%-28s %8.3f ms/op%n", nome, media);
+        return resultado;
+    }
+}
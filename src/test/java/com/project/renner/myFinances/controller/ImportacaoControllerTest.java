@@ -0,0 +1,104 @@
+package com.project.renner.myFinances.controller;
+
+import com.project.renner.myFinances.dto.ImportacaoDTO;
+import com.project.renner.myFinances.enums.FormatoExtrato;
+import com.project.renner.myFinances.enums.StatusImportacao;
+import com.project.renner.myFinances.seguranca.TokenAutenticacaoFilter;
+import com.project.renner.myFinances.seguranca.UsuarioAutenticado;
+import com.project.renner.myFinances.service.ImportacaoService;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mockito;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.http.MediaType;
+import org.springframework.mock.web.MockMultipartFile;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.request.MockMvcRequestBuilders;
+import org.springframework.test.web.servlet.result.MockMvcResultMatchers;
+
+import java.util.Optional;
+
+@ExtendWith(SpringExtension.class)
+@ActiveProfiles("test")
+@WebMvcTest(controllers = ImportacaoController.class)
+@AutoConfigureMockMvc
+public class ImportacaoControllerTest {
+    static final String API = "/api/importacoes";
+
+    @Autowired
+    MockMvc mvc;
+
+    @MockBean
+    ImportacaoService importacaoService;
+
+    @Test
+    public void deveIniciarAImportacaoPeloFormatoDaExtensao() throws Exception{
+        //cenario
+        ImportacaoDTO importacao = ImportacaoDTO.builder().id("abc").usuario(1l)
+                .formato(FormatoExtrato.OFX).status(StatusImportacao.EM_ANDAMENTO).build();
+        Mockito.when(importacaoService.importar(Mockito.eq(1l), Mockito.eq(FormatoExtrato.OFX), Mockito.isNull(),
+                Mockito.eq("extrato.ofx"), Mockito.any())).thenReturn(importacao);
+        MockMultipartFile arquivo = new MockMultipartFile("arquivo", "extrato.ofx", "application/x-ofx", "<OFX>".getBytes());
+
+        //execucao e verificacao
+        mvc.perform(MockMvcRequestBuilders.multipart(API).file(arquivo).param("usuario", "1")
+                        .accept(MediaType.APPLICATION_JSON))
+                .andExpect(MockMvcResultMatchers.status().isAccepted())
+                .andExpect(MockMvcResultMatchers.jsonPath("id").value("abc"))
+                .andExpect(MockMvcResultMatchers.jsonPath("status").value("EM_ANDAMENTO"));
+    }
+
+    @Test
+    public void deveImportarParaOUsuarioDoToken() throws Exception{
+        //cenario
+        ImportacaoDTO importacao = ImportacaoDTO.builder().id("abc").usuario(2l)
+                .formato(FormatoExtrato.CSV).status(StatusImportacao.EM_ANDAMENTO).build();
+        Mockito.when(importacaoService.importar(Mockito.eq(2l), Mockito.eq(FormatoExtrato.CSV), Mockito.isNull(),
+                Mockito.eq("extrato.csv"), Mockito.any())).thenReturn(importacao);
+        MockMultipartFile arquivo = new MockMultipartFile("arquivo", "extrato.csv", "text/csv", "data;valor".getBytes());
+        UsuarioAutenticado autenticado = UsuarioAutenticado.builder().id(2l).email("email@email.com").build();
+
+        //execucao e verificacao
+        mvc.perform(MockMvcRequestBuilders.multipart(API).file(arquivo).param("usuario", "1")
+                        .requestAttr(TokenAutenticacaoFilter.ATRIBUTO_USUARIO, autenticado)
+                        .accept(MediaType.APPLICATION_JSON))
+                .andExpect(MockMvcResultMatchers.status().isAccepted())
+                .andExpect(MockMvcResultMatchers.jsonPath("usuario").value(2));
+
+        Mockito.verify(importacaoService, Mockito.never()).importar(Mockito.eq(1l), Mockito.any(), Mockito.any(),
+                Mockito.any(), Mockito.any());
+    }
+
+    @Test
+    public void deveRetornarBadRequestSemUsuarioNemToken() throws Exception{
+        MockMultipartFile arquivo = new MockMultipartFile("arquivo", "extrato.csv", "text/csv", "data;valor".getBytes());
+
+        mvc.perform(MockMvcRequestBuilders.multipart(API).file(arquivo))
+                .andExpect(MockMvcResultMatchers.status().isBadRequest());
+
+        Mockito.verifyNoInteractions(importacaoService);
+    }
+
+    @Test
+    public void deveRetornarBadRequestParaUmFormatoDesconhecido() throws Exception{
+        MockMultipartFile arquivo = new MockMultipartFile("arquivo", "extrato.pdf", "application/pdf", new byte[]{1});
+
+        mvc.perform(MockMvcRequestBuilders.multipart(API).file(arquivo).param("usuario", "1"))
+                .andExpect(MockMvcResultMatchers.status().isBadRequest());
+
+        Mockito.verifyNoInteractions(importacaoService);
+    }
+
+    @Test
+    public void deveRetornarNotFoundParaUmaImportacaoInexistente() throws Exception{
+        Mockito.when(importacaoService.obterPorId("xyz")).thenReturn(Optional.empty());
+
+        mvc.perform(MockMvcRequestBuilders.get(API + "/xyz"))
+                .andExpect(MockMvcResultMatchers.status().isNotFound());
+    }
+}
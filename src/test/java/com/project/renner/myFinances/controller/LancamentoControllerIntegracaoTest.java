@@ -0,0 +1,463 @@
+package com.project.renner.myFinances.controller;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.project.renner.myFinances.dto.LancamentoDTO;
+import com.project.renner.myFinances.enums.StatusLancamento;
+import com.project.renner.myFinances.model.Lancamento;
+import com.project.renner.myFinances.model.Usuario;
+import com.project.renner.myFinances.repository.LancamentoRepositoryTest;
+import com.project.renner.myFinances.repository.ResumoMensalRepository;
+import com.project.renner.myFinances.repository.SaldoUsuarioRepository;
+import com.project.renner.myFinances.repository.UsuarioRepository;
+import com.project.renner.myFinances.repository.UsuarioRepositoryTest;
+import com.project.renner.myFinances.seguranca.TokenService;
+import com.project.renner.myFinances.service.LancamentoService;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.assertj.core.api.Assertions;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+import org.springframework.test.web.servlet.request.MockMvcRequestBuilders;
+import org.springframework.test.web.servlet.result.MockMvcResultMatchers;
+
+import javax.persistence.EntityManagerFactory;
+import java.io.BufferedReader;
+import java.io.ByteArrayInputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.stream.Collectors;
+import java.util.zip.GZIPInputStream;
+
+/**
+ * Confere quantos comandos SQL cada requisicao emite, com os dados ja gravados em transacoes proprias.
+ */
+@ExtendWith(SpringExtension.class)
+@ActiveProfiles("test")
+@SpringBootTest
+@AutoConfigureMockMvc
+public class LancamentoControllerIntegracaoTest {
+    static final String API = "/api/lancamentos";
+
+    @Autowired
+    MockMvc mvc;
+
+    @Autowired
+    LancamentoService lancamentoService;
+
+    @Autowired
+    UsuarioRepository usuarioRepository;
+
+    @Autowired
+    SaldoUsuarioRepository saldoUsuarioRepository;
+
+    @Autowired
+    ResumoMensalRepository resumoMensalRepository;
+
+    @Autowired
+    EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    ObjectMapper objectMapper;
+
+    @Autowired
+    TokenService tokenService;
+
+    @Autowired
+    MeterRegistry registry;
+
+    Usuario usuario;
+
+    Lancamento lancamento;
+
+    @BeforeEach
+    public void setUp(){
+        usuario = usuarioRepository.save(UsuarioRepositoryTest.criarUsuario());
+        lancamento = LancamentoRepositoryTest.criarLancamento();
+        lancamento.setUsuario(usuario);
+        lancamento = lancamentoService.salvar(lancamento);
+    }
+
+    @AfterEach
+    public void tearDown(){
+        lancamentoService.deletar(lancamento.getId(), null);
+        saldoUsuarioRepository.deleteById(usuario.getId());
+        resumoMensalRepository.deleteAll(resumoMensalRepository.findAll().stream()
+                .filter(resumo -> usuario.getId().equals(resumo.getIdUsuario())).collect(Collectors.toList()));
+        usuarioRepository.delete(usuario);
+    }
+
+    @Test
+    public void deveObterOLancamentoComUmaUnicaConsulta() throws Exception{
+        Statistics estatisticas = estatisticas();
+
+        mvc.perform(MockMvcRequestBuilders.get(API + "/" + lancamento.getId()).accept(MediaType.APPLICATION_JSON))
+                .andExpect(MockMvcResultMatchers.status().isOk())
+                .andExpect(MockMvcResultMatchers.jsonPath("usuario").value(usuario.getId()));
+
+        Assertions.assertThat(estatisticas.getPrepareStatementCount()).isEqualTo(1);
+        Assertions.assertThat(estatisticas.getEntityLoadCount()).isZero();
+    }
+
+    @Test
+    public void deveBuscarLancamentosSemCarregarEntidades() throws Exception{
+        Statistics estatisticas = estatisticas();
+
+        mvc.perform(MockMvcRequestBuilders.get(API).param("usuario", usuario.getId().toString())
+                        .accept(MediaType.APPLICATION_JSON))
+                .andExpect(MockMvcResultMatchers.status().isOk())
+                .andExpect(MockMvcResultMatchers.jsonPath("conteudo[0].id").value(lancamento.getId()));
+
+        // usuario do filtro + pagina projetada
+        Assertions.assertThat(estatisticas.getPrepareStatementCount()).isEqualTo(2);
+        Assertions.assertThat(estatisticas.getEntityLoadCount()).isEqualTo(1);
+    }
+
+    @Test
+    public void deveLerOLancamentoEOUsuarioDoCacheDeSegundoNivel(){
+        // o usuario, inserido com id gerado pelo banco, so entra no cache na primeira leitura
+        lancamentoService.obterPorId(lancamento.getId());
+        usuarioRepository.findById(usuario.getId());
+        Statistics estatisticas = estatisticas();
+
+        Lancamento lido = lancamentoService.obterPorId(lancamento.getId()).get();
+        usuarioRepository.findById(usuario.getId());
+
+        Assertions.assertThat(lido.getDescricao()).isEqualTo(lancamento.getDescricao());
+        Assertions.assertThat(estatisticas.getPrepareStatementCount()).isZero();
+        Assertions.assertThat(estatisticas.getSecondLevelCacheHitCount()).isEqualTo(2);
+
+        // a transicao altera so esse lancamento na regiao: a proxima leitura ve o novo status sem ir ao banco
+        lancamentoService.transicionarStatus(lancamento.getId(), StatusLancamento.EFETIVADO);
+        estatisticas.clear();
+        Assertions.assertThat(lancamentoService.obterPorId(lancamento.getId()).get().getStatus())
+                .isEqualTo(StatusLancamento.EFETIVADO);
+        usuarioRepository.findById(usuario.getId());
+        Assertions.assertThat(estatisticas.getPrepareStatementCount()).isZero();
+    }
+
+    @Test
+    public void deveAtualizarEDeletarSemConsultarOLancamentoAntes() throws Exception{
+        lancamentoService.obterPorId(lancamento.getId());
+        usuarioRepository.findById(usuario.getId());
+        Statistics estatisticas = estatisticas();
+
+        mvc.perform(MockMvcRequestBuilders.put(API + "/" + lancamento.getId())
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"descricao\":\"outra descricao\",\"ano\":" + lancamento.getAno() + ",\"mes\":"
+                                + lancamento.getMes() + ",\"valor\":" + lancamento.getValor() + ",\"tipo\":\""
+                                + lancamento.getTipo() + "\",\"usuario\":" + usuario.getId() + "}"))
+                .andExpect(MockMvcResultMatchers.status().isOk())
+                .andExpect(MockMvcResultMatchers.jsonPath("status").value(lancamento.getStatus().name()))
+                .andExpect(MockMvcResultMatchers.jsonPath("versao").value(lancamento.getVersao() + 1));
+
+        // so o UPDATE condicionado a versao: o lancamento e o usuario vem do cache de segundo nivel
+        Assertions.assertThat(estatisticas.getPrepareStatementCount()).isEqualTo(1);
+        Assertions.assertThat(estatisticas.getEntityUpdateCount()).isEqualTo(1);
+        Assertions.assertThat(lancamentoService.obterPorId(lancamento.getId()).get().getDataCadastro())
+                .isEqualTo(lancamento.getDataCadastro());
+        estatisticas.clear();
+
+        mvc.perform(MockMvcRequestBuilders.delete(API + "/" + lancamento.getId()))
+                .andExpect(MockMvcResultMatchers.status().isNoContent());
+
+        Assertions.assertThat(estatisticas.getEntityLoadCount()).isZero();
+        Assertions.assertThat(estatisticas.getEntityDeleteCount()).isEqualTo(1);
+        Assertions.assertThat(lancamentoService.obterPorId(lancamento.getId())).isEmpty();
+    }
+
+    @Test
+    public void deveResponderOsErrosComCodigoEContarPorCodigo() throws Exception{
+        double antes = registry.get(TratadorErros.METRICA).tags("codigo", "VALIDACAO").counter().count();
+
+        mvc.perform(MockMvcRequestBuilders.post(API).contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"descricao\":\" \",\"mes\":13,\"ano\":2019,\"valor\":10,\"tipo\":\"RECEITA\","
+                                + "\"usuario\":" + usuario.getId() + "}"))
+                .andExpect(MockMvcResultMatchers.status().isBadRequest())
+                .andExpect(MockMvcResultMatchers.jsonPath("codigo").value("VALIDACAO"))
+                .andExpect(MockMvcResultMatchers.jsonPath("mensagem").value("informe uma Descricao valida."))
+                .andExpect(MockMvcResultMatchers.jsonPath("detalhes[1]").value("Informe um Mes valido"));
+
+        Assertions.assertThat(registry.get(TratadorErros.METRICA).tags("codigo", "VALIDACAO").counter().count())
+                .isEqualTo(antes + 1);
+    }
+
+    @Test
+    public void deveGuardarOSaldoEmCacheAteOProximoMovimentoDoUsuario() throws Exception{
+        String saldoUsuario = "/api/usuarios/" + usuario.getId() + "/saldo";
+        mvc.perform(MockMvcRequestBuilders.get(saldoUsuario)).andExpect(MockMvcResultMatchers.status().isOk());
+        mvc.perform(MockMvcRequestBuilders.get(saldoUsuario + "/mensal").param("ano", lancamento.getAno().toString()))
+                .andExpect(MockMvcResultMatchers.status().isOk());
+        Statistics estatisticas = estatisticas();
+
+        mvc.perform(MockMvcRequestBuilders.get(saldoUsuario))
+                .andExpect(MockMvcResultMatchers.status().isOk())
+                .andExpect(MockMvcResultMatchers.jsonPath("$").value(10.0));
+        mvc.perform(MockMvcRequestBuilders.get(saldoUsuario + "/mensal").param("ano", lancamento.getAno().toString()))
+                .andExpect(MockMvcResultMatchers.status().isOk())
+                .andExpect(MockMvcResultMatchers.jsonPath("[0].saldo").value(10));
+        Assertions.assertThat(estatisticas.getPrepareStatementCount()).isZero();
+
+        mvc.perform(MockMvcRequestBuilders.put(API + "/" + lancamento.getId())
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"descricao\":\"aluguel\",\"ano\":2019,\"mes\":1,\"valor\":25,\"tipo\":\"RECEITA\","
+                                + "\"usuario\":" + usuario.getId() + "}"))
+                .andExpect(MockMvcResultMatchers.status().isOk());
+
+        mvc.perform(MockMvcRequestBuilders.get(saldoUsuario))
+                .andExpect(MockMvcResultMatchers.jsonPath("$").value(25.0));
+        mvc.perform(MockMvcRequestBuilders.get(saldoUsuario + "/mensal").param("ano", lancamento.getAno().toString()))
+                .andExpect(MockMvcResultMatchers.jsonPath("[0].saldo").value(25));
+
+        // mudar so o mes nao altera o saldo total, mas sim o mensal
+        mvc.perform(MockMvcRequestBuilders.put(API + "/" + lancamento.getId())
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"descricao\":\"aluguel\",\"ano\":2019,\"mes\":2,\"valor\":25,\"tipo\":\"RECEITA\","
+                                + "\"usuario\":" + usuario.getId() + "}"))
+                .andExpect(MockMvcResultMatchers.status().isOk());
+
+        mvc.perform(MockMvcRequestBuilders.get(saldoUsuario + "/mensal").param("ano", lancamento.getAno().toString()))
+                .andExpect(MockMvcResultMatchers.jsonPath("[0].saldo").value(0))
+                .andExpect(MockMvcResultMatchers.jsonPath("[1].saldo").value(25));
+    }
+
+    @Test
+    public void deveBuscarPorPaginaOrdenadaSemConsultaDeContagem() throws Exception{
+        Statistics estatisticas = estatisticas();
+
+        mvc.perform(MockMvcRequestBuilders.get(API).param("usuario", usuario.getId().toString())
+                        .param("pagina", "0").param("tamanho", "10").param("ordem", "valor,desc")
+                        .accept(MediaType.APPLICATION_JSON))
+                .andExpect(MockMvcResultMatchers.status().isOk())
+                .andExpect(MockMvcResultMatchers.jsonPath("conteudo[0].id").value(lancamento.getId()))
+                .andExpect(MockMvcResultMatchers.jsonPath("temProximo").value(false))
+                .andExpect(MockMvcResultMatchers.jsonPath("pagina").value(0))
+                .andExpect(MockMvcResultMatchers.jsonPath("total").doesNotExist());
+
+        // usuario do filtro + pagina projetada
+        Assertions.assertThat(estatisticas.getPrepareStatementCount()).isEqualTo(2);
+
+        mvc.perform(MockMvcRequestBuilders.get(API).param("usuario", usuario.getId().toString())
+                        .param("ordem", "ano").param("total", "true"))
+                .andExpect(MockMvcResultMatchers.status().isOk())
+                .andExpect(MockMvcResultMatchers.jsonPath("total").value(1));
+
+        mvc.perform(MockMvcRequestBuilders.get(API).param("usuario", usuario.getId().toString())
+                        .param("ordem", "descricao"))
+                .andExpect(MockMvcResultMatchers.status().isBadRequest());
+
+        mvc.perform(MockMvcRequestBuilders.get(API).param("usuario", usuario.getId().toString())
+                        .param("cursor", "2019:1:1").param("pagina", "1"))
+                .andExpect(MockMvcResultMatchers.status().isBadRequest());
+
+        mvc.perform(MockMvcRequestBuilders.get(API).param("usuario", usuario.getId().toString())
+                        .param("pagina", String.valueOf(Integer.MAX_VALUE)).param("tamanho", "10"))
+                .andExpect(MockMvcResultMatchers.status().isBadRequest())
+                .andExpect(MockMvcResultMatchers.content().string("Com tamanho 10, a pagina deve ser no maximo "
+                        + Integer.MAX_VALUE / 10 + "."));
+
+        mvc.perform(MockMvcRequestBuilders.get(API).param("usuario", usuario.getId().toString())
+                        .param("pagina", String.valueOf(Integer.MAX_VALUE / 10)).param("tamanho", "10"))
+                .andExpect(MockMvcResultMatchers.status().isOk())
+                .andExpect(MockMvcResultMatchers.jsonPath("conteudo").isEmpty());
+    }
+
+    @Test
+    public void deveBuscarOsLancamentosDoUsuarioDoTokenSemConsultarOUsuario() throws Exception{
+        String token = tokenService.gerar(usuario);
+        Statistics estatisticas = estatisticas();
+
+        mvc.perform(MockMvcRequestBuilders.get(API).header(HttpHeaders.AUTHORIZATION, "Bearer " + token)
+                        .accept(MediaType.APPLICATION_JSON))
+                .andExpect(MockMvcResultMatchers.status().isOk())
+                .andExpect(MockMvcResultMatchers.jsonPath("conteudo[0].id").value(lancamento.getId()));
+
+        // somente a pagina projetada
+        Assertions.assertThat(estatisticas.getPrepareStatementCount()).isEqualTo(1);
+        Assertions.assertThat(estatisticas.getEntityLoadCount()).isZero();
+    }
+
+    @Test
+    public void deveRecusarUmTokenInvalido() throws Exception{
+        String token = tokenService.gerar(usuario);
+
+        mvc.perform(MockMvcRequestBuilders.get(API).header(HttpHeaders.AUTHORIZATION, "Bearer " + token + "x")
+                        .param("usuario", usuario.getId().toString()))
+                .andExpect(MockMvcResultMatchers.status().isUnauthorized());
+    }
+
+    @Test
+    public void deveGravarOLoteNoUsuarioDoTokenSemConsultarOUsuario() throws Exception{
+        Statistics estatisticas = estatisticas();
+
+        mvc.perform(MockMvcRequestBuilders.post(API + "/lote")
+                        .header(HttpHeaders.AUTHORIZATION, "Bearer " + tokenService.gerar(usuario))
+                        .contentType("application/x-ndjson")
+                        .content("{\"descricao\":\"lote\",\"ano\":2019,\"mes\":1,\"valor\":5,\"tipo\":\"RECEITA\","
+                                + "\"usuario\":" + (usuario.getId() + 1000) + "}\n"))
+                .andExpect(MockMvcResultMatchers.status().isOk())
+                .andExpect(MockMvcResultMatchers.jsonPath("inseridos").value(1));
+
+        Assertions.assertThat(estatisticas.getEntityLoadCount()).isZero();
+        Lancamento filtro = new Lancamento();
+        filtro.setUsuario(usuario);
+        LancamentoDTO gravado = lancamentoService.buscar(filtro, null, 10).getContent().stream()
+                .filter(dto -> "lote".equals(dto.getDescricao())).findFirst().get();
+        lancamentoService.deletar(gravado.getId(), usuario.getId());
+    }
+
+    @Test
+    public void naoDevePularAsTransicoesDeStatusNaAtualizacao() throws Exception{
+        lancamentoService.transicionarStatus(lancamento.getId(), StatusLancamento.CANCELADO);
+
+        mvc.perform(MockMvcRequestBuilders.put(API + "/" + lancamento.getId())
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"descricao\":\"aluguel\",\"ano\":" + lancamento.getAno() + ",\"mes\":"
+                                + lancamento.getMes() + ",\"valor\":" + lancamento.getValor() + ",\"tipo\":\""
+                                + lancamento.getTipo() + "\",\"status\":\"EFETIVADO\",\"usuario\":" + usuario.getId() + "}"))
+                .andExpect(MockMvcResultMatchers.status().isConflict())
+                .andExpect(MockMvcResultMatchers.jsonPath("codigo").value("TRANSICAO_STATUS_INVALIDA"));
+
+        Assertions.assertThat(lancamentoService.obterPorId(lancamento.getId()).get().getStatus())
+                .isEqualTo(StatusLancamento.CANCELADO);
+    }
+
+    @Test
+    public void naoDeveAtualizarOLancamentoDeOutroUsuario() throws Exception{
+        Usuario outro = UsuarioRepositoryTest.criarUsuario();
+        outro.setEmail("outro@email.com");
+        outro = usuarioRepository.save(outro);
+        try {
+            mvc.perform(MockMvcRequestBuilders.put(API + "/" + lancamento.getId())
+                            .header(HttpHeaders.AUTHORIZATION, "Bearer " + tokenService.gerar(outro))
+                            .contentType(MediaType.APPLICATION_JSON)
+                            .content("{\"descricao\":\"tomado\",\"ano\":" + lancamento.getAno() + ",\"mes\":"
+                                    + lancamento.getMes() + ",\"valor\":" + lancamento.getValor() + ",\"tipo\":\""
+                                    + lancamento.getTipo() + "\"}"))
+                    .andExpect(MockMvcResultMatchers.status().isBadRequest())
+                    .andExpect(MockMvcResultMatchers.jsonPath("mensagem").value("Lancamento nao encontrado na base de dados."));
+
+            mvc.perform(MockMvcRequestBuilders.put(API + "/" + lancamento.getId() + "/atualizar-status")
+                            .header(HttpHeaders.AUTHORIZATION, "Bearer " + tokenService.gerar(outro))
+                            .contentType(MediaType.APPLICATION_JSON).content("{\"status\":\"CANCELADO\"}"))
+                    .andExpect(MockMvcResultMatchers.status().isBadRequest());
+
+            Lancamento lido = lancamentoService.obterPorId(lancamento.getId()).get();
+            Assertions.assertThat(lido.getUsuario().getId()).isEqualTo(usuario.getId());
+            Assertions.assertThat(lido.getDescricao()).isEqualTo(lancamento.getDescricao());
+            Assertions.assertThat(lido.getStatus()).isEqualTo(StatusLancamento.PENDENTE);
+        } finally {
+            usuarioRepository.delete(outro);
+        }
+    }
+
+    @Test
+    public void deveRepetirARespostaDeUmaTransicaoComAMesmaChaveDeIdempotencia() throws Exception{
+        MockHttpServletRequestBuilder efetivar = MockMvcRequestBuilders.put(API + "/" + lancamento.getId() + "/atualizar-status")
+                .header("Idempotency-Key", "chave-" + lancamento.getId())
+                .contentType(MediaType.APPLICATION_JSON).content("{\"status\":\"EFETIVADO\"}");
+        Statistics estatisticas = estatisticas();
+
+        mvc.perform(efetivar)
+                .andExpect(MockMvcResultMatchers.status().isOk())
+                .andExpect(MockMvcResultMatchers.jsonPath("status").value("EFETIVADO"));
+        long comandos = estatisticas.getPrepareStatementCount();
+        Assertions.assertThat(comandos).isPositive();
+
+        // repeticao respondida sem ir ao banco
+        mvc.perform(efetivar)
+                .andExpect(MockMvcResultMatchers.status().isOk())
+                .andExpect(MockMvcResultMatchers.jsonPath("status").value("EFETIVADO"));
+        Assertions.assertThat(estatisticas.getPrepareStatementCount()).isEqualTo(comandos);
+
+        mvc.perform(MockMvcRequestBuilders.put(API + "/" + lancamento.getId() + "/atualizar-status")
+                        .contentType(MediaType.APPLICATION_JSON).content("{\"status\":\"CANCELADO\"}"))
+                .andExpect(MockMvcResultMatchers.status().isConflict());
+    }
+
+    @Test
+    public void naoDeveGuardarAsRespostasDeErroPelaChaveDeIdempotencia() throws Exception{
+        MockHttpServletRequestBuilder inexistente = MockMvcRequestBuilders.put(API + "/-1/atualizar-status")
+                .header("Idempotency-Key", "chave-inexistente")
+                .contentType(MediaType.APPLICATION_JSON).content("{\"status\":\"EFETIVADO\"}");
+        mvc.perform(inexistente).andExpect(MockMvcResultMatchers.status().isBadRequest());
+        Statistics estatisticas = estatisticas();
+
+        // a repeticao vai de novo ao banco
+        mvc.perform(inexistente).andExpect(MockMvcResultMatchers.status().isBadRequest());
+        Assertions.assertThat(estatisticas.getPrepareStatementCount()).isPositive();
+    }
+
+    @Test
+    public void deveEfetivarOsLancamentosDoUsuarioSemCarregarEntidades() throws Exception{
+        Statistics estatisticas = estatisticas();
+
+        mvc.perform(MockMvcRequestBuilders.put(API + "/status")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"usuario\":" + usuario.getId() + ",\"statusAtual\":\"PENDENTE\",\"status\":\"EFETIVADO\"}"))
+                .andExpect(MockMvcResultMatchers.status().isOk())
+                .andExpect(MockMvcResultMatchers.jsonPath("status").value("EFETIVADO"))
+                .andExpect(MockMvcResultMatchers.jsonPath("atualizados").value(1));
+
+        Assertions.assertThat(estatisticas.getEntityLoadCount()).isZero();
+
+        mvc.perform(MockMvcRequestBuilders.get("/api/usuarios/" + usuario.getId() + "/resumo")
+                        .param("ano", lancamento.getAno().toString()))
+                .andExpect(MockMvcResultMatchers.status().isOk())
+                .andExpect(MockMvcResultMatchers.jsonPath("$.length()").value(1))
+                .andExpect(MockMvcResultMatchers.jsonPath("[0].status").value("EFETIVADO"))
+                .andExpect(MockMvcResultMatchers.jsonPath("[0].quantidade").value(1));
+
+        mvc.perform(MockMvcRequestBuilders.put(API + "/status")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"ids\":[" + lancamento.getId() + "],\"statusAtual\":\"EFETIVADO\",\"status\":\"CANCELADO\"}"))
+                .andExpect(MockMvcResultMatchers.status().isConflict());
+    }
+
+    @Test
+    public void deveExportarOsLancamentosEmCsv() throws Exception{
+        String csv = mvc.perform(MockMvcRequestBuilders.get(API + "/export").param("usuario", usuario.getId().toString()))
+                .andExpect(MockMvcResultMatchers.status().isOk())
+                .andExpect(MockMvcResultMatchers.header().doesNotExist(HttpHeaders.CONTENT_ENCODING))
+                .andReturn().getResponse().getContentAsString(StandardCharsets.UTF_8);
+
+        Assertions.assertThat(csv.split("\n")).containsExactly("id;descricao;mes;ano;valor;tipo;status",
+                lancamento.getId() + ";" + lancamento.getDescricao() + ";" + lancamento.getMes() + ";"
+                        + lancamento.getAno() + ";" + lancamento.getValor().setScale(2).toPlainString() + ";"
+                        + lancamento.getTipo() + ";" + lancamento.getStatus());
+    }
+
+    @Test
+    public void deveExportarOsLancamentosEmNdjsonComGzip() throws Exception{
+        byte[] corpo = mvc.perform(MockMvcRequestBuilders.get(API + "/export").param("usuario", usuario.getId().toString())
+                        .param("formato", "ndjson").header(HttpHeaders.ACCEPT_ENCODING, "gzip, deflate"))
+                .andExpect(MockMvcResultMatchers.status().isOk())
+                .andExpect(MockMvcResultMatchers.header().string(HttpHeaders.CONTENT_ENCODING, "gzip"))
+                .andReturn().getResponse().getContentAsByteArray();
+
+        try (BufferedReader linhas = new BufferedReader(new InputStreamReader(
+                new GZIPInputStream(new ByteArrayInputStream(corpo)), StandardCharsets.UTF_8))) {
+            LancamentoDTO exportado = objectMapper.readValue(linhas.readLine(), LancamentoDTO.class);
+            Assertions.assertThat(exportado.getId()).isEqualTo(lancamento.getId());
+            Assertions.assertThat(exportado.getUsuario()).isEqualTo(usuario.getId());
+            Assertions.assertThat(linhas.readLine()).isNull();
+        }
+    }
+
+    private Statistics estatisticas(){
+        Statistics estatisticas = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        estatisticas.clear();
+        return estatisticas;
+    }
+}
@@ -0,0 +1,116 @@
+package com.project.renner.myFinances.controller;
+
+import com.project.renner.myFinances.dto.CursorLancamento;
+import com.project.renner.myFinances.dto.LancamentoDTO;
+import com.project.renner.myFinances.dto.ResultadoLoteDTO;
+import com.project.renner.myFinances.model.Lancamento;
+import com.project.renner.myFinances.model.Usuario;
+import com.project.renner.myFinances.service.ExportacaoService;
+import com.project.renner.myFinances.service.LancamentoService;
+import com.project.renner.myFinances.service.LoteLancamentoService;
+import com.project.renner.myFinances.service.UsuarioService;
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mockito;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.SliceImpl;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+import org.springframework.test.web.servlet.request.MockMvcRequestBuilders;
+import org.springframework.test.web.servlet.result.MockMvcResultMatchers;
+
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.Optional;
+
+@ExtendWith(SpringExtension.class)
+@ActiveProfiles("test")
+@WebMvcTest(controllers = LancamentoController.class)
+@AutoConfigureMockMvc
+public class LancamentoControllerTest {
+    public final String API = "/api/lancamentos";
+    static final MediaType JSON = MediaType.APPLICATION_JSON;
+
+    @Autowired
+    MockMvc mvc;
+
+    @MockBean
+    UsuarioService usuarioService;
+
+    @MockBean
+    LancamentoService lancamentoService;
+
+    @MockBean
+    LoteLancamentoService loteLancamentoService;
+
+    @MockBean
+    ExportacaoService exportacaoService;
+
+    @Test
+    public void deveBuscarLancamentosPaginadosPorCursor() throws Exception{
+        Usuario usuario = Usuario.builder().id(1l).build();
+        LancamentoDTO lancamento = LancamentoDTO.builder().id(7l).ano(2019).mes(1).usuario(1l).build();
+
+        Mockito.when(usuarioService.obterPorId(1l)).thenReturn(Optional.of(usuario));
+        Mockito.when(lancamentoService.buscar(Mockito.any(Lancamento.class),
+                        Mockito.eq(new CursorLancamento(2019, 1, 3l)), Mockito.eq(1)))
+                .thenReturn(new SliceImpl<>(Arrays.asList(lancamento), PageRequest.of(0, 1), true));
+
+        //execucao e verificacao
+
+        MockHttpServletRequestBuilder request = MockMvcRequestBuilders.get(API)
+                .param("usuario", "1").param("cursor", "2019:1:3").param("tamanho", "1").accept(JSON);
+
+        mvc.perform(request)
+                .andExpect(MockMvcResultMatchers.status().isOk())
+                .andExpect(MockMvcResultMatchers.jsonPath("conteudo[0].id").value(7))
+                .andExpect(MockMvcResultMatchers.jsonPath("conteudo[0].usuario").value(1))
+                .andExpect(MockMvcResultMatchers.jsonPath("temProximo").value(true))
+                .andExpect(MockMvcResultMatchers.jsonPath("proximoCursor").value("2019:1:7"));
+    }
+
+    @Test
+    public void deveRetornarBadRequestParaCursorInvalido() throws Exception{
+        Mockito.when(usuarioService.obterPorId(1l)).thenReturn(Optional.of(Usuario.builder().id(1l).build()));
+
+        //execucao e verificacao
+
+        MockHttpServletRequestBuilder request = MockMvcRequestBuilders.get(API)
+                .param("usuario", "1").param("cursor", "abc").accept(JSON);
+
+        mvc.perform(request)
+                .andExpect(MockMvcResultMatchers.status().isBadRequest());
+    }
+
+    @Test
+    public void deveReceberUmLoteEmNdjson() throws Exception{
+        ResultadoLoteDTO resultado = ResultadoLoteDTO.builder().recebidos(2).inseridos(1).build();
+        resultado.adicionarErro(2, "Informe um Valor valido.");
+        Mockito.when(loteLancamentoService.salvar(Mockito.any())).thenAnswer(invocacao -> {
+            Iterator<LancamentoDTO> lancamentos = invocacao.getArgument(0);
+            Assertions.assertThat(lancamentos.next().getDescricao()).isEqualTo("a");
+            Assertions.assertThat(lancamentos.next().getDescricao()).isEqualTo("b");
+            Assertions.assertThat(lancamentos.hasNext()).isFalse();
+            return resultado;
+        });
+
+        //execucao e verificacao
+
+        MockHttpServletRequestBuilder request = MockMvcRequestBuilders.post(API.concat("/lote")).accept(JSON)
+                .contentType("application/x-ndjson")
+                .content("{\"descricao\":\"a\",\"usuario\":1}\n{\"descricao\":\"b\",\"usuario\":1}\n");
+
+        mvc.perform(request)
+                .andExpect(MockMvcResultMatchers.status().isOk())
+                .andExpect(MockMvcResultMatchers.jsonPath("inseridos").value(1))
+                .andExpect(MockMvcResultMatchers.jsonPath("erros[0].linha").value(2));
+    }
+}
@@ -0,0 +1,157 @@
+package com.project.renner.myFinances.controller;
+
+import com.project.renner.myFinances.model.Lancamento;
+import com.project.renner.myFinances.model.Usuario;
+import com.project.renner.myFinances.repository.LancamentoRepositoryTest;
+import com.project.renner.myFinances.repository.ResumoMensalRepository;
+import com.project.renner.myFinances.repository.SaldoUsuarioRepository;
+import com.project.renner.myFinances.repository.UsuarioRepository;
+import com.project.renner.myFinances.repository.UsuarioRepositoryTest;
+import com.project.renner.myFinances.service.LancamentoService;
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.request.MockMvcRequestBuilders;
+import org.springframework.test.web.servlet.result.MockMvcResultMatchers;
+
+import java.util.stream.Collectors;
+
+/**
+ * Leituras reativas sobre R2DBC, no mesmo banco em que a API JPA grava.
+ */
+@ExtendWith(SpringExtension.class)
+@ActiveProfiles("test")
+@SpringBootTest
+@AutoConfigureMockMvc
+public class LeituraReativaControllerIntegracaoTest {
+    static final String API = "/api/reativo";
+
+    @Autowired
+    MockMvc mvc;
+
+    @Autowired
+    LancamentoService lancamentoService;
+
+    @Autowired
+    UsuarioRepository usuarioRepository;
+
+    @Autowired
+    SaldoUsuarioRepository saldoUsuarioRepository;
+
+    @Autowired
+    ResumoMensalRepository resumoMensalRepository;
+
+    Usuario usuario;
+
+    Lancamento lancamento;
+
+    @BeforeEach
+    public void setUp(){
+        usuario = usuarioRepository.save(UsuarioRepositoryTest.criarUsuario());
+        lancamento = LancamentoRepositoryTest.criarLancamento();
+        lancamento.setUsuario(usuario);
+        lancamento = lancamentoService.salvar(lancamento);
+    }
+
+    @AfterEach
+    public void tearDown(){
+        lancamentoService.deletar(lancamentoService.obterPorId(lancamento.getId()).get());
+        saldoUsuarioRepository.deleteById(usuario.getId());
+        resumoMensalRepository.deleteAll(resumoMensalRepository.findAll().stream()
+                .filter(resumo -> usuario.getId().equals(resumo.getIdUsuario())).collect(Collectors.toList()));
+        usuarioRepository.delete(usuario);
+    }
+
+    @Test
+    public void deveTransmitirOsLancamentosEmNdjson() throws Exception{
+        MvcResult resultado = mvc.perform(MockMvcRequestBuilders.get(API + "/lancamentos")
+                        .param("usuario", usuario.getId().toString())
+                        .param("ano", lancamento.getAno().toString())
+                        .accept("application/x-ndjson"))
+                .andExpect(MockMvcResultMatchers.request().asyncStarted())
+                .andReturn();
+
+        String corpo = mvc.perform(MockMvcRequestBuilders.asyncDispatch(resultado))
+                .andExpect(MockMvcResultMatchers.status().isOk())
+                .andReturn().getResponse().getContentAsString();
+
+        Assertions.assertThat(corpo.trim().split("\n")).hasSize(1);
+        Assertions.assertThat(corpo).contains("\"id\":" + lancamento.getId())
+                .contains("\"usuario\":" + usuario.getId())
+                .contains("\"tipo\":\"" + lancamento.getTipo().name() + "\"");
+    }
+
+    @Test
+    public void deveTransmitirOsLancamentosComoEventos() throws Exception{
+        MvcResult resultado = mvc.perform(MockMvcRequestBuilders.get(API + "/lancamentos/eventos")
+                        .param("usuario", usuario.getId().toString())
+                        .accept(MediaType.TEXT_EVENT_STREAM))
+                .andExpect(MockMvcResultMatchers.request().asyncStarted())
+                .andReturn();
+
+        String corpo = mvc.perform(MockMvcRequestBuilders.asyncDispatch(resultado))
+                .andExpect(MockMvcResultMatchers.status().isOk())
+                .andReturn().getResponse().getContentAsString();
+
+        Assertions.assertThat(corpo).contains("id:" + lancamento.getId())
+                .contains("event:lancamento")
+                .contains("data:{\"id\":" + lancamento.getId());
+    }
+
+    @Test
+    public void naoDeveBuscarSemUsuario() throws Exception{
+        MvcResult resultado = mvc.perform(MockMvcRequestBuilders.get(API + "/lancamentos")
+                        .accept(MediaType.APPLICATION_JSON))
+                .andReturn();
+
+        mvc.perform(MockMvcRequestBuilders.asyncDispatch(resultado))
+                .andExpect(MockMvcResultMatchers.status().isBadRequest())
+                .andExpect(MockMvcResultMatchers.jsonPath("codigo").value("REGRA_NEGOCIO"))
+                .andExpect(MockMvcResultMatchers.jsonPath("mensagem").value("Informe o usuario da consulta."));
+    }
+
+    @Test
+    public void deveObterOSaldoMaterializado() throws Exception{
+        MvcResult resultado = mvc.perform(MockMvcRequestBuilders.get(API + "/usuarios/" + usuario.getId() + "/saldo"))
+                .andExpect(MockMvcResultMatchers.request().asyncStarted())
+                .andReturn();
+
+        String saldo = mvc.perform(MockMvcRequestBuilders.asyncDispatch(resultado))
+                .andExpect(MockMvcResultMatchers.status().isOk())
+                .andReturn().getResponse().getContentAsString();
+
+        Assertions.assertThat(saldo).isEqualTo(lancamentoService.obterSaldoPorUsuario(usuario.getId()).toString());
+    }
+
+    @Test
+    public void deveCalcularOSaldoQuandoNaoHaSaldoMaterializado() throws Exception{
+        saldoUsuarioRepository.deleteById(usuario.getId());
+        MvcResult resultado = mvc.perform(MockMvcRequestBuilders.get(API + "/usuarios/" + usuario.getId() + "/saldo"))
+                .andReturn();
+
+        String saldo = mvc.perform(MockMvcRequestBuilders.asyncDispatch(resultado))
+                .andExpect(MockMvcResultMatchers.status().isOk())
+                .andReturn().getResponse().getContentAsString();
+
+        Assertions.assertThat(saldo).isEqualTo(lancamentoService.obterSaldoPorUsuario(usuario.getId()).toString());
+    }
+
+    @Test
+    public void deveResponderNaoEncontradoParaUsuarioInexistente() throws Exception{
+        MvcResult resultado = mvc.perform(MockMvcRequestBuilders.get(API + "/usuarios/" + (usuario.getId() + 1000) + "/saldo"))
+                .andReturn();
+
+        mvc.perform(MockMvcRequestBuilders.asyncDispatch(resultado))
+                .andExpect(MockMvcResultMatchers.status().isNotFound());
+    }
+}
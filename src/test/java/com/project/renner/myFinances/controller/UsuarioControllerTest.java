@@ -1,28 +1,39 @@
 package com.project.renner.myFinances.controller;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.project.renner.myFinances.dto.SaldoMensalDTO;
 import com.project.renner.myFinances.dto.UsuarioDTO;
 import com.project.renner.myFinances.exception.ErroAutenticacao;
 import com.project.renner.myFinances.exception.RegraNegocioException;
 import com.project.renner.myFinances.model.Usuario;
+import com.project.renner.myFinances.seguranca.LimiteAutenticacao;
+import com.project.renner.myFinances.seguranca.TokenService;
 import com.project.renner.myFinances.service.LancamentoService;
 import com.project.renner.myFinances.service.UsuarioService;
-import org.junit.Test;
-import org.junit.runner.RunWith;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.Mockito;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.core.task.TaskRejectedException;
 import org.springframework.http.MediaType;
 import org.springframework.test.context.ActiveProfiles;
-import org.springframework.test.context.junit4.SpringRunner;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
 import org.springframework.test.web.servlet.MockMvc;
 import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
 import org.springframework.test.web.servlet.request.MockMvcRequestBuilders;
 import org.springframework.test.web.servlet.result.MockMvcResultMatchers;
 
-@RunWith(SpringRunner.class)
+import java.math.BigDecimal;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+@ExtendWith(SpringExtension.class)
 @ActiveProfiles("test")
 @WebMvcTest(controllers = UsuarioController.class)
 @AutoConfigureMockMvc
@@ -39,6 +50,12 @@ public class UsuarioControllerTest {
     @MockBean
     LancamentoService lancamentoService;
 
+    @MockBean
+    TokenService tokenService;
+
+    @MockBean
+    LimiteAutenticacao limiteAutenticacao;
+
 
     @Test
     public void deveAutenticarUmUsuario() throws Exception{
@@ -50,7 +67,8 @@ public class UsuarioControllerTest {
 
         Usuario usuario = Usuario.builder().id(1l).email(email).senha(senha).build();
 
-        Mockito.when(usuarioService.autenticar(email,senha)).thenReturn(usuario);
+        Mockito.when(usuarioService.autenticarAssincrono(email,senha)).thenReturn(CompletableFuture.completedFuture(usuario));
+        Mockito.when(tokenService.gerar(usuario)).thenReturn("token");
 
         String json = new ObjectMapper().writeValueAsString(usuarioDTO);
 
@@ -59,11 +77,12 @@ public class UsuarioControllerTest {
         MockHttpServletRequestBuilder request = MockMvcRequestBuilders.post(API.concat("/autenticar")).accept(JSON)
                 .contentType(JSON).content(json);
 
-        mvc.perform(request)
+        mvc.perform(MockMvcRequestBuilders.asyncDispatch(mvc.perform(request).andReturn()))
                 .andExpect(MockMvcResultMatchers.status().isOk())
                 .andExpect(MockMvcResultMatchers.jsonPath("id").value(usuario.getId()))
                 .andExpect(MockMvcResultMatchers.jsonPath("nome").value(usuario.getNome()))
-                .andExpect(MockMvcResultMatchers.jsonPath("email").value(usuario.getEmail()));
+                .andExpect(MockMvcResultMatchers.jsonPath("email").value(usuario.getEmail()))
+                .andExpect(MockMvcResultMatchers.jsonPath("token").value("token"));
     }
 
     @Test
@@ -74,7 +93,29 @@ public class UsuarioControllerTest {
 
         UsuarioDTO usuarioDTO = UsuarioDTO.builder().email("usuario@gmail.com").senha("123").build();
 
-        Mockito.when(usuarioService.autenticar(email,senha)).thenThrow(ErroAutenticacao.class);
+        CompletableFuture<Usuario> falha = new CompletableFuture<>();
+        falha.completeExceptionally(new ErroAutenticacao("Senha invalida."));
+        Mockito.when(usuarioService.autenticarAssincrono(email,senha)).thenReturn(falha);
+
+        String json = new ObjectMapper().writeValueAsString(usuarioDTO);
+
+        //execucao e verificacao
+
+        MockHttpServletRequestBuilder request = MockMvcRequestBuilders.post(API.concat("/autenticar")).accept(JSON)
+                .contentType(JSON).content(json);
+
+        mvc.perform(MockMvcRequestBuilders.asyncDispatch(mvc.perform(request).andReturn()))
+                .andExpect(MockMvcResultMatchers.status().isBadRequest())
+                .andExpect(MockMvcResultMatchers.jsonPath("codigo").value("AUTENTICACAO"))
+                .andExpect(MockMvcResultMatchers.jsonPath("mensagem").value("Senha invalida."));
+    }
+
+    @Test
+    public void deveRecusarAAutenticacaoAcimaDoLimiteSemConsultarOUsuario() throws Exception{
+        UsuarioDTO usuarioDTO = UsuarioDTO.builder().email("usuario@gmail.com").senha("123").build();
+
+        Mockito.when(limiteAutenticacao.verificar(Mockito.eq("usuario@gmail.com"), Mockito.anyString()))
+                .thenReturn(TimeUnit.MILLISECONDS.toNanos(2500));
 
         String json = new ObjectMapper().writeValueAsString(usuarioDTO);
 
@@ -84,7 +125,29 @@ public class UsuarioControllerTest {
                 .contentType(JSON).content(json);
 
         mvc.perform(request)
-                .andExpect(MockMvcResultMatchers.status().isBadRequest());
+                .andExpect(MockMvcResultMatchers.status().isTooManyRequests())
+                .andExpect(MockMvcResultMatchers.header().string("Retry-After", "3"))
+                .andExpect(MockMvcResultMatchers.jsonPath("codigo").value("LIMITE_TENTATIVAS"));
+        Mockito.verifyNoInteractions(usuarioService);
+    }
+
+    @Test
+    public void deveRetornarServiceUnavailableQuandoOExecutorDeAutenticacaoEstiverCheio() throws Exception{
+        UsuarioDTO usuarioDTO = UsuarioDTO.builder().email("usuario@gmail.com").senha("123").build();
+
+        Mockito.when(usuarioService.autenticarAssincrono("usuario@gmail.com", "123"))
+                .thenThrow(new TaskRejectedException("fila cheia"));
+
+        String json = new ObjectMapper().writeValueAsString(usuarioDTO);
+
+        //execucao e verificacao
+
+        MockHttpServletRequestBuilder request = MockMvcRequestBuilders.post(API.concat("/autenticar")).accept(JSON)
+                .contentType(JSON).content(json);
+
+        mvc.perform(MockMvcRequestBuilders.asyncDispatch(mvc.perform(request).andReturn()))
+                .andExpect(MockMvcResultMatchers.status().isServiceUnavailable())
+                .andExpect(MockMvcResultMatchers.header().string("Retry-After", "1"));
     }
 
     @Test
@@ -120,7 +183,8 @@ public class UsuarioControllerTest {
 
         UsuarioDTO usuarioDTO = UsuarioDTO.builder().email("usuario@gmail.com").senha("123").build();
 
-        Mockito.when(usuarioService.salvarUsuario(Mockito.any(Usuario.class))).thenThrow(RegraNegocioException.class);
+        Mockito.when(usuarioService.salvarUsuario(Mockito.any(Usuario.class)))
+                .thenThrow(new RegraNegocioException("Já existe um usuário cadastro com esse email"));
 
         String json = new ObjectMapper().writeValueAsString(usuarioDTO);
 
@@ -130,6 +194,27 @@ public class UsuarioControllerTest {
                 .contentType(JSON).content(json);
 
         mvc.perform(request)
-                .andExpect(MockMvcResultMatchers.status().isBadRequest());
+                .andExpect(MockMvcResultMatchers.status().isBadRequest())
+                .andExpect(MockMvcResultMatchers.jsonPath("codigo").value("REGRA_NEGOCIO"));
+    }
+
+    @Test
+    public void deveRetornarOsSaldosMensaisDoUsuario() throws Exception{
+        Usuario usuario = Usuario.builder().id(1l).build();
+        List<SaldoMensalDTO> saldos = Arrays.asList(
+                SaldoMensalDTO.builder().mes(1).receitas(BigDecimal.TEN).despesas(BigDecimal.ONE).saldo(BigDecimal.valueOf(9)).build());
+
+        Mockito.when(usuarioService.obterPorId(1l)).thenReturn(Optional.of(usuario));
+        Mockito.when(lancamentoService.obterSaldosMensaisPorUsuario(1l, 2019)).thenReturn(saldos);
+
+        //execucao e verificacao
+
+        MockHttpServletRequestBuilder request = MockMvcRequestBuilders.get(API.concat("/1/saldo/mensal"))
+                .param("ano", "2019").accept(JSON);
+
+        mvc.perform(request)
+                .andExpect(MockMvcResultMatchers.status().isOk())
+                .andExpect(MockMvcResultMatchers.jsonPath("[0].mes").value(1))
+                .andExpect(MockMvcResultMatchers.jsonPath("[0].saldo").value(9));
     }
 }
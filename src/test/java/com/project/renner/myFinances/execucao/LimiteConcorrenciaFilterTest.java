@@ -0,0 +1,64 @@
+package com.project.renner.myFinances.execucao;
+
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+public class LimiteConcorrenciaFilterTest {
+
+    @Test
+    public void deveRecusarAsRequisicoesAlemDoLimiteEnquantoAsVagasEstaoOcupadas() throws Exception{
+        LimiteConcorrenciaFilter filtro = new LimiteConcorrenciaFilter(1, 50);
+        CountDownLatch emAndamento = new CountDownLatch(1);
+        CountDownLatch liberar = new CountDownLatch(1);
+
+        CompletableFuture<MockHttpServletResponse> ocupante = CompletableFuture.supplyAsync(() -> {
+            MockHttpServletResponse resposta = new MockHttpServletResponse();
+            try {
+                filtro.doFilter(new MockHttpServletRequest("GET", "/api/lancamentos"), resposta, (req, res) -> {
+                    emAndamento.countDown();
+                    try {
+                        liberar.await();
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    }
+                });
+            } catch (Exception e) {
+                throw new IllegalStateException(e);
+            }
+            return resposta;
+        });
+        emAndamento.await(5, TimeUnit.SECONDS);
+
+        MockHttpServletResponse recusada = new MockHttpServletResponse();
+        filtro.doFilter(new MockHttpServletRequest("GET", "/api/lancamentos"), recusada,
+                (req, res) -> Assertions.fail("nao deveria processar"));
+
+        Assertions.assertThat(recusada.getStatus()).isEqualTo(503);
+        Assertions.assertThat(recusada.getHeader(HttpHeaders.RETRY_AFTER)).isEqualTo("1");
+
+        liberar.countDown();
+        Assertions.assertThat(ocupante.get(5, TimeUnit.SECONDS).getStatus()).isEqualTo(200);
+        Assertions.assertThat(filtro.vagasDisponiveis()).isEqualTo(1);
+
+        MockHttpServletResponse admitida = new MockHttpServletResponse();
+        filtro.doFilter(new MockHttpServletRequest("GET", "/api/lancamentos"), admitida, (req, res) -> { });
+        Assertions.assertThat(admitida.getStatus()).isEqualTo(200);
+    }
+
+    @Test
+    public void deveIndicarSeAJvmTemThreadsVirtuais(){
+        boolean java21 = Runtime.version().feature() >= 21;
+
+        Assertions.assertThat(ThreadsVirtuais.disponiveis()).isEqualTo(java21);
+        if(!java21){
+            Assertions.assertThatThrownBy(ThreadsVirtuais::novoExecutor).isInstanceOf(IllegalStateException.class);
+        }
+    }
+}
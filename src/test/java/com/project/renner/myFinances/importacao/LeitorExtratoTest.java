@@ -0,0 +1,97 @@
+package com.project.renner.myFinances.importacao;
+
+import com.project.renner.myFinances.dto.LancamentoDTO;
+import com.project.renner.myFinances.enums.FormatoExtrato;
+import com.project.renner.myFinances.exception.RegraNegocioException;
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.io.StringReader;
+
+public class LeitorExtratoTest {
+
+    @Test
+    public void deveLerUmCsvComSeparadorEDecimalBrasileiros(){
+        //cenario
+        String csv = "Valor;Histórico;Data\n"
+                + "-1.234,56;\"Aluguel; apto\";05/03/2021\n"
+                + "\n"
+                + "2500,00;\"Salario \"\"marco\"\"\";2021-03-31\n";
+
+        //execucao
+        LeitorExtrato leitor = LeitorExtrato.abrir(FormatoExtrato.CSV, new StringReader(csv), 7l);
+        LancamentoDTO despesa = leitor.next();
+        LancamentoDTO receita = leitor.next();
+
+        //verificacao
+        Assertions.assertThat(despesa.getDescricao()).isEqualTo("Aluguel; apto");
+        Assertions.assertThat(despesa.getValor()).isEqualByComparingTo("1234.56");
+        Assertions.assertThat(despesa.getTipo()).isEqualTo("DESPESA");
+        Assertions.assertThat(despesa.getMes()).isEqualTo(3);
+        Assertions.assertThat(despesa.getAno()).isEqualTo(2021);
+        Assertions.assertThat(despesa.getUsuario()).isEqualTo(7l);
+        Assertions.assertThat(receita.getDescricao()).isEqualTo("Salario \"marco\"");
+        Assertions.assertThat(receita.getTipo()).isEqualTo("RECEITA");
+        Assertions.assertThat(leitor.hasNext()).isFalse();
+    }
+
+    @Test
+    public void deveRejeitarSomenteATransacaoInvalidaDoCsv(){
+        //cenario
+        String csv = "data,descricao,valor\n31/02/2021,Mercado,-10.00\n01/04/2021,Mercado,abc\n01/04/2021,Mercado,\"-1,000.50\"\n";
+        LeitorExtrato leitor = LeitorExtrato.abrir(FormatoExtrato.CSV, new StringReader(csv), 1l);
+
+        //execucao e verificacao
+        Assertions.assertThatThrownBy(leitor::next).isInstanceOf(RegraNegocioException.class).hasMessageContaining("Data");
+        Assertions.assertThatThrownBy(leitor::next).isInstanceOf(RegraNegocioException.class).hasMessageContaining("Valor");
+        Assertions.assertThat(leitor.next().getValor()).isEqualByComparingTo("1000.50");
+        Assertions.assertThat(leitor.hasNext()).isFalse();
+    }
+
+    @Test
+    public void naoDeveLerUmCsvSemAsColunasObrigatorias(){
+        LeitorExtrato leitor = LeitorExtrato.abrir(FormatoExtrato.CSV, new StringReader("data;valor\n01/01/2021;10\n"), 1l);
+
+        Assertions.assertThatThrownBy(leitor::hasNext).isInstanceOf(RegraNegocioException.class);
+    }
+
+    @Test
+    public void naoDeveJuntarOArquivoInteiroNumCampoComAspasSemFechar(){
+        //cenario
+        StringBuilder csv = new StringBuilder("data;descricao;valor\n01/04/2021;\"Mercado;-10,00\n");
+        for (int i = 0; i < 200; i++) {
+            csv.append("01/04/2021;Mercado;-10,00\n");
+        }
+        LeitorExtrato leitor = LeitorExtrato.abrir(FormatoExtrato.CSV, new StringReader(csv.toString()), 1l);
+
+        //execucao e verificacao
+        Assertions.assertThatThrownBy(leitor::hasNext).isInstanceOf(RegraNegocioException.class)
+                .hasMessageContaining("aspas");
+    }
+
+    @Test
+    public void deveLerUmOfxSgml(){
+        //cenario
+        String ofx = "OFXHEADER:100\nDATA:OFXSGML\nCHARSET:1252\n\n"
+                + "<OFX><BANKMSGSRSV1><STMTTRNRS><STMTRS><BANKTRANLIST>\n"
+                + "<DTSTART>20210101\n"
+                + "<STMTTRN>\n<TRNTYPE>DEBIT\n<DTPOSTED>20210115120000[-3:BRT]\n<TRNAMT>-50.25\n<FITID>1\n<MEMO>Farmacia &amp; cia\n</STMTTRN>\n"
+                + "<STMTTRN><TRNTYPE>CREDIT<DTPOSTED>20210220<TRNAMT>1000<NAME>TED recebida</STMTTRN>\n"
+                + "</BANKTRANLIST></STMTRS></STMTTRNRS></BANKMSGSRSV1></OFX>\n";
+
+        //execucao
+        LeitorExtrato leitor = LeitorExtrato.abrir(FormatoExtrato.OFX, new StringReader(ofx), 1l);
+        LancamentoDTO despesa = leitor.next();
+        LancamentoDTO receita = leitor.next();
+
+        //verificacao
+        Assertions.assertThat(despesa.getDescricao()).isEqualTo("Farmacia & cia");
+        Assertions.assertThat(despesa.getValor()).isEqualByComparingTo("50.25");
+        Assertions.assertThat(despesa.getTipo()).isEqualTo("DESPESA");
+        Assertions.assertThat(despesa.getMes()).isEqualTo(1);
+        Assertions.assertThat(receita.getDescricao()).isEqualTo("TED recebida");
+        Assertions.assertThat(receita.getTipo()).isEqualTo("RECEITA");
+        Assertions.assertThat(receita.getMes()).isEqualTo(2);
+        Assertions.assertThat(leitor.hasNext()).isFalse();
+    }
+}
@@ -0,0 +1,90 @@
+package com.project.renner.myFinances.metricas;
+
+import com.project.renner.myFinances.exception.ErroAutenticacao;
+import com.project.renner.myFinances.exception.RegraNegocioException;
+import com.project.renner.myFinances.model.Lancamento;
+import com.project.renner.myFinances.model.Usuario;
+import com.project.renner.myFinances.repository.UsuarioRepository;
+import com.project.renner.myFinances.repository.UsuarioRepositoryTest;
+import com.project.renner.myFinances.service.LancamentoService;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.actuate.metrics.AutoConfigureMetrics;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.request.MockMvcRequestBuilders;
+import org.springframework.test.web.servlet.result.MockMvcResultMatchers;
+
+@ExtendWith(SpringExtension.class)
+@ActiveProfiles("test")
+@SpringBootTest
+@AutoConfigureMockMvc
+@AutoConfigureMetrics
+public class MetricasIntegracaoTest {
+
+    @Autowired
+    MockMvc mvc;
+
+    @Autowired
+    MeterRegistry registry;
+
+    @Autowired
+    LancamentoService lancamentoService;
+
+    @Autowired
+    UsuarioRepository usuarioRepository;
+
+    @Test
+    public void deveSepararAsViolacoesDeRegraDeNegocioDasChamadasComSucesso(){
+        Assertions.assertThatThrownBy(() -> lancamentoService.salvar(new Lancamento()))
+                .isInstanceOf(RegraNegocioException.class);
+        lancamentoService.obterSaldoPorUsuario(-1l);
+
+        Assertions.assertThat(registry.get(MetricasServicoAspect.METRICA)
+                .tags("classe", "LancamentoServiceImpl", "metodo", "salvar", "resultado", "regra_negocio",
+                        "excecao", "ValidacaoException")
+                .timer().count()).isEqualTo(1);
+        Assertions.assertThat(registry.get(MetricasServicoAspect.METRICA)
+                .tags("metodo", "obterSaldoPorUsuario", "resultado", "sucesso")
+                .timer().count()).isEqualTo(1);
+    }
+
+    @Test
+    public void devePublicarAsMetricasNoFormatoDoPrometheus() throws Exception{
+        Usuario usuario = usuarioRepository.save(UsuarioRepositoryTest.criarUsuario());
+        try {
+            mvc.perform(MockMvcRequestBuilders.get("/api/lancamentos").param("usuario", usuario.getId().toString()))
+                    .andExpect(MockMvcResultMatchers.status().isOk());
+
+            Assertions.assertThat(registry.get(ComandosPorRequisicaoFilter.METRICA)
+                    .tags("metodo", "GET", "uri", "/api/lancamentos").summary().totalAmount()).isPositive();
+
+            String metricas = mvc.perform(MockMvcRequestBuilders.get("/actuator/prometheus"))
+                    .andExpect(MockMvcResultMatchers.status().isOk())
+                    .andReturn().getResponse().getContentAsString();
+
+            Assertions.assertThat(metricas)
+                    .contains("myfinances_servico_seconds{")
+                    .contains("quantile=\"0.95\"")
+                    .contains("myfinances_requisicao_comandos")
+                    .contains("spring_data_repository_invocations_seconds")
+                    .contains("hikaricp_connections_active")
+                    .contains("hibernate_statements_total")
+                    .contains("http_server_requests_seconds");
+        } finally {
+            usuarioRepository.delete(usuario);
+        }
+    }
+
+    @Test
+    public void naoDevePreencherOStackTraceDosErrosEsperados(){
+        Assertions.assertThat(new RegraNegocioException("erro").getStackTrace()).isEmpty();
+        Assertions.assertThat(new ErroAutenticacao("erro").getStackTrace()).isEmpty();
+    }
+}
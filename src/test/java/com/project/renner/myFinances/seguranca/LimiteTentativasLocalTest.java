@@ -0,0 +1,55 @@
+package com.project.renner.myFinances.seguranca;
+
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+public class LimiteTentativasLocalTest {
+
+    AtomicLong agora = new AtomicLong(TimeUnit.HOURS.toNanos(1));
+
+    LimiteTentativasLocal limite = new LimiteTentativasLocal(3, Duration.ofSeconds(3), 100, agora::get);
+
+    @Test
+    public void devePermitirACapacidadeERecuperarUmaFichaPorIntervalo(){
+        Assertions.assertThat(limite.consumir("a")).isZero();
+        Assertions.assertThat(limite.consumir("a")).isZero();
+        Assertions.assertThat(limite.consumir("a")).isZero();
+        Assertions.assertThat(limite.consumir("a")).isEqualTo(TimeUnit.SECONDS.toNanos(1));
+        Assertions.assertThat(limite.consumir("b")).isZero();
+
+        agora.addAndGet(TimeUnit.MILLISECONDS.toNanos(400));
+        Assertions.assertThat(limite.consumir("a")).isEqualTo(TimeUnit.MILLISECONDS.toNanos(600));
+
+        agora.addAndGet(TimeUnit.MILLISECONDS.toNanos(600));
+        Assertions.assertThat(limite.consumir("a")).isZero();
+        Assertions.assertThat(limite.consumir("a")).isPositive();
+    }
+
+    @Test
+    public void deveDescartarOsBaldesQueJaEstariamCheios(){
+        limite.consumir("a");
+        limite.consumir("b");
+        Assertions.assertThat(limite.quantidadeBaldes()).isEqualTo(2);
+
+        agora.addAndGet(TimeUnit.SECONDS.toNanos(3));
+
+        Assertions.assertThat(limite.quantidadeBaldes()).isZero();
+        Assertions.assertThat(limite.consumir("a")).isZero();
+    }
+
+    @Test
+    public void deveConsumirOEmailSomenteSeOIpTiverFichas(){
+        LimiteTentativasLocal porEmail = new LimiteTentativasLocal(2, Duration.ofSeconds(2), 100, agora::get);
+        LimiteTentativasLocal porIp = new LimiteTentativasLocal(1, Duration.ofSeconds(1), 100, agora::get);
+        LimiteAutenticacao limiteAutenticacao = new LimiteAutenticacao(porEmail, porIp);
+
+        Assertions.assertThat(limiteAutenticacao.verificar(" Usuario@Email.com", "10.0.0.1")).isZero();
+        Assertions.assertThat(limiteAutenticacao.verificar("usuario@email.com", "10.0.0.1")).isPositive();
+        Assertions.assertThat(limiteAutenticacao.verificar("usuario@email.com", "10.0.0.2")).isZero();
+        Assertions.assertThat(limiteAutenticacao.verificar("usuario@email.com", "10.0.0.3")).isPositive();
+    }
+}
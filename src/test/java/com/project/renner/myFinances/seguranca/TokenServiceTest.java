@@ -0,0 +1,58 @@
+package com.project.renner.myFinances.seguranca;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.project.renner.myFinances.model.Usuario;
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneOffset;
+
+public class TokenServiceTest {
+
+    static final byte[] SEGREDO = "segredo-de-teste-com-pelo-menos-32-bytes".getBytes(StandardCharsets.UTF_8);
+
+    static final Instant AGORA = Instant.parse("2021-01-01T10:00:00Z");
+
+    TokenService tokenService = criar(SEGREDO, AGORA);
+
+    Usuario usuario = Usuario.builder().id(7l).nome("usuario").email("usuario@email.com").senha("senha").build();
+
+    @Test
+    public void deveValidarOTokenGeradoSemConsultarOBanco(){
+        String token = tokenService.gerar(usuario);
+
+        Assertions.assertThat(tokenService.validar(token))
+                .contains(new UsuarioAutenticado(7l, "usuario", "usuario@email.com"));
+        Assertions.assertThat(token.split("\\.")).hasSize(3);
+        Assertions.assertThat(token).doesNotContain("senha");
+    }
+
+    @Test
+    public void naoDeveAceitarUmTokenAlteradoOuAssinadoComOutroSegredo(){
+        String token = tokenService.gerar(usuario);
+        String[] partes = token.split("\\.");
+        String outroUsuario = tokenService.gerar(Usuario.builder().id(8l).build()).split("\\.")[1];
+
+        Assertions.assertThat(tokenService.validar(partes[0] + "." + outroUsuario + "." + partes[2])).isEmpty();
+        Assertions.assertThat(tokenService.validar(token + "x")).isEmpty();
+        Assertions.assertThat(tokenService.validar("abc")).isEmpty();
+        Assertions.assertThat(criar("outro-segredo-com-pelo-menos-32-bytes!!".getBytes(StandardCharsets.UTF_8), AGORA)
+                .validar(token)).isEmpty();
+    }
+
+    @Test
+    public void naoDeveAceitarUmTokenExpirado(){
+        String token = tokenService.gerar(usuario);
+
+        Assertions.assertThat(criar(SEGREDO, AGORA.plus(Duration.ofMinutes(59))).validar(token)).isPresent();
+        Assertions.assertThat(criar(SEGREDO, AGORA.plus(Duration.ofMinutes(60))).validar(token)).isEmpty();
+    }
+
+    private static TokenService criar(byte[] segredo, Instant agora){
+        return new TokenService(segredo, Duration.ofMinutes(60), Clock.fixed(agora, ZoneOffset.UTC), new ObjectMapper());
+    }
+}
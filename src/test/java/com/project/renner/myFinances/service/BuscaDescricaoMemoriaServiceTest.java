@@ -0,0 +1,84 @@
+package com.project.renner.myFinances.service;
+
+import com.project.renner.myFinances.model.Lancamento;
+import com.project.renner.myFinances.model.Usuario;
+import com.project.renner.myFinances.repository.LancamentoRepository;
+import com.project.renner.myFinances.repository.projection.DescricaoLancamento;
+import com.project.renner.myFinances.service.impl.BuscaDescricaoMemoriaServiceImpl;
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mockito;
+
+import javax.persistence.criteria.CriteriaBuilder;
+import javax.persistence.criteria.Path;
+import javax.persistence.criteria.Root;
+import java.util.Arrays;
+import java.util.Collection;
+
+public class BuscaDescricaoMemoriaServiceTest {
+
+    LancamentoRepository repository = Mockito.mock(LancamentoRepository.class);
+
+    BuscaDescricaoMemoriaServiceImpl buscaDescricaoService = new BuscaDescricaoMemoriaServiceImpl(repository);
+
+    @BeforeEach
+    public void setUp(){
+        Mockito.when(repository.findDescricoesByUsuarioId(1l)).thenReturn(Arrays.asList(
+                descricao(1l, "Mercado do bairro"), descricao(2l, "Farmacia"), descricao(3l, "supermercado")));
+    }
+
+    @Test
+    public void deveEncontrarLancamentosPeloTrechoDaDescricao(){
+        Assertions.assertThat(buscar("MERCADO")).containsExactlyInAnyOrder(1l, 3l);
+        Assertions.assertThat(buscar("do b")).containsExactly(1l);
+        Assertions.assertThat(buscar("fa")).containsExactly(2l);
+        Assertions.assertThat(buscar("padaria")).isEmpty();
+    }
+
+    @Test
+    public void deveAcompanharAsEscritasAposCarregarOIndice(){
+        buscar("mercado");
+
+        Lancamento lancamento = Lancamento.builder().id(2l).descricao("Padaria").usuario(Usuario.builder().id(1l).build()).build();
+        buscaDescricaoService.indexar(lancamento);
+        buscaDescricaoService.remover(1l, 3l);
+
+        Assertions.assertThat(buscar("farmacia")).isEmpty();
+        Assertions.assertThat(buscar("padaria")).containsExactly(2l);
+        Assertions.assertThat(buscar("mercado")).containsExactly(1l);
+        Mockito.verify(repository, Mockito.times(1)).findDescricoesByUsuarioId(1l);
+    }
+
+    @SuppressWarnings("unchecked")
+    private Collection<Long> buscar(String trecho){
+        Root<Lancamento> root = Mockito.mock(Root.class);
+        Path<Object> id = Mockito.mock(Path.class);
+        CriteriaBuilder cb = Mockito.mock(CriteriaBuilder.class);
+        Mockito.when(root.get("id")).thenReturn(id);
+
+        buscaDescricaoService.filtrar(1l, trecho).toPredicate(root, null, cb);
+
+        if(Mockito.mockingDetails(id).getInvocations().isEmpty()){
+            return Arrays.asList();
+        }
+        ArgumentCaptor<Collection> ids = ArgumentCaptor.forClass(Collection.class);
+        Mockito.verify(id).in(ids.capture());
+        return ids.getValue();
+    }
+
+    private static DescricaoLancamento descricao(Long id, String descricao){
+        return new DescricaoLancamento() {
+            @Override
+            public Long getId() {
+                return id;
+            }
+
+            @Override
+            public String getDescricao() {
+                return descricao;
+            }
+        };
+    }
+}
@@ -0,0 +1,103 @@
+package com.project.renner.myFinances.service;
+
+import com.project.renner.myFinances.dto.ImportacaoDTO;
+import com.project.renner.myFinances.dto.LancamentoDTO;
+import com.project.renner.myFinances.enums.FormatoExtrato;
+import com.project.renner.myFinances.enums.StatusImportacao;
+import com.project.renner.myFinances.model.Usuario;
+import com.project.renner.myFinances.repository.LancamentoRepository;
+import com.project.renner.myFinances.repository.LancamentoSpecifications;
+import com.project.renner.myFinances.repository.SaldoUsuarioRepository;
+import com.project.renner.myFinances.repository.UsuarioRepository;
+import com.project.renner.myFinances.repository.UsuarioRepositoryTest;
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.Sort;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * A importacao roda em outra thread e grava em transacoes proprias; os dados sao removidos ao final.
+ */
+@ExtendWith(SpringExtension.class)
+@ActiveProfiles("test")
+@SpringBootTest(properties = "myfinances.lote.tamanho-bloco=7")
+public class ImportacaoServiceIntegracaoTest {
+
+    @Autowired
+    ImportacaoService importacaoService;
+
+    @Autowired
+    LancamentoService lancamentoService;
+
+    @Autowired
+    LancamentoRepository lancamentoRepository;
+
+    @Autowired
+    SaldoUsuarioRepository saldoUsuarioRepository;
+
+    @Autowired
+    UsuarioRepository usuarioRepository;
+
+    Usuario usuario;
+
+    @BeforeEach
+    public void setUp(){
+        usuario = usuarioRepository.save(UsuarioRepositoryTest.criarUsuario());
+    }
+
+    @AfterEach
+    public void tearDown(){
+        lancamentoRepository.buscar(LancamentoSpecifications.doUsuario(usuario.getId()), Sort.unsorted(), 1000)
+                .forEach(lancamento -> lancamentoRepository.deleteById(lancamento.getId()));
+        saldoUsuarioRepository.deleteById(usuario.getId());
+        usuarioRepository.delete(usuario);
+    }
+
+    @Test
+    public void deveImportarUmExtratoCsvEmBlocos() throws Exception{
+        //cenario
+        StringBuilder csv = new StringBuilder("data;descricao;valor\n");
+        for(int i = 1; i <= 30; i++){
+            csv.append(String.format("%02d/05/2021;Compra %d;-10,00\n", i, i));
+        }
+        csv.append("31/05/2021;Salario;1.000,00\n");
+        csv.append("32/05/2021;Data invalida;5,00\n");
+
+        //execucao
+        ImportacaoDTO importacao = importacaoService.importar(usuario.getId(), FormatoExtrato.CSV, null, "extrato.csv",
+                new ByteArrayInputStream(csv.toString().getBytes(StandardCharsets.UTF_8)));
+        importacao = aguardar(importacao.getId());
+
+        //verificacao
+        Assertions.assertThat(importacao.getStatus()).isEqualTo(StatusImportacao.CONCLUIDA);
+        Assertions.assertThat(importacao.getResultado().getRecebidos()).isEqualTo(32);
+        Assertions.assertThat(importacao.getResultado().getInseridos()).isEqualTo(31);
+        Assertions.assertThat(importacao.getResultado().getErros()).extracting("linha").containsExactly(32l);
+        Assertions.assertThat(lancamentoService.obterSaldoPorUsuario(usuario.getId())).isEqualByComparingTo("700");
+        LancamentoDTO salario = lancamentoRepository.buscar(LancamentoSpecifications.descricaoContendo("Salario")
+                .and(LancamentoSpecifications.doUsuario(usuario.getId())), Sort.unsorted(), 1).get(0);
+        Assertions.assertThat(salario.getTipo()).isEqualTo("RECEITA");
+        Assertions.assertThat(salario.getMes()).isEqualTo(5);
+        Assertions.assertThat(salario.getAno()).isEqualTo(2021);
+    }
+
+    private ImportacaoDTO aguardar(String id) throws InterruptedException {
+        for(int tentativa = 0; tentativa < 100; tentativa++){
+            ImportacaoDTO importacao = importacaoService.obterPorId(id).get();
+            if(importacao.getStatus() != StatusImportacao.EM_ANDAMENTO){
+                return importacao;
+            }
+            Thread.sleep(100);
+        }
+        throw new AssertionError("A importacao nao terminou a tempo");
+    }
+}
@@ -0,0 +1,442 @@
+package com.project.renner.myFinances.service;
+
+import com.project.renner.myFinances.dto.CursorLancamento;
+import com.project.renner.myFinances.dto.ErroLinhaDTO;
+import com.project.renner.myFinances.dto.LancamentoDTO;
+import com.project.renner.myFinances.dto.ResultadoLoteDTO;
+import com.project.renner.myFinances.dto.ResumoMensalDTO;
+import com.project.renner.myFinances.enums.StatusLancamento;
+import com.project.renner.myFinances.enums.TipoLancamento;
+import com.project.renner.myFinances.exception.RegraNegocioException;
+import com.project.renner.myFinances.exception.TransicaoStatusInvalidaException;
+import com.project.renner.myFinances.model.Lancamento;
+import com.project.renner.myFinances.model.ResumoMensal;
+import com.project.renner.myFinances.model.ResumoMensalId;
+import com.project.renner.myFinances.model.Usuario;
+import com.project.renner.myFinances.repository.LancamentoRepository;
+import com.project.renner.myFinances.repository.LancamentoRepositoryTest;
+import com.project.renner.myFinances.repository.ResumoMensalRepository;
+import com.project.renner.myFinances.repository.UsuarioRepository;
+import com.project.renner.myFinances.repository.UsuarioRepositoryTest;
+import org.assertj.core.api.Assertions;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.Sort;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.persistence.EntityManager;
+import javax.persistence.EntityManagerFactory;
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+@ExtendWith(SpringExtension.class)
+@ActiveProfiles("test")
+@SpringBootTest
+@Transactional
+public class LancamentoServiceIntegracaoTest {
+
+    @Autowired
+    LancamentoService lancamentoService;
+
+    @Autowired
+    UsuarioRepository usuarioRepository;
+
+    @Autowired
+    LoteLancamentoService loteLancamentoService;
+
+    @Autowired
+    LancamentoRepository lancamentoRepository;
+
+    @Autowired
+    ResumoMensalService resumoMensalService;
+
+    @Autowired
+    ResumoMensalRepository resumoMensalRepository;
+
+    @Autowired
+    PlatformTransactionManager transactionManager;
+
+    @Autowired
+    EntityManager entityManager;
+
+    @Autowired
+    EntityManagerFactory entityManagerFactory;
+
+    @Test
+    public void devePercorrerOsLancamentosPorCursorNaOrdemAnoMesId(){
+        //cenario
+        Usuario usuario = usuarioRepository.save(UsuarioRepositoryTest.criarUsuario());
+        salvar(usuario, 2020, 1, "aluguel");
+        salvar(usuario, 2019, 5, "mercado");
+        salvar(usuario, 2019, 5, "farmacia");
+        salvar(usuario, 2019, 2, "salario");
+
+        Lancamento filtro = new Lancamento();
+        filtro.setUsuario(usuario);
+
+        //execucao
+        List<String> descricoes = new ArrayList<>();
+        CursorLancamento cursor = null;
+        Slice<LancamentoDTO> pagina;
+        do {
+            pagina = lancamentoService.buscar(filtro, cursor, 3);
+            pagina.forEach(lancamento -> descricoes.add(lancamento.getDescricao()));
+            List<LancamentoDTO> conteudo = pagina.getContent();
+            cursor = CursorLancamento.de(conteudo.get(conteudo.size() - 1));
+        } while (pagina.hasNext());
+
+        //verificacao
+        Assertions.assertThat(descricoes).containsExactly("salario", "mercado", "farmacia", "aluguel");
+    }
+
+    @Test
+    public void deveFiltrarPorAnoMesEDescricao(){
+        //cenario
+        Usuario usuario = usuarioRepository.save(UsuarioRepositoryTest.criarUsuario());
+        salvar(usuario, 2019, 5, "Mercado do bairro");
+        salvar(usuario, 2019, 5, "farmacia");
+        salvar(usuario, 2019, 6, "mercado");
+
+        Lancamento filtro = new Lancamento();
+        filtro.setUsuario(usuario);
+        filtro.setAno(2019);
+        filtro.setMes(5);
+        filtro.setDescricao("MERCADO");
+
+        //execucao
+        Slice<LancamentoDTO> resultado = lancamentoService.buscar(filtro, null, 10);
+
+        //verificacao
+        Assertions.assertThat(resultado.getContent()).extracting(LancamentoDTO::getDescricao)
+                .containsExactly("Mercado do bairro");
+    }
+
+    @Test
+    public void devePaginarOrdenandoPorValorSemConsultaDeContagem(){
+        //cenario
+        Usuario usuario = usuarioRepository.save(UsuarioRepositoryTest.criarUsuario());
+        salvar(usuario, 2019, 1, "aluguel", 1500);
+        salvar(usuario, 2019, 2, "mercado", 300);
+        salvar(usuario, 2019, 3, "farmacia", 80);
+        salvar(usuario, 2019, 4, "padaria", 300);
+        salvar(usuario, 2019, 5, "cinema", 40);
+        lancamentoRepository.flush();
+
+        Lancamento filtro = new Lancamento();
+        filtro.setUsuario(usuario);
+        Statistics estatisticas = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        estatisticas.clear();
+
+        //execucao
+        Slice<LancamentoDTO> primeira = lancamentoService.buscar(filtro, PageRequest.of(0, 2, Sort.by(Sort.Order.desc("valor"))));
+        long comandos = estatisticas.getPrepareStatementCount();
+        Slice<LancamentoDTO> segunda = lancamentoService.buscar(filtro, PageRequest.of(1, 2, Sort.by(Sort.Order.desc("valor"))));
+        Slice<LancamentoDTO> ultima = lancamentoService.buscar(filtro, PageRequest.of(2, 2, Sort.by(Sort.Order.desc("valor"))));
+
+        //verificacao
+        Assertions.assertThat(comandos).isEqualTo(1);
+        Assertions.assertThat(primeira.getContent()).extracting(LancamentoDTO::getDescricao)
+                .containsExactly("aluguel", "mercado");
+        Assertions.assertThat(primeira.hasNext()).isTrue();
+        // empate no valor resolvido pelo id
+        Assertions.assertThat(segunda.getContent()).extracting(LancamentoDTO::getDescricao)
+                .containsExactly("padaria", "farmacia");
+        Assertions.assertThat(ultima.getContent()).extracting(LancamentoDTO::getDescricao).containsExactly("cinema");
+        Assertions.assertThat(ultima.hasNext()).isFalse();
+    }
+
+    @Test
+    public void deveInformarOTotalAproximadoQuandoPedido(){
+        //cenario
+        Usuario usuario = usuarioRepository.save(UsuarioRepositoryTest.criarUsuario());
+        for(int mes = 1; mes <= 5; mes++){
+            salvar(usuario, 2019, mes, mes % 2 == 0 ? "mercado" : "farmacia");
+        }
+        salvar(usuario, 2020, 1, "mercado");
+
+        Lancamento filtro = new Lancamento();
+        filtro.setUsuario(usuario);
+        filtro.setAno(2019);
+        Lancamento filtroDescricao = new Lancamento();
+        filtroDescricao.setUsuario(usuario);
+        filtroDescricao.setDescricao("mercado");
+
+        //execucao
+        Page<LancamentoDTO> doAno = lancamentoService.buscarComTotal(filtro, PageRequest.of(0, 2, Sort.by("dataCadastro")));
+        Page<LancamentoDTO> porDescricao = lancamentoService.buscarComTotal(filtroDescricao, PageRequest.of(0, 1));
+        Page<LancamentoDTO> ultima = lancamentoService.buscarComTotal(filtro, PageRequest.of(2, 2));
+
+        //verificacao
+        Assertions.assertThat(doAno.getTotalElements()).isEqualTo(5);
+        Assertions.assertThat(doAno.getTotalPages()).isEqualTo(3);
+        Assertions.assertThat(porDescricao.getTotalElements()).isEqualTo(3);
+        Assertions.assertThat(ultima.getTotalElements()).isEqualTo(5);
+        Assertions.assertThat(ultima.hasNext()).isFalse();
+    }
+
+    @Test
+    public void naoDeveOrdenarPorCampoNaoPermitido(){
+        Usuario usuario = usuarioRepository.save(UsuarioRepositoryTest.criarUsuario());
+        Lancamento filtro = new Lancamento();
+        filtro.setUsuario(usuario);
+
+        Assertions.assertThatThrownBy(() -> lancamentoService.buscar(filtro, PageRequest.of(0, 10, Sort.by("descricao"))))
+                .isInstanceOf(RegraNegocioException.class)
+                .hasMessage("Ordenacao invalida: descricao. Ordene por ano, mes, valor ou dataCadastro.");
+    }
+
+    @Test
+    public void deveSalvarOLoteEmBlocosReportandoAsLinhasInvalidas(){
+        //cenario
+        Usuario usuario = usuarioRepository.save(UsuarioRepositoryTest.criarUsuario());
+        List<LancamentoDTO> lote = new ArrayList<>();
+        for(int i = 0; i < 120; i++){
+            lote.add(LancamentoDTO.builder().descricao("linha " + i).ano(2019).mes(i % 12 + 1)
+                    .valor(BigDecimal.TEN).tipo("RECEITA").usuario(usuario.getId()).build());
+        }
+        lote.get(4).setValor(BigDecimal.ZERO);
+        lote.get(9).setTipo("OUTRO");
+        lote.get(10).setUsuario(-1l);
+        Statistics estatisticas = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        estatisticas.clear();
+
+        //execucao
+        ResultadoLoteDTO resultado = loteLancamentoService.salvar(lote.iterator());
+
+        //verificacao
+        Assertions.assertThat(resultado.getRecebidos()).isEqualTo(120);
+        Assertions.assertThat(resultado.getInseridos()).isEqualTo(117);
+        Assertions.assertThat(resultado.getErros()).extracting(ErroLinhaDTO::getLinha).containsExactly(5l, 10l, 11l);
+        Assertions.assertThat(estatisticas.getEntityInsertCount()).isEqualTo(117);
+        // blocos de insert mais ate cinco comandos por chave nova do resumo mensal (um ano de um usuario):
+        // UPDATE, trava do usuario, nova tentativa do UPDATE, soma dos lancamentos e INSERT
+        Assertions.assertThat(estatisticas.getPrepareStatementCount()).isLessThan(20 + 5 * 12);
+        Assertions.assertThat(lancamentoService.obterSaldoPorUsuario(usuario.getId())).isEqualByComparingTo("1170");
+    }
+
+    @Test
+    public void deveTransicionarOStatusAlterandoSoOLancamentoNoCache(){
+        //cenario
+        Usuario usuario = usuarioRepository.save(UsuarioRepositoryTest.criarUsuario());
+        Lancamento lancamento = salvar(usuario, 2019, 1, "aluguel");
+        lancamentoService.transicionarStatus(salvar(usuario, 2019, 1, "mercado").getId(), StatusLancamento.EFETIVADO);
+        Statistics estatisticas = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        estatisticas.clear();
+
+        //execucao
+        boolean transicionou = lancamentoService.transicionarStatus(lancamento.getId(), StatusLancamento.EFETIVADO);
+
+        //verificacao
+        Assertions.assertThat(transicionou).isTrue();
+        // o lancamento vem do cache de segundo nivel: as duas linhas do resumo e o UPDATE condicionado a versao
+        Assertions.assertThat(estatisticas.getPrepareStatementCount()).isEqualTo(3);
+        Assertions.assertThat(estatisticas.getEntityLoadCount()).isZero();
+        Assertions.assertThat(estatisticas.getEntityUpdateCount()).isEqualTo(1);
+        Assertions.assertThat(status(lancamento)).isEqualTo(StatusLancamento.EFETIVADO);
+    }
+
+    @Test
+    public void deveRespeitarAsTransicoesDeStatusPermitidas(){
+        //cenario
+        Usuario usuario = usuarioRepository.save(UsuarioRepositoryTest.criarUsuario());
+        Lancamento lancamento = salvar(usuario, 2019, 1, "aluguel");
+        lancamentoService.transicionarStatus(lancamento.getId(), StatusLancamento.CANCELADO);
+
+        //execucao e verificacao
+        Assertions.assertThat(lancamentoService.transicionarStatus(lancamento.getId(), StatusLancamento.CANCELADO)).isTrue();
+        Assertions.assertThatThrownBy(() -> lancamentoService.transicionarStatus(lancamento.getId(), StatusLancamento.EFETIVADO))
+                .isInstanceOf(TransicaoStatusInvalidaException.class);
+        Assertions.assertThatThrownBy(() -> lancamentoService.transicionarStatus(lancamento.getId(), StatusLancamento.PENDENTE))
+                .isInstanceOf(TransicaoStatusInvalidaException.class);
+        Assertions.assertThat(lancamentoService.transicionarStatus(-1l, StatusLancamento.EFETIVADO)).isFalse();
+        Assertions.assertThat(status(lancamento)).isEqualTo(StatusLancamento.CANCELADO);
+    }
+
+    @Test
+    public void deveEfetivarOsPendentesDoFiltroComUmUnicoComando(){
+        //cenario
+        Usuario usuario = usuarioRepository.save(UsuarioRepositoryTest.criarUsuario());
+        Usuario outroUsuario = usuarioRepository.save(UsuarioRepositoryTest.criarUsuario());
+        Lancamento aluguel = salvar(usuario, 2019, 1, "aluguel");
+        Lancamento mercado = salvar(usuario, 2019, 1, "mercado");
+        Lancamento cancelado = salvar(usuario, 2019, 1, "farmacia");
+        Lancamento outroMes = salvar(usuario, 2019, 2, "salario");
+        Lancamento deOutroUsuario = salvar(outroUsuario, 2019, 1, "aluguel");
+        lancamentoService.transicionarStatus(cancelado.getId(), StatusLancamento.CANCELADO);
+        BigDecimal saldo = lancamentoService.obterSaldoPorUsuario(usuario.getId());
+
+        Lancamento filtro = new Lancamento();
+        filtro.setUsuario(usuario);
+        filtro.setAno(2019);
+        filtro.setMes(1);
+        Statistics estatisticas = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        estatisticas.clear();
+
+        //execucao
+        int atualizados = lancamentoService.transicionarStatus(filtro, null, StatusLancamento.EFETIVADO);
+
+        //verificacao
+        Assertions.assertThat(atualizados).isEqualTo(2);
+        // agrupamento, resumo de origem, resumo de destino (criado a partir dos lancamentos, com a trava do
+        // usuario e a nova tentativa) e um unico UPDATE
+        Assertions.assertThat(estatisticas.getPrepareStatementCount()).isEqualTo(8);
+        Assertions.assertThat(estatisticas.getEntityLoadCount()).isZero();
+        Assertions.assertThat(status(aluguel)).isEqualTo(StatusLancamento.EFETIVADO);
+        Assertions.assertThat(status(mercado)).isEqualTo(StatusLancamento.EFETIVADO);
+        Assertions.assertThat(status(cancelado)).isEqualTo(StatusLancamento.CANCELADO);
+        Assertions.assertThat(status(outroMes)).isEqualTo(StatusLancamento.PENDENTE);
+        Assertions.assertThat(status(deOutroUsuario)).isEqualTo(StatusLancamento.PENDENTE);
+        Assertions.assertThat(lancamentoService.obterSaldoPorUsuario(usuario.getId())).isEqualByComparingTo(saldo);
+    }
+
+    @Test
+    public void deveCancelarSomenteOsIdsInformadosQueEstiveremPendentes(){
+        //cenario
+        Usuario usuario = usuarioRepository.save(UsuarioRepositoryTest.criarUsuario());
+        Lancamento aluguel = salvar(usuario, 2019, 1, "aluguel");
+        Lancamento efetivado = salvar(usuario, 2019, 1, "mercado");
+        Lancamento naoInformado = salvar(usuario, 2019, 1, "farmacia");
+        lancamentoService.transicionarStatus(efetivado.getId(), StatusLancamento.EFETIVADO);
+
+        //execucao
+        int atualizados = lancamentoService.transicionarStatus(new Lancamento(),
+                Arrays.asList(aluguel.getId(), efetivado.getId(), -1l), StatusLancamento.CANCELADO);
+
+        //verificacao
+        Assertions.assertThat(atualizados).isEqualTo(1);
+        Assertions.assertThat(status(aluguel)).isEqualTo(StatusLancamento.CANCELADO);
+        Assertions.assertThat(status(efetivado)).isEqualTo(StatusLancamento.EFETIVADO);
+        Assertions.assertThat(status(naoInformado)).isEqualTo(StatusLancamento.PENDENTE);
+    }
+
+    @Test
+    public void naoDeveAlterarStatusEmMassaSemIdsNemUsuario(){
+        Assertions.assertThatThrownBy(() -> lancamentoService.transicionarStatus(new Lancamento(), null,
+                        StatusLancamento.EFETIVADO)).isInstanceOf(RegraNegocioException.class);
+    }
+
+    @Test
+    public void deveManterOResumoMensalIgualAoRecalculado(){
+        //cenario
+        Usuario usuario = usuarioRepository.save(UsuarioRepositoryTest.criarUsuario());
+        Lancamento aluguel = salvar(usuario, 2019, 1, "aluguel");
+        Lancamento mercado = salvar(usuario, 2019, 1, "mercado");
+        Lancamento farmacia = salvar(usuario, 2019, 3, "farmacia");
+        salvar(usuario, 2019, 3, "salario");
+        salvar(usuario, 2020, 1, "outro ano");
+        loteLancamentoService.salvar(Arrays.asList(
+                LancamentoDTO.builder().descricao("lote").ano(2019).mes(3).valor(BigDecimal.ONE)
+                        .tipo("RECEITA").usuario(usuario.getId()).build(),
+                LancamentoDTO.builder().descricao("lote").ano(2019).mes(5).valor(BigDecimal.ONE)
+                        .tipo("DESPESA").usuario(usuario.getId()).build()).iterator());
+
+        lancamentoService.transicionarStatus(aluguel.getId(), StatusLancamento.EFETIVADO);
+        mercado.setValor(BigDecimal.valueOf(42));
+        mercado.setMes(2);
+        lancamentoService.atualizar(mercado);
+        lancamentoService.deletar(farmacia);
+        Lancamento filtro = new Lancamento();
+        filtro.setUsuario(usuario);
+        filtro.setMes(3);
+        lancamentoService.transicionarStatus(filtro, null, StatusLancamento.CANCELADO);
+
+        //execucao
+        List<ResumoMensalDTO> mantido = lancamentoService.obterResumoMensalPorUsuario(usuario.getId(), 2019);
+        resumoMensalService.reconstruir();
+        List<ResumoMensalDTO> recalculado = lancamentoService.obterResumoMensalPorUsuario(usuario.getId(), 2019);
+
+        //verificacao
+        Assertions.assertThat(mantido).extracting(ResumoMensalDTO::getMes, ResumoMensalDTO::getStatus,
+                        ResumoMensalDTO::getQuantidade)
+                .containsExactly(Assertions.tuple(1, "EFETIVADO", 1l), Assertions.tuple(2, "PENDENTE", 1l),
+                        Assertions.tuple(3, "CANCELADO", 2l),
+                        Assertions.tuple(5, "PENDENTE", 1l));
+        Assertions.assertThat(mantido).usingRecursiveFieldByFieldElementComparator()
+                .usingComparatorForType(BigDecimal::compareTo, BigDecimal.class)
+                .containsExactlyElementsOf(recalculado);
+    }
+
+    @Test
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public void deveSomarAsPrimeirasMovimentacoesConcorrentesDaMesmaChaveDoResumo() throws Exception{
+        //cenario
+        Usuario usuario = usuarioRepository.save(UsuarioRepositoryTest.criarUsuario());
+        ResumoMensalId chave = new ResumoMensalId(usuario.getId(), 2019, 1, TipoLancamento.RECEITA,
+                StatusLancamento.PENDENTE);
+        TransactionTemplate transacao = new TransactionTemplate(transactionManager);
+        CountDownLatch registrou = new CountDownLatch(1);
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        try {
+            //execucao: a primeira movimentacao insere a linha e so confirma depois que a segunda comecou
+            Future<?> primeira = executor.submit(() -> transacao.executeWithoutResult(status -> {
+                resumoMensalService.registrarInclusao(chave, BigDecimal.TEN, 1);
+                registrou.countDown();
+                esperar(200);
+            }));
+            registrou.await();
+            transacao.executeWithoutResult(status -> resumoMensalService.registrarInclusao(chave, BigDecimal.ONE, 1));
+            primeira.get();
+
+            //verificacao
+            ResumoMensal resumo = resumoMensalRepository.findById(chave).get();
+            Assertions.assertThat(resumo.getValor()).isEqualByComparingTo("11");
+            Assertions.assertThat(resumo.getQuantidade()).isEqualTo(2);
+        } finally {
+            executor.shutdown();
+            resumoMensalRepository.findById(chave).ifPresent(resumoMensalRepository::delete);
+            usuarioRepository.delete(usuario);
+        }
+    }
+
+    private static void esperar(long milissegundos){
+        try {
+            Thread.sleep(milissegundos);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    // descarta o contexto de persistencia para ler o status gravado, inclusive pelos UPDATEs em massa
+    private StatusLancamento status(Lancamento lancamento){
+        entityManager.flush();
+        entityManager.clear();
+        return lancamentoRepository.findById(lancamento.getId()).map(Lancamento::getStatus).orElse(null);
+    }
+
+    private Lancamento salvar(Usuario usuario, int ano, int mes, String descricao, long valor){
+        Lancamento lancamento = LancamentoRepositoryTest.criarLancamento();
+        lancamento.setValor(BigDecimal.valueOf(valor));
+        lancamento.setUsuario(usuario);
+        lancamento.setAno(ano);
+        lancamento.setMes(mes);
+        lancamento.setDescricao(descricao);
+        return lancamentoService.salvar(lancamento);
+    }
+
+    private Lancamento salvar(Usuario usuario, int ano, int mes, String descricao){
+        Lancamento lancamento = LancamentoRepositoryTest.criarLancamento();
+        lancamento.setUsuario(usuario);
+        lancamento.setAno(ano);
+        lancamento.setMes(mes);
+        lancamento.setDescricao(descricao);
+        return lancamentoService.salvar(lancamento);
+    }
+}
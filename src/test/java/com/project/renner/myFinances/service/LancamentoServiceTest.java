@@ -1,6 +1,9 @@
 package com.project.renner.myFinances.service;
 
+import com.project.renner.myFinances.dto.CursorLancamento;
+import com.project.renner.myFinances.dto.LancamentoDTO;
 import com.project.renner.myFinances.enums.StatusLancamento;
+import com.project.renner.myFinances.enums.TipoLancamento;
 import com.project.renner.myFinances.exception.RegraNegocioException;
 import com.project.renner.myFinances.model.Lancamento;
 import com.project.renner.myFinances.model.Usuario;
@@ -8,21 +11,23 @@ import com.project.renner.myFinances.repository.LancamentoRepository;
 import com.project.renner.myFinances.repository.LancamentoRepositoryTest;
 import com.project.renner.myFinances.service.impl.LancamentoServiceImpl;
 import org.assertj.core.api.Assertions;
-import org.junit.Test;
-import org.junit.runner.RunWith;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.Mockito;
 import org.springframework.boot.test.mock.mockito.MockBean;
 import org.springframework.boot.test.mock.mockito.SpyBean;
-import org.springframework.data.domain.Example;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
 import org.springframework.test.context.ActiveProfiles;
-import org.springframework.test.context.junit4.SpringRunner;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
 
 import java.math.BigDecimal;
 import java.util.Arrays;
 import java.util.List;
 import java.util.Optional;
 
-@RunWith(SpringRunner.class)
+@ExtendWith(SpringExtension.class)
 @ActiveProfiles("test")
 public class LancamentoServiceTest {
 
@@ -32,6 +37,15 @@ public class LancamentoServiceTest {
     @MockBean
     LancamentoRepository repository;
 
+    @MockBean
+    SaldoUsuarioService saldoUsuarioService;
+
+    @MockBean
+    BuscaDescricaoService buscaDescricaoService;
+
+    @MockBean
+    ResumoMensalService resumoMensalService;
+
     @Test
     public void deveSalvarUmLancamento(){
         //cenarios
@@ -41,7 +55,7 @@ public class LancamentoServiceTest {
         Lancamento lancamentoSalvo = LancamentoRepositoryTest.criarLancamento();
         lancamentoSalvo.setId(1l);
         lancamentoSalvo.setStatus(StatusLancamento.PENDENTE);
-        Mockito.when(repository.save(lancamentoASalvar)).thenReturn(lancamentoSalvo);
+        Mockito.when(repository.saveAndFlush(lancamentoASalvar)).thenReturn(lancamentoSalvo);
 
         //execucao
         Lancamento lancamento = lancamentoService.salvar(lancamentoASalvar);
@@ -56,13 +70,13 @@ public class LancamentoServiceTest {
     public void naoDeveSalvarUmLancamentoQuandoHouverErroDeValidacao(){
         //cenario
         Lancamento lancamentoASalvar = LancamentoRepositoryTest.criarLancamento();
-        Mockito.doThrow(RegraNegocioException.class).when(lancamentoService).validar(lancamentoASalvar);
+        Mockito.doThrow(new RegraNegocioException("Informe uma Descricao valida.")).when(lancamentoService).validar(lancamentoASalvar);
 
         //execucao e verificacao
         Assertions.catchThrowableOfType(() -> lancamentoService.salvar(lancamentoASalvar), RegraNegocioException.class);
 
         //
-        Mockito.verify(repository, Mockito.never()).save(lancamentoASalvar);
+        Mockito.verify(repository, Mockito.never()).saveAndFlush(lancamentoASalvar);
     }
 
     @Test
@@ -72,12 +86,20 @@ public class LancamentoServiceTest {
         lancamentoSalvo.setId(1l);
         lancamentoSalvo.setStatus(StatusLancamento.PENDENTE);
 
+        Lancamento atual = LancamentoRepositoryTest.criarLancamento();
+        atual.setId(1l);
+        atual.setStatus(StatusLancamento.PENDENTE);
+        lancamentoSalvo.setValor(BigDecimal.valueOf(42));
+
         Mockito.doNothing().when(lancamentoService).validar(lancamentoSalvo);
-        Mockito.when(repository.save(lancamentoSalvo)).thenReturn(lancamentoSalvo);
+        Mockito.when(repository.findById(1l)).thenReturn(Optional.of(atual));
         //execucao
-        lancamentoService.atualizar(lancamentoSalvo);
+        Lancamento lancamento = lancamentoService.atualizar(lancamentoSalvo);
         //verificacao
-        Mockito.verify(repository, Mockito.times(1)).save(lancamentoSalvo);
+        Assertions.assertThat(lancamento).isSameAs(atual);
+        Assertions.assertThat(lancamento.getValor()).isEqualByComparingTo("42");
+        Mockito.verify(repository, Mockito.never()).save(Mockito.any());
+        Mockito.verify(repository, Mockito.never()).obterValoresSaldo(Mockito.any());
     }
 
     @Test
@@ -96,6 +118,7 @@ public class LancamentoServiceTest {
         //cenario
         Lancamento lancamento = LancamentoRepositoryTest.criarLancamento();
         lancamento.setId(1l);
+        Mockito.when(repository.findById(1l)).thenReturn(Optional.of(lancamento));
 
         //execucao
         lancamentoService.deletar(lancamento);
@@ -105,6 +128,56 @@ public class LancamentoServiceTest {
 
     }
 
+    @Test
+    public void deveRegistrarNoSaldoOLancamentoSalvo(){
+        //cenario
+        Lancamento lancamento = LancamentoRepositoryTest.criarLancamento();
+        lancamento.setUsuario(Usuario.builder().id(1l).build());
+        Mockito.doNothing().when(lancamentoService).validar(lancamento);
+
+        //execucao
+        lancamentoService.salvar(lancamento);
+
+        //verificacao
+        Mockito.verify(saldoUsuarioService).registrarInclusao(1l, lancamento.getTipo(), lancamento.getValor());
+    }
+
+    @Test
+    public void naoDeveAlterarOSaldoQuandoSomenteOStatusMudar(){
+        //cenario
+        Lancamento lancamento = LancamentoRepositoryTest.criarLancamento();
+        lancamento.setId(1l);
+        lancamento.setUsuario(Usuario.builder().id(1l).build());
+        Lancamento atual = LancamentoRepositoryTest.criarLancamento();
+        atual.setId(1l);
+        atual.setUsuario(Usuario.builder().id(1l).build());
+        Mockito.when(repository.findById(1l)).thenReturn(Optional.of(atual));
+        Mockito.doNothing().when(lancamentoService).validar(lancamento);
+
+        //execucao
+        lancamentoService.atualizarStatus(lancamento, StatusLancamento.EFETIVADO);
+
+        //verificacao
+        Mockito.verifyNoInteractions(saldoUsuarioService);
+    }
+
+    @Test
+    public void deveRetirarDoSaldoOLancamentoDeletado(){
+        //cenario
+        Lancamento lancamento = LancamentoRepositoryTest.criarLancamento();
+        lancamento.setId(1l);
+        lancamento.setUsuario(Usuario.builder().id(1l).build());
+        lancamento.setTipo(TipoLancamento.DESPESA);
+        lancamento.setValor(BigDecimal.TEN);
+        Mockito.when(repository.findById(1l)).thenReturn(Optional.of(lancamento));
+
+        //execucao
+        lancamentoService.deletar(lancamento);
+
+        //verificacao
+        Mockito.verify(saldoUsuarioService).registrarExclusao(1l, TipoLancamento.DESPESA, BigDecimal.TEN);
+    }
+
     @Test
     public void deveLancarErroAoTentarDeletarUmLancamentoQueAindaNaoFoiSalvo(){
         //cenario
@@ -117,21 +190,59 @@ public class LancamentoServiceTest {
         Mockito.verify(repository, Mockito.never() ).delete(lancamento);
     }
 
+    @Test
+    public void naoDeveDeletarUmLancamentoDeOutroUsuario(){
+        //cenario
+        Lancamento lancamento = LancamentoRepositoryTest.criarLancamento();
+        lancamento.setId(1l);
+        lancamento.setUsuario(Usuario.builder().id(1l).build());
+        Mockito.when(repository.findById(1l)).thenReturn(Optional.of(lancamento));
+
+        //execucao
+        boolean deletado = lancamentoService.deletar(1l, 2l);
+
+        //verificacao
+        Assertions.assertThat(deletado).isFalse();
+        Mockito.verify(repository, Mockito.never()).delete(Mockito.any());
+        Mockito.verifyNoInteractions(saldoUsuarioService);
+    }
+
 
     @Test
     public void deveFiltrarLancamentos(){
         //cenario
         Lancamento lancamento = LancamentoRepositoryTest.criarLancamento();
         lancamento.setId(1l);
+        lancamento.setUsuario(Usuario.builder().id(1l).build());
+        LancamentoDTO lancamentoDTO = LancamentoDTO.builder().id(1l).usuario(1l).build();
+
+        List<LancamentoDTO> lista = Arrays.asList(lancamentoDTO);
+        Mockito.when(repository.buscar(Mockito.any(Specification.class), Mockito.any(Sort.class), Mockito.eq(11)))
+                .thenReturn(lista);
 
-        List<Lancamento> lista = Arrays.asList(lancamento);
-        Mockito.when(repository.findAll(Mockito.any(Example.class))).thenReturn(lista);
+        //execucao
+        Slice<LancamentoDTO> resultado = lancamentoService.buscar(lancamento, null, 10);
+
+        //verificacao
+        Assertions.assertThat(resultado.getContent()).isNotEmpty().hasSize(1).contains(lancamentoDTO);
+        Assertions.assertThat(resultado.hasNext()).isFalse();
+    }
+
+    @Test
+    public void deveIndicarProximaPaginaQuandoHouverMaisLancamentosQueOTamanho(){
+        //cenario
+        Lancamento filtro = new Lancamento();
+        filtro.setUsuario(Usuario.builder().id(1l).build());
+        List<LancamentoDTO> lista = Arrays.asList(new LancamentoDTO(), new LancamentoDTO(), new LancamentoDTO());
+        Mockito.when(repository.buscar(Mockito.any(Specification.class), Mockito.any(Sort.class), Mockito.eq(3)))
+                .thenReturn(lista);
 
         //execucao
-        List<Lancamento> resultado = lancamentoService.buscar(lancamento);
+        Slice<LancamentoDTO> resultado = lancamentoService.buscar(filtro, new CursorLancamento(2019, 1, 10l), 2);
 
         //verificacao
-        Assertions.assertThat(resultado).isNotEmpty().hasSize(1).contains(lancamento);
+        Assertions.assertThat(resultado.getContent()).hasSize(2);
+        Assertions.assertThat(resultado.hasNext()).isTrue();
     }
 
     @Test
@@ -0,0 +1,164 @@
+package com.project.renner.myFinances.service;
+
+import com.project.renner.myFinances.dto.DivergenciaSaldoDTO;
+import com.project.renner.myFinances.dto.SaldoMensalDTO;
+import com.project.renner.myFinances.enums.TipoLancamento;
+import com.project.renner.myFinances.model.Lancamento;
+import com.project.renner.myFinances.model.SaldoUsuario;
+import com.project.renner.myFinances.model.Usuario;
+import com.project.renner.myFinances.repository.LancamentoRepository;
+import com.project.renner.myFinances.repository.LancamentoRepositoryTest;
+import com.project.renner.myFinances.repository.SaldoUsuarioRepository;
+import com.project.renner.myFinances.repository.UsuarioRepository;
+import com.project.renner.myFinances.repository.UsuarioRepositoryTest;
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+@ExtendWith(SpringExtension.class)
+@ActiveProfiles("test")
+@SpringBootTest
+@Transactional
+public class SaldoUsuarioServiceTest {
+
+    @Autowired
+    LancamentoService lancamentoService;
+
+    @Autowired
+    SaldoUsuarioService saldoUsuarioService;
+
+    @Autowired
+    SaldoUsuarioRepository saldoUsuarioRepository;
+
+    @Autowired
+    UsuarioRepository usuarioRepository;
+
+    @Autowired
+    LancamentoRepository lancamentoRepository;
+
+    @Autowired
+    PlatformTransactionManager transactionManager;
+
+    @Test
+    public void deveManterOSaldoAtualizadoNasEscritasDeLancamentos(){
+        //cenario
+        Usuario usuario = usuarioRepository.save(UsuarioRepositoryTest.criarUsuario());
+        Lancamento receita = lancamentoService.salvar(criarLancamento(usuario, TipoLancamento.RECEITA, 100));
+        Lancamento despesa = lancamentoService.salvar(criarLancamento(usuario, TipoLancamento.DESPESA, 30));
+
+        //execucao
+        receita.setValor(BigDecimal.valueOf(150));
+        lancamentoService.atualizar(receita);
+        lancamentoService.deletar(despesa);
+
+        //verificacao
+        SaldoUsuario saldo = saldoUsuarioRepository.findById(usuario.getId()).get();
+        Assertions.assertThat(saldo.getReceitas()).isEqualByComparingTo("150");
+        Assertions.assertThat(saldo.getDespesas()).isEqualByComparingTo("0");
+        Assertions.assertThat(lancamentoService.obterSaldoPorUsuario(usuario.getId())).isEqualByComparingTo("150");
+    }
+
+    @Test
+    public void deveCorrigirEReportarSaldosDivergentes(){
+        //cenario
+        Usuario usuario = usuarioRepository.save(UsuarioRepositoryTest.criarUsuario());
+        lancamentoService.salvar(criarLancamento(usuario, TipoLancamento.RECEITA, 100));
+        SaldoUsuario saldo = saldoUsuarioRepository.findById(usuario.getId()).get();
+        saldo.setReceitas(BigDecimal.valueOf(999));
+        saldoUsuarioRepository.flush();
+
+        //execucao
+        List<DivergenciaSaldoDTO> divergencias = saldoUsuarioService.reconciliar();
+
+        //verificacao
+        Assertions.assertThat(divergencias).hasSize(1);
+        Assertions.assertThat(divergencias.get(0).getSaldoArmazenado()).isEqualByComparingTo("999");
+        Assertions.assertThat(divergencias.get(0).getSaldoCalculado()).isEqualByComparingTo("100");
+        Assertions.assertThat(saldoUsuarioService.obterSaldo(usuario.getId())).isEqualByComparingTo("100");
+    }
+
+    @Test
+    public void deveCalcularOSaldoMensalDoAno(){
+        //cenario
+        Usuario usuario = usuarioRepository.save(UsuarioRepositoryTest.criarUsuario());
+        lancamentoService.salvar(criarLancamento(usuario, TipoLancamento.RECEITA, 100));
+        lancamentoService.salvar(criarLancamento(usuario, TipoLancamento.DESPESA, 40));
+        Lancamento marco = criarLancamento(usuario, TipoLancamento.DESPESA, 15);
+        marco.setMes(3);
+        lancamentoService.salvar(marco);
+
+        //execucao
+        List<SaldoMensalDTO> saldos = lancamentoService.obterSaldosMensaisPorUsuario(usuario.getId(), 2019);
+
+        //verificacao
+        Assertions.assertThat(saldos).hasSize(12);
+        Assertions.assertThat(saldos.get(0).getReceitas()).isEqualByComparingTo("100");
+        Assertions.assertThat(saldos.get(0).getDespesas()).isEqualByComparingTo("40");
+        Assertions.assertThat(saldos.get(0).getSaldo()).isEqualByComparingTo("60");
+        Assertions.assertThat(saldos.get(1).getSaldo()).isEqualByComparingTo("0");
+        Assertions.assertThat(saldos.get(2).getSaldo()).isEqualByComparingTo("-15");
+        Assertions.assertThat(lancamentoRepository.obterSaldoConsolidado(usuario.getId()).getSaldo())
+                .isEqualByComparingTo("45");
+    }
+
+    @Test
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public void deveSomarAsPrimeirasEscritasConcorrentesDoUsuario() throws Exception{
+        //cenario
+        Usuario usuario = usuarioRepository.save(UsuarioRepositoryTest.criarUsuario());
+        TransactionTemplate transacao = new TransactionTemplate(transactionManager);
+        CountDownLatch registrou = new CountDownLatch(1);
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        try {
+            //execucao: a primeira escrita insere o saldo e so confirma depois que a segunda comecou
+            Future<?> primeira = executor.submit(() -> transacao.executeWithoutResult(status -> {
+                saldoUsuarioService.registrarInclusao(usuario.getId(), TipoLancamento.RECEITA, BigDecimal.TEN);
+                registrou.countDown();
+                esperar(200);
+            }));
+            registrou.await();
+            transacao.executeWithoutResult(status ->
+                    saldoUsuarioService.registrarInclusao(usuario.getId(), TipoLancamento.RECEITA, BigDecimal.ONE));
+            primeira.get();
+
+            //verificacao
+            Assertions.assertThat(saldoUsuarioRepository.findById(usuario.getId()).get().getReceitas())
+                    .isEqualByComparingTo("11");
+        } finally {
+            executor.shutdown();
+            saldoUsuarioRepository.findById(usuario.getId()).ifPresent(saldoUsuarioRepository::delete);
+            usuarioRepository.delete(usuario);
+        }
+    }
+
+    private static void esperar(long milissegundos){
+        try {
+            Thread.sleep(milissegundos);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static Lancamento criarLancamento(Usuario usuario, TipoLancamento tipo, int valor){
+        Lancamento lancamento = LancamentoRepositoryTest.criarLancamento();
+        lancamento.setUsuario(usuario);
+        lancamento.setTipo(tipo);
+        lancamento.setValor(BigDecimal.valueOf(valor));
+        return lancamento;
+    }
+}
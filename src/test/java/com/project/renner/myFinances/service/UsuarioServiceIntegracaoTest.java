@@ -0,0 +1,85 @@
+package com.project.renner.myFinances.service;
+
+import com.project.renner.myFinances.config.Caches;
+import com.project.renner.myFinances.model.Usuario;
+import com.project.renner.myFinances.repository.UsuarioRepository;
+import com.project.renner.myFinances.repository.UsuarioRepositoryTest;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.assertj.core.api.Assertions;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+import org.springframework.transaction.annotation.Transactional;
+
+import javax.persistence.EntityManager;
+import javax.persistence.EntityManagerFactory;
+
+@ExtendWith(SpringExtension.class)
+@ActiveProfiles("test")
+@SpringBootTest
+@Transactional
+public class UsuarioServiceIntegracaoTest {
+
+    @Autowired
+    UsuarioService usuarioService;
+
+    @Autowired
+    UsuarioRepository usuarioRepository;
+
+    @Autowired
+    EntityManager entityManager;
+
+    @Autowired
+    EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    MeterRegistry meterRegistry;
+
+    @Test
+    public void deveConsultarOUsuarioUmaUnicaVezPorId(){
+        //cenario
+        Usuario usuario = usuarioRepository.save(UsuarioRepositoryTest.criarUsuario());
+        entityManager.flush();
+        entityManager.clear();
+        Statistics estatisticas = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        estatisticas.clear();
+        double acertos = acertos(Caches.USUARIOS);
+
+        //execucao
+        usuarioService.obterPorId(usuario.getId());
+        entityManager.clear();
+        Usuario emCache = usuarioService.obterPorId(usuario.getId()).get();
+
+        //verificacao
+        Assertions.assertThat(emCache.getEmail()).isEqualTo(usuario.getEmail());
+        Assertions.assertThat(estatisticas.getPrepareStatementCount()).isEqualTo(1);
+        Assertions.assertThat(acertos(Caches.USUARIOS) - acertos).isEqualTo(1);
+    }
+
+    @Test
+    public void deveAtualizarOCacheAoSalvarUmUsuario(){
+        //cenario
+        Usuario usuario = UsuarioRepositoryTest.criarUsuario();
+        usuario.setEmail("cache@email.com");
+        Assertions.assertThat(usuarioRepository.findByEmail(usuario.getEmail())).isEmpty();
+
+        //execucao
+        Usuario salvo = usuarioService.salvarUsuario(usuario);
+
+        //verificacao
+        Statistics estatisticas = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        estatisticas.clear();
+        Assertions.assertThat(usuarioService.obterPorId(salvo.getId())).containsSame(salvo);
+        Assertions.assertThat(usuarioRepository.findByEmail(usuario.getEmail())).isPresent();
+        Assertions.assertThat(estatisticas.getPrepareStatementCount()).isEqualTo(1);
+    }
+
+    private double acertos(String cache){
+        return meterRegistry.get("cache.gets").tag("cache", cache).tag("result", "hit").functionCounter().count();
+    }
+}
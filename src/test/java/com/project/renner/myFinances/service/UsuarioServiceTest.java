@@ -6,19 +6,22 @@ import com.project.renner.myFinances.model.Usuario;
 import com.project.renner.myFinances.repository.UsuarioRepository;
 import com.project.renner.myFinances.service.impl.UsuarioServiceImpl;
 import org.assertj.core.api.Assertions;
-import org.junit.Test;
-import org.junit.runner.RunWith;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
 import org.mockito.Mockito;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
 import org.springframework.boot.test.mock.mockito.SpyBean;
+import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.test.context.ActiveProfiles;
-import org.springframework.test.context.junit4.SpringRunner;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
 
 import java.util.Optional;
 
 @SpringBootTest
-@RunWith(SpringRunner.class)
+@ExtendWith(SpringExtension.class)
 @ActiveProfiles("test")
 public class UsuarioServiceTest {
     @SpyBean
@@ -28,7 +31,10 @@ public class UsuarioServiceTest {
     @MockBean
     UsuarioRepository usuarioRepository;
 
-    @Test(expected = Test.None.class)
+    @Autowired
+    PasswordEncoder passwordEncoder;
+
+    @Test
     public void deveValidarEmail(){
         //cenario
         Mockito.when(usuarioRepository.existsByEmail(Mockito.anyString())).thenReturn(false);
@@ -37,17 +43,17 @@ public class UsuarioServiceTest {
 
     }
 
-    @Test(expected = RegraNegocioException.class)
+    @Test
     public void deveLancarErroQuandoExistirEmailCadastrado(){
         //cenario
         Mockito.when(usuarioRepository.existsByEmail(Mockito.anyString())).thenReturn(true);
 
         //acao
-        usuarioService.validarEmail("email@email.com");
-
+        Throwable exception = Assertions.catchThrowable(() -> usuarioService.validarEmail("email@email.com"));
+        Assertions.assertThat(exception).isInstanceOf(RegraNegocioException.class);
     }
 
-    @Test(expected = Test.None.class)
+    @Test
     public void deveAutenticarUsuarioComSucesso(){
         //cenario
         String email = "email@email.com";
@@ -83,7 +89,7 @@ public class UsuarioServiceTest {
          Assertions.assertThat(exception).isInstanceOf(ErroAutenticacao.class).hasMessage("Senha invalida.");
     }
 
-    @Test(expected = Test.None.class)
+    @Test
     public void deveSalvarUmUsuario(){
         //cenario
         Mockito.doNothing().when(usuarioService).validarEmail(Mockito.anyString());
@@ -105,10 +111,60 @@ public class UsuarioServiceTest {
         //cenario
         String email = "email@email.com";
         Usuario usuario = Usuario.builder().email("email@email.com").build();
-        Mockito.doThrow(RegraNegocioException.class).when(usuarioService).validarEmail("email@email.com");
+        Mockito.doThrow(new RegraNegocioException("Já existe um usuário cadastro com esse email"))
+                .when(usuarioService).validarEmail(email);
         //acao
-        usuarioService.validarEmail(email);
+        Throwable exception = Assertions.catchThrowable(() -> usuarioService.salvarUsuario(usuario));
         //verificacao
+        Assertions.assertThat(exception).isInstanceOf(RegraNegocioException.class);
         Mockito.verify(usuarioRepository, Mockito.never()).save(usuario);
     }
+
+    @Test
+    public void deveAutenticarComASenhaCriptografada(){
+        //cenario
+        String email = "email@email.com";
+        Usuario usuario = Usuario.builder().email(email).senha(passwordEncoder.encode("senha")).id(1l).build();
+        Mockito.when(usuarioRepository.findByEmail(email)).thenReturn(Optional.of(usuario));
+
+        //acao
+        Usuario result = usuarioService.autenticar(email, "senha");
+        Throwable exception = Assertions.catchThrowable(() -> usuarioService.autenticar(email, "outra"));
+
+        //verificacao
+        Assertions.assertThat(result).isSameAs(usuario);
+        Assertions.assertThat(exception).isInstanceOf(ErroAutenticacao.class).hasMessage("Senha invalida.");
+        Mockito.verify(usuarioRepository, Mockito.never()).atualizarSenha(Mockito.any(), Mockito.any(), Mockito.any());
+    }
+
+    @Test
+    public void deveGravarOHashDaSenhaEmTextoPuroAoAutenticar(){
+        //cenario
+        String email = "email@email.com";
+        Usuario usuario = Usuario.builder().email(email).senha("senha").id(1l).build();
+        Mockito.when(usuarioRepository.findByEmail(email)).thenReturn(Optional.of(usuario));
+
+        //acao
+        usuarioService.autenticar(email, "senha");
+
+        //verificacao
+        ArgumentCaptor<String> hash = ArgumentCaptor.forClass(String.class);
+        Mockito.verify(usuarioRepository).atualizarSenha(Mockito.eq(1l), Mockito.eq("senha"), hash.capture());
+        Assertions.assertThat(passwordEncoder.matches("senha", hash.getValue())).isTrue();
+    }
+
+    @Test
+    public void deveCriptografarASenhaAoSalvarUmUsuario(){
+        //cenario
+        Mockito.doNothing().when(usuarioService).validarEmail(Mockito.anyString());
+        Mockito.when(usuarioRepository.save(Mockito.any(Usuario.class))).then(invocacao -> invocacao.getArgument(0));
+        Usuario usuario = Usuario.builder().id(1l).email("email@email.com").senha("senha").build();
+
+        //acao
+        Usuario usuarioSalvo = usuarioService.salvarUsuario(usuario);
+
+        //verificacao
+        Assertions.assertThat(usuarioSalvo.getSenha()).isNotEqualTo("senha");
+        Assertions.assertThat(passwordEncoder.matches("senha", usuarioSalvo.getSenha())).isTrue();
+    }
 }
@@ -0,0 +1,61 @@
+package com.project.renner.myFinances.validacao;
+
+import com.project.renner.myFinances.model.Lancamento;
+import com.project.renner.myFinances.model.Usuario;
+import com.project.renner.myFinances.repository.LancamentoRepositoryTest;
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+
+public class ValidadorLancamentoTest {
+
+    @Test
+    public void deveDevolverOResultadoCompartilhadoParaUmLancamentoValido(){
+        //cenario
+        Lancamento lancamento = LancamentoRepositoryTest.criarLancamento();
+        lancamento.setUsuario(Usuario.builder().id(1l).build());
+
+        //execucao
+        ResultadoValidacao resultado = ValidadorLancamento.validar(lancamento);
+
+        //verificacao
+        Assertions.assertThat(resultado).isSameAs(ResultadoValidacao.VALIDO);
+        Assertions.assertThat(resultado.getViolacoes()).isEmpty();
+        Assertions.assertThat(resultado.getPrimeiraMensagem()).isNull();
+    }
+
+    @Test
+    public void deveReunirTodasAsRegrasVioladas(){
+        //cenario
+        Lancamento lancamento = LancamentoRepositoryTest.criarLancamento();
+        lancamento.setDescricao(" \t ");
+        lancamento.setAno(999);
+        lancamento.setValor(BigDecimal.ZERO);
+
+        //execucao
+        ResultadoValidacao resultado = ValidadorLancamento.validar(lancamento);
+
+        //verificacao
+        Assertions.assertThat(resultado.isValido()).isFalse();
+        Assertions.assertThat(resultado.getViolacoes()).containsExactly(RegraLancamento.DESCRICAO,
+                RegraLancamento.ANO, RegraLancamento.USUARIO, RegraLancamento.VALOR);
+        Assertions.assertThat(resultado.getPrimeiraMensagem()).isEqualTo("informe uma Descricao valida.");
+        Assertions.assertThat(resultado.getMensagem()).isEqualTo("informe uma Descricao valida.; Informe um Ano valido.; "
+                + "Informe um usuario; Informe um Valor valido.");
+    }
+
+    @Test
+    public void deveValidarOAnoPelosQuatroDigitos(){
+        Lancamento lancamento = LancamentoRepositoryTest.criarLancamento();
+
+        lancamento.setAno(1000);
+        Assertions.assertThat(ValidadorLancamento.validar(lancamento).violou(RegraLancamento.ANO)).isFalse();
+        lancamento.setAno(9999);
+        Assertions.assertThat(ValidadorLancamento.validar(lancamento).violou(RegraLancamento.ANO)).isFalse();
+        lancamento.setAno(10000);
+        Assertions.assertThat(ValidadorLancamento.validar(lancamento).violou(RegraLancamento.ANO)).isTrue();
+        lancamento.setAno(-202);
+        Assertions.assertThat(ValidadorLancamento.validar(lancamento).violou(RegraLancamento.ANO)).isTrue();
+    }
+}